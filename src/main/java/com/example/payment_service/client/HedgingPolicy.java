@@ -0,0 +1,124 @@
+package com.example.payment_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * 요청 헤징 정책 (서비스별 1개, HedgingPolicyFactory 로 생성).
+ *
+ * 첫 호출이 최근 응답 시간의 percentile 만큼 지나도 끝나지 않으면 같은 호출을 한 번 더 보냅니다.
+ * @LoadBalanced 라운드로빈이라 두 번째 호출은 보통 다른 인스턴스로 가고, 먼저 끝난 쪽을 쓰고 나머지는 취소합니다.
+ * 추가 호출은 token bucket 예산(호출당 budgetRatio 토큰 적립, 헤지당 1 토큰 소모)으로 전체 트래픽의 일정 비율 이하로 제한합니다.
+ */
+public class HedgingPolicy {
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int MIN_SAMPLES = 50;
+    private static final long RECOMPUTE_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final double budgetRatio;
+    private final double maxTokens;
+
+    // 최근 성공 응답 시간 (ring buffer)
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int sampleIndex;
+    private volatile long hedgeDelayNanos;
+    private long lastComputedNanos;
+    private double tokens;
+
+    private final Counter hedged;
+    private final Counter budgetExhausted;
+    private final Counter hedgeWins;
+
+    public HedgingPolicy(String serviceName, boolean enabled, double percentile, Duration minDelay, Duration initialDelay,
+                         double budgetRatio, double maxTokens, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.maxTokens = maxTokens;
+        this.hedgeDelayNanos = initialDelayNanos;
+        this.tokens = maxTokens;
+
+        this.hedged = Counter.builder("payment.hedge.requests").tag("service", serviceName).tag("outcome", "fired").register(meterRegistry);
+        this.budgetExhausted = Counter.builder("payment.hedge.requests").tag("service", serviceName).tag("outcome", "budget_exhausted").register(meterRegistry);
+        this.hedgeWins = Counter.builder("payment.hedge.wins").tag("service", serviceName).register(meterRegistry);
+        Gauge.builder("payment.hedge.delay", this, policy -> policy.hedgeDelayNanos / 1_000_000_000.0)
+             .tag("service", serviceName)
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        return Mono.defer(() -> {
+            earnToken();
+            long startNanos = System.nanoTime();
+
+            Mono<T> primary = call.get()
+                                  .doOnNext(v -> recordLatency(System.nanoTime() - startNanos))
+                                  // 헤지에 져서 취소된 경우도 하한값으로 기록 (느린 응답이 표본에서 빠져 지연 기준이 낮아지는 것 방지)
+                                  .doOnCancel(() -> recordLatency(System.nanoTime() - startNanos));
+
+            Mono<T> backup = Mono.delay(Duration.ofNanos(hedgeDelayNanos))
+                                 .flatMap(tick -> {
+                                     if (!tryAcquireToken()) {
+                                         budgetExhausted.increment();
+                                         return Mono.<T>never();
+                                     }
+                                     hedged.increment();
+                                     return call.get()
+                                                .doOnNext(v -> hedgeWins.increment())
+                                                // 헤지 쪽 실패는 무시하고 원래 호출 결과를 기다림
+                                                .onErrorResume(e -> Mono.never());
+                                 });
+
+            // 먼저 신호를 낸 쪽이 이기고 나머지는 취소 (원래 호출의 에러는 그대로 전파)
+            return Mono.firstWithSignal(primary, backup);
+        });
+    }
+
+    private synchronized void earnToken() {
+        tokens = Math.min(maxTokens, tokens + budgetRatio);
+    }
+
+    private synchronized boolean tryAcquireToken() {
+        if (tokens < 1.0) return false;
+        tokens -= 1.0;
+        return true;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        samples[sampleIndex] = nanos;
+        sampleIndex = (sampleIndex + 1) % SAMPLE_SIZE;
+        sampleCount = Math.min(sampleCount + 1, SAMPLE_SIZE);
+
+        long now = System.nanoTime();
+        if (sampleCount >= MIN_SAMPLES && now - lastComputedNanos >= RECOMPUTE_INTERVAL_NANOS) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+            lastComputedNanos = now;
+        }
+    }
+
+    Duration currentDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.payment_service.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 서비스 이름별 HedgingPolicy 생성 (ReactiveCircuitBreakerFactory 와 같은 방식으로 클라이언트 생성자에서 호출).
+ * 설정은 services.<서비스명>.hedge.* 를 읽고, enabled 기본값은 false (opt-in) 입니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class HedgingPolicyFactory {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public HedgingPolicy create(String serviceName) {
+        String prefix = "services." + serviceName + ".hedge.";
+        return new HedgingPolicy(
+                serviceName,
+                environment.getProperty(prefix + "enabled", Boolean.class, false),
+                environment.getProperty(prefix + "percentile", Double.class, 95.0),
+                environment.getProperty(prefix + "min-delay", Duration.class, Duration.ofMillis(20)),
+                environment.getProperty(prefix + "initial-delay", Duration.class, Duration.ofMillis(200)),
+                environment.getProperty(prefix + "budget-ratio", Double.class, 0.1),
+                environment.getProperty(prefix + "max-tokens", Double.class, 10.0),
+                meterRegistry
+        );
+    }
+}
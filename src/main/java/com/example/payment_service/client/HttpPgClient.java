@@ -0,0 +1,186 @@
+package com.example.payment_service.client;
+
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP 기반 PG 연동 (payment.pg.client=http).
+ *
+ * 외부 PG 는 Eureka 대상이 아니므로 @LoadBalanced 빌더 대신 전용 커넥션 풀(pg)을 가진 WebClient 를 씁니다.
+ * 풀 크기/keep-alive 수명은 payment.pg.http.pool.* 로 조정하고, reactor.netty.connection.provider.* 메트릭으로 확인합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.pg.client", havingValue = "http")
+@Slf4j
+public class HttpPgClient implements PgClient, DisposableBean {
+
+    private final WebClient webClient;
+    private final ReactiveCircuitBreaker circuitBreaker;
+    private final ConnectionProvider connectionProvider;
+
+    public record ApproveRequest(String orderId, Integer amount) {}
+    public record PgTransactionResponse(String transactionId, String status) {}
+    // 건별 승인과 같은 멱등 키(paymentId)를 항목마다 실어, 타임아웃 후 재전달돼도 PG 가 중복 승인하지 않게 함
+    public record BatchApproveItem(String orderId, Integer amount, String idempotencyKey) {}
+    public record BatchApproveRequest(List<BatchApproveItem> items) {}
+    public record BatchItemResponse(String orderId, String transactionId, String status, String reason) {}
+    public record BatchApproveResponse(List<BatchItemResponse> results) {}
+
+    public HttpPgClient(@Value("${payment.pg.http.base-url}") String baseUrl,
+                        @Value("${payment.pg.http.connect-timeout:500ms}") Duration connectTimeout,
+                        @Value("${payment.pg.http.response-timeout:2s}") Duration responseTimeout,
+                        @Value("${payment.pg.http.pool.max-connections:64}") int maxConnections,
+                        @Value("${payment.pg.http.pool.pending-acquire-max-count:256}") int pendingAcquireMaxCount,
+                        @Value("${payment.pg.http.pool.pending-acquire-timeout:1s}") Duration pendingAcquireTimeout,
+                        @Value("${payment.pg.http.pool.max-idle-time:30s}") Duration maxIdleTime,
+                        @Value("${payment.pg.http.pool.max-life-time:5m}") Duration maxLifeTime,
+                        ReactiveCircuitBreakerFactory cbFactory) {
+        this.connectionProvider = ConnectionProvider.builder("pg")
+                                                    .maxConnections(maxConnections)
+                                                    .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                                                    .pendingAcquireTimeout(pendingAcquireTimeout)
+                                                    // PG/LB 쪽 idle timeout 보다 먼저 닫아야 끊긴 커넥션을 재사용하지 않음
+                                                    .maxIdleTime(maxIdleTime)
+                                                    .maxLifeTime(maxLifeTime)
+                                                    .evictInBackground(Duration.ofSeconds(30))
+                                                    .metrics(true)
+                                                    .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                                          .keepAlive(true)
+                                          .option(ChannelOption.SO_KEEPALIVE, true)
+                                          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                                          .responseTimeout(responseTimeout)
+                                          .metrics(true, Function.identity());
+
+        this.webClient = WebClient.builder()
+                                  .baseUrl(baseUrl)
+                                  .clientConnector(new ReactorClientHttpConnector(httpClient))
+                                  .build();
+        this.circuitBreaker = cbFactory.create("pg");
+    }
+
+    @Override
+    public String processPayment(String paymentId, int amount) {
+        Mono<PgTransactionResponse> apiCall = webClient.post()
+                                                       .uri("/v1/payments")
+                                                       // 같은 결제 재요청 시 PG 가 중복 승인하지 않도록 멱등 키 전달
+                                                       .header("Idempotency-Key", paymentId)
+                                                       .bodyValue(new ApproveRequest(paymentId, amount))
+                                                       .retrieve()
+                                                       .onStatus(HttpStatusCode::is4xxClientError, response ->
+                                                               response.bodyToMono(String.class)
+                                                                       .defaultIfEmpty("")
+                                                                       .map(body -> new PgPaymentDeclinedException("PG 결제 승인 거절: " + body)))
+                                                       .bodyToMono(PgTransactionResponse.class);
+
+        PgTransactionResponse response = protect(apiCall, "결제 승인", paymentId).block();
+        log.info("✅ [HTTP-PG] 결제 승인 성공. TxID: {}", response.transactionId());
+        return response.transactionId();
+    }
+
+    @Override
+    public List<AuthorizationResult> processPayments(List<AuthorizationRequest> requests) {
+        List<BatchApproveItem> items = requests.stream()
+                                               .map(request -> new BatchApproveItem(request.paymentId(), request.amount(), request.paymentId()))
+                                               .toList();
+
+        Mono<BatchApproveResponse> apiCall = webClient.post()
+                                                      .uri("/v1/payments/batch")
+                                                      .bodyValue(new BatchApproveRequest(items))
+                                                      .retrieve()
+                                                      .bodyToMono(BatchApproveResponse.class);
+
+        BatchApproveResponse response = protect(apiCall, "배치 승인", requests.size() + "건").block();
+        Map<String, BatchItemResponse> byOrderId = response.results().stream()
+                                                           .collect(Collectors.toMap(BatchItemResponse::orderId, Function.identity(), (a, b) -> a));
+
+        // 응답 순서에 의존하지 않고 orderId 로 요청 순서에 맞춰 되돌림
+        return requests.stream()
+                       .map(request -> {
+                           BatchItemResponse item = byOrderId.get(request.paymentId());
+                           if (item == null) {
+                               return reapprove(request);
+                           }
+                           return "PAID".equals(item.status())
+                                   ? AuthorizationResult.approved(request.paymentId(), item.transactionId())
+                                   : AuthorizationResult.declined(request.paymentId(), item.reason());
+                       })
+                       .toList();
+    }
+
+    @Override
+    public boolean supportsBatchAuthorization() {
+        return true;
+    }
+
+    // 배치 응답에 빠진 항목은 PG 가 이미 승인했을 수도 있으므로 거절로 보지 않고 같은 멱등 키로 건별 승인을 다시 요청
+    // (이미 승인된 건이면 기존 거래가 돌아옴). 그마저 실패하면 결과를 알 수 없는 항목으로 돌려줌
+    private AuthorizationResult reapprove(AuthorizationRequest request) {
+        log.warn("⚠️ [HTTP-PG] 배치 응답에 항목 누락. 건별 승인으로 재확인합니다. PaymentID: {}", request.paymentId());
+        try {
+            return AuthorizationResult.approved(request.paymentId(), processPayment(request.paymentId(), request.amount()));
+        } catch (PgPaymentDeclinedException e) {
+            return AuthorizationResult.declined(request.paymentId(), e.getMessage());
+        } catch (PgServiceUnavailableException e) {
+            return AuthorizationResult.unknown(request.paymentId(), "PG 배치 응답 누락 후 재확인 실패: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void cancelPayment(String pgTransactionId) {
+        Mono<PgTransactionResponse> apiCall = webClient.post()
+                                                       .uri("/v1/payments/{transactionId}/cancel", pgTransactionId)
+                                                       .retrieve()
+                                                       .bodyToMono(PgTransactionResponse.class);
+
+        protect(apiCall, "결제 취소", pgTransactionId).block();
+        log.info("🔄 [HTTP-PG] 결제 취소(환불) 승인 완료. 대상 TxID: {}", pgTransactionId);
+    }
+
+    @Override
+    public String getStatus(String pgTransactionId) {
+        Mono<PgTransactionResponse> apiCall = webClient.get()
+                                                       .uri("/v1/payments/{transactionId}", pgTransactionId)
+                                                       .retrieve()
+                                                       .bodyToMono(PgTransactionResponse.class);
+
+        return protect(apiCall, "상태 조회", pgTransactionId).block().status();
+    }
+
+    private <T> Mono<T> protect(Mono<T> apiCall, String operation, String key) {
+        return circuitBreaker.run(apiCall, throwable -> {
+            // PG 거절은 통신 장애가 아니므로 그대로 전달 (서킷 집계에서도 제외: ignore-exceptions)
+            if (throwable instanceof PgPaymentDeclinedException) {
+                return Mono.error(throwable);
+            }
+            log.warn("[HTTP-PG] {} 호출 실패 또는 서킷 OPEN. key: {}, Error: {}", operation, key, throwable.getMessage());
+            return Mono.error(new PgServiceUnavailableException("PG " + operation + " 호출 실패", throwable));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.payment_service.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 개별 호출을 모아서 한 번의 배치 호출로 보내는 범용 micro-batcher.
+ *
+ * 최대 maxSize 건 또는 linger 시간 중 먼저 도달한 기준으로 배치를 닫고, 결과를 요청 순서대로 각 호출자에게 돌려줍니다.
+ * 배치 함수는 입력과 같은 순서/크기의 리스트를 돌려줘야 하며, 결과가 null 인 항목은 빈 Mono 로 끝납니다. (다른 항목에는 영향 없음)
+ * 배치 호출 자체가 실패하면 그 배치에 속한 항목만 같은 에러로 실패합니다.
+ */
+public class MicroBatcher<T, R> {
+
+    private record Pending<T, R>(T item, Sinks.One<R> result, long enqueuedNanos) {}
+
+    private final Sinks.Many<Pending<T, R>> sink = Sinks.many().unicast().onBackpressureBuffer();
+    private final Function<List<T>, Mono<List<R>>> batchFunction;
+    private final DistributionSummary batchSize;
+    private final Timer batchLatency;
+    private final Timer itemWait;
+    private final Disposable subscription;
+
+    public MicroBatcher(String name, int maxSize, Duration linger, int maxInFlight,
+                        Function<List<T>, Mono<List<R>>> batchFunction, MeterRegistry meterRegistry) {
+        this.batchFunction = batchFunction;
+        this.batchSize = DistributionSummary.builder("payment.batch.size")
+                                            .tag("batcher", name)
+                                            .publishPercentileHistogram()
+                                            .register(meterRegistry);
+        this.batchLatency = Timer.builder("payment.batch.latency")
+                                 .description("배치 호출 1회의 소요 시간")
+                                 .tag("batcher", name)
+                                 .publishPercentileHistogram()
+                                 .register(meterRegistry);
+        this.itemWait = Timer.builder("payment.batch.item.wait")
+                             .description("항목이 배치로 묶여 나가기까지 기다린 시간 (linger 비용)")
+                             .tag("batcher", name)
+                             .publishPercentileHistogram()
+                             .register(meterRegistry);
+
+        this.subscription = sink.asFlux()
+                                .bufferTimeout(maxSize, linger, true)
+                                .flatMap(this::execute, maxInFlight)
+                                .subscribe();
+    }
+
+    public Mono<R> submit(T item) {
+        return Mono.defer(() -> {
+            Sinks.One<R> result = Sinks.one();
+            // 여러 스레드에서 동시에 들어오므로 직렬화 실패(FAIL_NON_SERIALIZED)는 잠깐 재시도
+            sink.emitNext(new Pending<>(item, result, System.nanoTime()),
+                    Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+            return result.asMono();
+        });
+    }
+
+    private Mono<Void> execute(List<Pending<T, R>> batch) {
+        long startNanos = System.nanoTime();
+        batchSize.record(batch.size());
+        batch.forEach(p -> itemWait.record(startNanos - p.enqueuedNanos(), TimeUnit.NANOSECONDS));
+
+        List<T> items = batch.stream().map(Pending::item).toList();
+
+        return Mono.defer(() -> batchFunction.apply(items))
+                   .doOnNext(results -> {
+                       for (int i = 0; i < batch.size(); i++) {
+                           R result = i < results.size() ? results.get(i) : null;
+                           if (result != null) {
+                               batch.get(i).result().tryEmitValue(result);
+                           }
+                       }
+                   })
+                   .doOnError(e -> batch.forEach(p -> p.result().tryEmitError(e)))
+                   .doFinally(signal -> {
+                       batchLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                       // 결과가 없었던 항목은 빈 값으로 종료 (이미 끝난 항목에는 영향 없음)
+                       batch.forEach(p -> p.result().tryEmitEmpty());
+                   })
+                   .onErrorResume(e -> Mono.empty())
+                   .then();
+    }
+
+    public void dispose() {
+        sink.tryEmitComplete();
+        subscription.dispose();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.payment_service.client;
+
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PG(결제대행사) 연동 추상화.
+ * payment.pg.client 로 구현체를 고릅니다. (virtual: JVM 내 가상 PG, http: HTTP PG 연동)
+ *
+ * 호출부는 PG 전용 bulkhead lane 에서 동기로 호출하므로 블로킹 API 입니다.
+ */
+public interface PgClient {
+
+    record AuthorizationRequest(String paymentId, int amount) {}
+
+    // 항목별 승인 결과. 승인 시 pgTransactionId, 거절 시 failureReason 이 채워짐
+    // outcomeUnknown: PG 가 승인했는지 알 수 없는 항목 (응답 누락 등). 거절이 아니므로 FAILED 로 종결하면 안 됨
+    record AuthorizationResult(String paymentId, String pgTransactionId, String failureReason, boolean outcomeUnknown) {
+
+        public static AuthorizationResult approved(String paymentId, String pgTransactionId) {
+            return new AuthorizationResult(paymentId, pgTransactionId, null, false);
+        }
+
+        public static AuthorizationResult declined(String paymentId, String failureReason) {
+            return new AuthorizationResult(paymentId, null, failureReason, false);
+        }
+
+        public static AuthorizationResult unknown(String paymentId, String failureReason) {
+            return new AuthorizationResult(paymentId, null, failureReason, true);
+        }
+
+        public boolean isApproved() {
+            return pgTransactionId != null;
+        }
+    }
+
+    // 결제 승인. 성공 시 PG 거래 번호, 거절 시 예외
+    String processPayment(String paymentId, int amount);
+
+    // PG 가 배치 승인 API 를 제공하는지. false 면 payment.pg.batch.enabled 여도 건별 승인으로 동작
+    default boolean supportsBatchAuthorization() {
+        return false;
+    }
+
+    // 결제 일괄 승인. 요청과 같은 순서로 항목별 결과를 돌려주며, 한 건의 거절이 다른 건에 영향을 주지 않음.
+    // 배치 API 가 없는 PG 는 건별 승인으로 대신함. (순차 호출이라 N배 지연이 들므로 배처는 이 경로를 쓰지 않음. 통신 장애 등 배치 전체 실패는 예외)
+    default List<AuthorizationResult> processPayments(List<AuthorizationRequest> requests) {
+        List<AuthorizationResult> results = new ArrayList<>(requests.size());
+        for (AuthorizationRequest request : requests) {
+            try {
+                results.add(AuthorizationResult.approved(request.paymentId(), processPayment(request.paymentId(), request.amount())));
+            } catch (PgPaymentDeclinedException e) {
+                results.add(AuthorizationResult.declined(request.paymentId(), e.getMessage()));
+            } catch (RuntimeException e) {
+                // 배치 실패면 모든 항목이 실패 처리되므로, 앞서 승인된 항목은 망취소한 뒤 예외를 그대로 올림
+                cancelApproved(results, e);
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private void cancelApproved(List<AuthorizationResult> results, RuntimeException cause) {
+        for (AuthorizationResult result : results) {
+            if (!result.isApproved()) continue;
+            try {
+                cancelPayment(result.pgTransactionId());
+            } catch (RuntimeException cancelFailure) {
+                // 망취소마저 실패한 건은 원인 예외에 붙여 남김 (PG 정산 대사에서 불일치로 잡힘)
+                cause.addSuppressed(cancelFailure);
+            }
+        }
+    }
+
+    // 결제 취소 (망취소/환불)
+    void cancelPayment(String pgTransactionId);
+
+    // 결제 상태 조회 (크로스 체크용). PAID / CANCELED
+    String getStatus(String pgTransactionId);
+}
@@ -1,5 +1,6 @@
 package com.example.payment_service.client;
 
+import com.example.payment_service.dto.PricingRuleSnapshot;
 import com.example.payment_service.exception.PricingServiceUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,6 +9,7 @@ import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFac
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Component
@@ -15,16 +17,20 @@ import java.time.LocalDateTime;
 public class PricingServiceClient {
     private final WebClient webClient;
     private final ReactiveCircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
 
     private static final int FALLBACK_FARE = -1;
+    private static final Duration SNAPSHOT_TIMEOUT = Duration.ofSeconds(5);
 
     public record FareResponse(Integer fare) {}
 
     public PricingServiceClient(WebClient.Builder builder,
                                 @Value("${services.pricing-service.url}") String serviceUrl,
-                                ReactiveCircuitBreakerFactory cbFactory) {
+                                ReactiveCircuitBreakerFactory cbFactory,
+                                HedgingPolicyFactory hedgingPolicyFactory) {
         this.webClient = builder.baseUrl(serviceUrl).build();
         this.circuitBreaker = cbFactory.create("pricing-service");
+        this.hedgingPolicy = hedgingPolicyFactory.create("pricing-service");
     }
 
     public Mono<FareResponse> calculateFare(String tripId, Integer distance, Integer duration, LocalDateTime timestamp) {
@@ -43,10 +49,21 @@ public class PricingServiceClient {
                                                   return Mono.error(new PricingServiceUnavailableException("가격 조회 서비스 호출 실패", e));
                                               });
 
-        return circuitBreaker.run(apiCall, throwable -> {
+        // 느린 인스턴스에 걸린 요청은 헤지 호출로 다른 인스턴스에 한 번 더 (opt-in, 기본 비활성)
+        return circuitBreaker.run(hedgingPolicy.hedge(() -> apiCall), throwable -> {
             // 서킷이 열렸을 때도 -1이 아니라 에러를 던져야 함
             log.warn("가격 서비스 서킷 OPEN. tripId: {}", tripId);
             return Mono.error(new PricingServiceUnavailableException("가격 서비스 서킷 차단됨 (잠시 후 재시도 필요)", throwable));
         });
     }
-}
\ No newline at end of file
+
+    // 요금 규칙 스냅샷 조회 (주기적 갱신용). 결제 경로가 아니므로 서킷/헤징을 거치지 않고, 실패하면 이전 스냅샷을 계속 씀
+    public Mono<PricingRuleSnapshot> fetchRuleSnapshot() {
+        return webClient.get()
+                        .uri("/internal/api/pricing/rules/snapshot")
+                        .retrieve()
+                        .bodyToMono(PricingRuleSnapshot.class)
+                        .timeout(SNAPSHOT_TIMEOUT)
+                        .onErrorMap(e -> new PricingServiceUnavailableException("요금 규칙 스냅샷 조회 실패", e));
+    }
+}
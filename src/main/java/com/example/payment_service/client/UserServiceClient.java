@@ -1,7 +1,9 @@
 package com.example.payment_service.client;
 
 import com.example.payment_service.exception.UserServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
@@ -9,22 +11,48 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Component
 @Slf4j
-public class UserServiceClient {
+public class UserServiceClient implements DisposableBean {
     private final WebClient webClient;
     private final ReactiveCircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final MicroBatcher<String, UserInfoForPaymentResponse> batcher;
 
     public record UserInfoForPaymentResponse(String userId, String userName, String userEmail, String paymentMethodId, String billingKey) {}
 
+    public record BulkUserInfoRequest(List<String> userIds) {}
+
     public UserServiceClient(WebClient.Builder builder,
                              @Value("${services.user-service.url}") String serviceUrl,
-                             ReactiveCircuitBreakerFactory cbFactory) {
+                             ReactiveCircuitBreakerFactory cbFactory,
+                             HedgingPolicyFactory hedgingPolicyFactory,
+                             MeterRegistry meterRegistry,
+                             @Value("${services.user-service.batch.enabled:false}") boolean batchEnabled,
+                             @Value("${services.user-service.batch.max-size:50}") int batchMaxSize,
+                             @Value("${services.user-service.batch.linger:10ms}") Duration batchLinger,
+                             @Value("${services.user-service.batch.max-in-flight:4}") int batchMaxInFlight) {
         this.webClient = builder.baseUrl(serviceUrl).build();
         this.circuitBreaker = cbFactory.create("user-service");
+        this.hedgingPolicy = hedgingPolicyFactory.create("user-service");
+        this.batcher = batchEnabled
+                ? new MicroBatcher<>("user-payment-method", batchMaxSize, batchLinger, batchMaxInFlight, this::fetchBatch, meterRegistry)
+                : null;
     }
 
     public Mono<UserInfoForPaymentResponse> getUserInfoForPayment(String userId) {
+        if (batcher != null) {
+            // 같은 window 안의 조회를 모아 bulk 호출 1회로 처리. 응답에 없는 userId 는 그 건만 실패
+            return batcher.submit(userId)
+                          .switchIfEmpty(Mono.error(() -> new UserServiceUnavailableException("결제수단 정보 없음. userId: " + userId)));
+        }
+
         Mono<UserInfoForPaymentResponse> apiCall = webClient.get()
                                                             .uri("/internal/api/users/{userId}/payment-methods/default", userId)
                                                             .retrieve()
@@ -34,9 +62,43 @@ public class UserServiceClient {
                                                                 return Mono.error(new UserServiceUnavailableException("사용자 서비스 호출 실패"));
                                                             });
 
-        return circuitBreaker.run(apiCall, throwable -> {
+        // 느린 인스턴스에 걸린 요청은 헤지 호출로 다른 인스턴스에 한 번 더 (opt-in, 기본 비활성)
+        return circuitBreaker.run(hedgingPolicy.hedge(() -> apiCall), throwable -> {
             log.warn("사용자 서비스 서킷 브레이커가 열렸습니다. userId: {}. 결제 프로세스를 중단합니다.", userId, throwable);
             return Mono.error(new UserServiceUnavailableException("사용자 서비스 이용 불가", throwable));
         });
     }
-}
\ No newline at end of file
+
+    // 요청 순서대로 결과를 맞춰 돌려줌 (응답에 없는 userId 는 null → 해당 건만 빈 결과)
+    private Mono<List<UserInfoForPaymentResponse>> fetchBatch(List<String> userIds) {
+        List<String> distinctIds = userIds.stream().distinct().toList();
+
+        Mono<List<UserInfoForPaymentResponse>> apiCall = webClient.post()
+                                                                  .uri("/internal/api/users/payment-methods/default/bulk")
+                                                                  .bodyValue(new BulkUserInfoRequest(distinctIds))
+                                                                  .retrieve()
+                                                                  .bodyToFlux(UserInfoForPaymentResponse.class)
+                                                                  .collectList()
+                                                                  .onErrorResume(e -> {
+                                                                      log.error("결제수단 일괄 조회 중 원본 오류 발생. 건수: {}", distinctIds.size(), e);
+                                                                      return Mono.error(new UserServiceUnavailableException("사용자 서비스 일괄 호출 실패"));
+                                                                  });
+
+        return circuitBreaker.run(hedgingPolicy.hedge(() -> apiCall), throwable -> {
+                                 log.warn("사용자 서비스 서킷 브레이커가 열렸습니다. 일괄 조회 {}건을 중단합니다.", distinctIds.size(), throwable);
+                                 return Mono.error(new UserServiceUnavailableException("사용자 서비스 이용 불가", throwable));
+                             })
+                             .map(found -> {
+                                 Map<String, UserInfoForPaymentResponse> byUserId = found.stream()
+                                         .collect(Collectors.toMap(UserInfoForPaymentResponse::userId, Function.identity(), (a, b) -> a));
+                                 return userIds.stream().map(byUserId::get).toList();
+                             });
+    }
+
+    @Override
+    public void destroy() {
+        if (batcher != null) {
+            batcher.dispose();
+        }
+    }
+}
@@ -1,21 +1,43 @@
 package com.example.payment_service.client;
 
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * JVM 내 가상 PG. 지연과 거절/타임아웃/장애는 payment.pg.virtual.* 프로파일(VirtualPgSimulation)에서 뽑습니다.
+ */
 @Component
+@ConditionalOnProperty(name = "payment.pg.client", havingValue = "virtual", matchIfMissing = true)
+@EnableConfigurationProperties(VirtualPgProperties.class)
 @Slf4j
-public class VirtualPGClient {
+public class VirtualPGClient implements PgClient {
 
-    public String processPayment() {
-        simulateNetworkLatency();
+    private final VirtualPgSimulation simulation;
 
-        // 20% 확률로 결제 실패 상황 연출
-        if (Math.random() < 0.2) {
-            log.warn("❌ [Virtual-PG] 결제 승인 거절 (잔액 부족/통신 오류 시뮬레이션)");
-            throw new RuntimeException("카드사 통신 오류 (가상 시나리오)");
+    public VirtualPGClient(VirtualPgProperties properties) {
+        long startedAt = System.nanoTime();
+        long seed = properties.seed() != null ? properties.seed() : startedAt;
+        this.simulation = new VirtualPgSimulation(properties, seed, () -> (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("🎲 [Virtual-PG] 시뮬레이션 seed: {} (payment.pg.virtual.seed 로 고정하면 같은 결과 순서를 재현), 시나리오 {}개",
+                seed, properties.scenarios().size());
+    }
+
+    @Override
+    public String processPayment(String paymentId, int amount) {
+        VirtualPgSimulation.Outcome outcome = simulate(VirtualPgSimulation.Operation.APPROVE);
+
+        if (outcome.result() == VirtualPgSimulation.Result.DECLINED) {
+            log.warn("❌ [Virtual-PG] 결제 승인 거절 (잔액 부족/한도 초과 시뮬레이션)");
+            throw new PgPaymentDeclinedException("카드사 승인 거절 (가상 시나리오)");
         }
 
         String pgTransactionId = "tx_" + UUID.randomUUID().toString().substring(0, 8);
@@ -24,23 +46,68 @@ public class VirtualPGClient {
         return pgTransactionId;
     }
 
+    @Override
+    public boolean supportsBatchAuthorization() {
+        return true;
+    }
+
+    // 배치 승인: 왕복 지연/장애는 배치당 한 번, 거절 여부는 항목별로 판단
+    @Override
+    public List<AuthorizationResult> processPayments(List<AuthorizationRequest> requests) {
+        simulate(VirtualPgSimulation.Operation.APPROVE);
+
+        List<AuthorizationResult> results = new ArrayList<>(requests.size());
+        for (AuthorizationRequest request : requests) {
+            if (simulation.nextItemDeclined()) {
+                results.add(AuthorizationResult.declined(request.paymentId(), "카드사 승인 거절 (가상 시나리오)"));
+            } else {
+                results.add(AuthorizationResult.approved(request.paymentId(), "tx_" + UUID.randomUUID().toString().substring(0, 8)));
+            }
+        }
+        log.info("✅ [Virtual-PG] 배치 승인 처리. 요청: {}건", requests.size());
+        return results;
+    }
+
+    @Override
     public void cancelPayment(String pgTransactionId) {
-        simulateNetworkLatency();
+        VirtualPgSimulation.Outcome outcome = simulate(VirtualPgSimulation.Operation.CANCEL);
+        if (outcome.result() == VirtualPgSimulation.Result.DECLINED) {
+            throw new PgPaymentDeclinedException("취소 불가 거래 (가상 시나리오). TxID: " + pgTransactionId);
+        }
         log.info("🔄 [Virtual-PG] 결제 취소(환불) 승인 완료. 대상 TxID: {}", pgTransactionId);
     }
 
-    // 결제 상태 조회 (크로스 체크용)
+    // 결제 상태 조회 (크로스 체크용). 프로파일의 decline-rate 비율로 미결제(CANCELED) 응답
+    @Override
     public String getStatus(String pgTransactionId) {
-        simulateNetworkLatency();
-        // 시뮬레이션: 50% 확률로 결제됨, 50% 확률로 미결제(취소됨/없음)
-        return Math.random() < 0.5 ? "PAID" : "CANCELED";
+        VirtualPgSimulation.Outcome outcome = simulate(VirtualPgSimulation.Operation.STATUS);
+        return outcome.result() == VirtualPgSimulation.Result.DECLINED ? "CANCELED" : "PAID";
+    }
+
+    // 뽑힌 지연만큼 붙잡고, 타임아웃/장애는 HttpPgClient 와 같은 PgServiceUnavailableException 으로 던짐
+    private VirtualPgSimulation.Outcome simulate(VirtualPgSimulation.Operation operation) {
+        VirtualPgSimulation.Outcome outcome = simulation.next(operation);
+        switch (outcome.result()) {
+            case TIMEOUT -> {
+                sleep(simulation.timeout());
+                log.warn("⏱️ [Virtual-PG] {} 응답 시간 초과 (시나리오: {})", operation, outcome.scenario());
+                throw new PgServiceUnavailableException("PG " + operation + " 응답 시간 초과 (가상 시나리오)");
+            }
+            case ERROR -> {
+                sleep(outcome.latency());
+                log.warn("🔥 [Virtual-PG] {} 통신 오류 (시나리오: {})", operation, outcome.scenario());
+                throw new PgServiceUnavailableException("PG " + operation + " 통신 오류 (가상 시나리오)");
+            }
+            default -> sleep(outcome.latency());
+        }
+        return outcome;
     }
 
-    private void simulateNetworkLatency() {
+    private void sleep(Duration latency) {
         try {
-            Thread.sleep(500); // 0.5초 지연
+            Thread.sleep(latency.toMillis());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.example.payment_service.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 가상 PG(VirtualPGClient) 시뮬레이션 설정. (payment.pg.virtual.*)
+ *
+ * 승인/취소/상태조회 각각의 지연 분포와 거절/타임아웃/장애 비율, 그리고 기동 후 특정 구간에만 덮어쓰는 시나리오를 둡니다.
+ * seed 를 고정하면 호출 순서별 결과(지연, 거절 여부)가 매번 같게 나와 부하 테스트를 재현할 수 있습니다.
+ */
+@ConfigurationProperties("payment.pg.virtual")
+public record VirtualPgProperties(
+        Long seed,            // 미설정이면 기동 시 임의 값 (로그에 남김)
+        Duration timeout,     // 타임아웃으로 뽑힌 호출이 예외를 던지기까지 붙잡는 시간
+        Profile approve,
+        Profile cancel,
+        Profile status,
+        List<Scenario> scenarios
+) {
+
+    public VirtualPgProperties {
+        if (timeout == null) timeout = Duration.ofSeconds(3);
+        if (approve == null) approve = new Profile(null, null, 0.2, 0.0, 0.0);
+        if (cancel == null) cancel = new Profile(null, null, 0.0, 0.0, 0.0);
+        // 상태 조회의 decline-rate 는 "PG 에 결제 내역 없음(CANCELED)" 으로 응답할 비율
+        if (status == null) status = new Profile(null, null, 0.5, 0.0, 0.0);
+        if (scenarios == null) scenarios = List.of();
+    }
+
+    /**
+     * 지연은 로그정규 분포(중앙값 + p99)로 뽑습니다. p99 를 비우거나 중앙값과 같게 두면 고정 지연입니다.
+     */
+    public record Profile(Duration latencyMedian, Duration latencyP99, double declineRate, double timeoutRate, double errorRate) {
+
+        public Profile {
+            if (latencyMedian == null) latencyMedian = Duration.ofMillis(500);
+            if (latencyP99 == null || latencyP99.compareTo(latencyMedian) < 0) latencyP99 = latencyMedian;
+        }
+    }
+
+    /**
+     * 기동 후 start 부터 duration 동안 (every 가 있으면 그 주기마다 반복) operations 의 프로파일을 덮어씁니다.
+     * operations 가 비어 있으면 모든 호출에 적용되고, 비율 항목은 설정한 것만 덮어씁니다.
+     */
+    public record Scenario(String name,
+                           Set<VirtualPgSimulation.Operation> operations,
+                           Duration start,
+                           Duration duration,
+                           Duration every,
+                           Double latencyMultiplier,
+                           Double declineRate,
+                           Double timeoutRate,
+                           Double errorRate) {
+
+        public Scenario {
+            if (operations == null) operations = Set.of();
+            if (start == null) start = Duration.ZERO;
+            if (latencyMultiplier == null) latencyMultiplier = 1.0;
+        }
+
+        boolean isActive(VirtualPgSimulation.Operation operation, long elapsedMillis) {
+            if (!operations.isEmpty() && !operations.contains(operation)) return false;
+            long offset = elapsedMillis - start.toMillis();
+            if (offset < 0) return false;
+            if (every != null && !every.isZero()) offset %= every.toMillis();
+            return duration == null || offset < duration.toMillis();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.payment_service.client;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * VirtualPGClient 의 호출 결과(지연 + 성공/거절/타임아웃/장애)를 설정된 프로파일에서 뽑습니다.
+ *
+ * 난수는 (seed, operation, 호출 순번) 으로 바로 계산하는 방식이라 같은 seed 면 operation 별 n 번째 호출의 결과가 항상 같습니다.
+ * 동시 호출 시 어떤 결제가 몇 번째 순번을 받는지는 스케줄링에 따라 달라지지만, 결과 분포와 순서열 자체는 재현됩니다.
+ */
+public class VirtualPgSimulation {
+
+    // 표준정규분포 99 퍼센타일의 z 값
+    private static final double Z_99 = 2.326;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    public enum Operation { APPROVE, CANCEL, STATUS }
+
+    public enum Result { OK, DECLINED, TIMEOUT, ERROR }
+
+    public record Outcome(Duration latency, Result result, String scenario) {}
+
+    private final VirtualPgProperties properties;
+    private final long seed;
+    private final LongSupplier elapsedMillis;
+    private final Map<Operation, AtomicLong> sequences = new EnumMap<>(Operation.class);
+
+    public VirtualPgSimulation(VirtualPgProperties properties, long seed, LongSupplier elapsedMillis) {
+        this.properties = properties;
+        this.seed = seed;
+        this.elapsedMillis = elapsedMillis;
+        for (Operation operation : Operation.values()) {
+            sequences.put(operation, new AtomicLong());
+        }
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public Duration timeout() {
+        return properties.timeout();
+    }
+
+    public Outcome next(Operation operation) {
+        long sequence = sequences.get(operation).getAndIncrement();
+        VirtualPgProperties.Profile profile = profile(operation);
+        VirtualPgProperties.Scenario scenario = activeScenario(operation);
+
+        double declineRate = profile.declineRate();
+        double timeoutRate = profile.timeoutRate();
+        double errorRate = profile.errorRate();
+        double latencyMultiplier = 1.0;
+        if (scenario != null) {
+            if (scenario.declineRate() != null) declineRate = scenario.declineRate();
+            if (scenario.timeoutRate() != null) timeoutRate = scenario.timeoutRate();
+            if (scenario.errorRate() != null) errorRate = scenario.errorRate();
+            latencyMultiplier = scenario.latencyMultiplier();
+        }
+
+        Duration latency = latency(profile, uniform(operation, sequence, 0), uniform(operation, sequence, 1), latencyMultiplier);
+
+        double draw = uniform(operation, sequence, 2);
+        Result result;
+        if (draw < timeoutRate) {
+            result = Result.TIMEOUT;
+        } else if (draw < timeoutRate + errorRate) {
+            result = Result.ERROR;
+        } else if (draw < timeoutRate + errorRate + declineRate) {
+            result = Result.DECLINED;
+        } else {
+            result = Result.OK;
+        }
+        return new Outcome(latency, result, scenario == null ? null : scenario.name());
+    }
+
+    // 배치 승인의 항목별 거절 여부 (왕복 지연/장애는 배치 단위로 next() 에서 뽑음)
+    public boolean nextItemDeclined() {
+        long sequence = sequences.get(Operation.APPROVE).getAndIncrement();
+        VirtualPgProperties.Scenario scenario = activeScenario(Operation.APPROVE);
+        double declineRate = scenario != null && scenario.declineRate() != null
+                ? scenario.declineRate()
+                : properties.approve().declineRate();
+        return uniform(Operation.APPROVE, sequence, 2) < declineRate;
+    }
+
+    private VirtualPgProperties.Profile profile(Operation operation) {
+        return switch (operation) {
+            case APPROVE -> properties.approve();
+            case CANCEL -> properties.cancel();
+            case STATUS -> properties.status();
+        };
+    }
+
+    // 여러 시나리오가 겹치면 먼저 선언된 것 하나만 적용
+    private VirtualPgProperties.Scenario activeScenario(Operation operation) {
+        long elapsed = elapsedMillis.getAsLong();
+        for (VirtualPgProperties.Scenario scenario : properties.scenarios()) {
+            if (scenario.isActive(operation, elapsed)) return scenario;
+        }
+        return null;
+    }
+
+    private static Duration latency(VirtualPgProperties.Profile profile, double u1, double u2, double multiplier) {
+        double median = profile.latencyMedian().toMillis();
+        double sigma = median <= 0 ? 0 : Math.log(profile.latencyP99().toMillis() / median) / Z_99;
+        // Box-Muller 로 표준정규 값 하나를 만들어 로그정규 지연으로 변환
+        double z = Math.sqrt(-2 * Math.log(Math.max(u1, Double.MIN_VALUE))) * Math.cos(2 * Math.PI * u2);
+        double millis = median * Math.exp(sigma * z) * multiplier;
+        return Duration.ofMillis(Math.round(millis));
+    }
+
+    // [0, 1) 균등 분포. SplitMix64 로 (seed, operation, 순번, 용도) 를 섞음
+    private double uniform(Operation operation, long sequence, int lane) {
+        long z = seed + (sequence * 3 + lane + 1) * GOLDEN_GAMMA + ((long) operation.ordinal() << 56);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
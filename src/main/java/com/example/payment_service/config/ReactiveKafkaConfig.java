@@ -1,13 +1,23 @@
 package com.example.payment_service.config;
 
-import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.kafka.TripEventRetryRouter;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -17,21 +27,66 @@ import java.util.Map;
 public class ReactiveKafkaConfig {
 
     @Bean
-    public ReceiverOptions<String, String> tripMatchedReceiverOptions(KafkaProperties kafkaProperties) {
+    @Primary
+    public ReceiverOptions<String, String> tripMatchedReceiverOptions(KafkaProperties kafkaProperties,
+                                                                      @Value("${payment.consumer.lanes.permits:32}") int permits,
+                                                                      @Value("${payment.consumer.lanes.window:256}") int lanesWindow) {
         Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties());
 
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service-reactive-group");
 
-        return ReceiverOptions.<String, String>create(props)
-                              .subscription(Collections.singleton("trip_events"));
+        ReceiverOptions<String, String> options = ReceiverOptions.<String, String>create(props)
+                                                                 .subscription(Collections.singleton("trip_events"));
+        // flatMap 동시 처리(lane 사용 시 window 단위로 더 크게)로 ack 순서가 뒤바뀌므로, 앞선 오프셋이 끝나기 전에는 커밋하지 않도록 항상 지연 커밋
+        // (한도는 동시에 들고 있는 레코드 수 이상이어야 fetch 가 멈추지 않음)
+        return options.maxDeferredCommits(Math.max(lanesWindow, permits));
     }
 
     @Bean
+    @Primary
     public KafkaReceiver<String, String> tripMatchedKafkaReceiver(
             ReceiverOptions<String, String> tripMatchedReceiverOptions) {
         return KafkaReceiver.create(tripMatchedReceiverOptions);
     }
 
-}
\ No newline at end of file
+    // 지연 재시도 토픽 발행용 (JsonSerializer 를 타면 원본 문자열이 한 번 더 인코딩되므로 String 그대로 전송)
+    // in-slot 모드에서는 쓰지 않으므로 만들지 않음 (놀고 있는 Producer 가 브로커 연결을 잡지 않도록)
+    @Bean
+    @ConditionalOnProperty(name = "payment.retry.mode", havingValue = "topic")
+    public KafkaSender<String, String> tripRetryKafkaSender(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties());
+
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+
+        return KafkaSender.create(SenderOptions.create(props));
+    }
+
+    // 지연 재시도 토픽을 기동 시 만들어 둠 (브로커 auto-create 가 꺼져 있으면 모든 재시도가 DLT 로 새므로). 이미 있으면 KafkaAdmin 이 그대로 둠
+    @Bean
+    @ConditionalOnProperty(name = "payment.retry.mode", havingValue = "topic")
+    public KafkaAdmin.NewTopics tripRetryTopics(TripEventRetryRouter retryRouter,
+                                                @Value("${payment.retry.topic.partitions:3}") int partitions,
+                                                @Value("${payment.retry.topic.replicas:1}") int replicas) {
+        return new KafkaAdmin.NewTopics(retryRouter.topics().stream()
+                                                   .map(topic -> TopicBuilder.name(topic).partitions(partitions).replicas(replicas).build())
+                                                   .toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.retry.mode", havingValue = "topic")
+    public KafkaReceiver<String, String> tripRetryKafkaReceiver(KafkaProperties kafkaProperties,
+                                                                TripEventRetryRouter retryRouter) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties());
+
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service-retry-group");
+
+        return KafkaReceiver.create(ReceiverOptions.<String, String>create(props)
+                                                   .subscription(retryRouter.topics()));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.payment_service.config;
+
+import com.example.payment_service.replica.ReplicaLagMonitor;
+import com.example.payment_service.replica.ReplicaRoutingDataSource;
+import com.example.payment_service.shard.ShardDataSourceProxy;
+import com.example.payment_service.shard.ShardRouter;
+import com.example.payment_service.shard.ShardRoutingDataSource;
+import com.example.payment_service.shard.ShardSchemaUpdater;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 샤딩(payment.sharding.enabled) 또는 읽기 복제본(payment.replica.enabled) 이 켜져 있을 때 기본 DataSource 를 직접 구성합니다.
+ *
+ * shard 별 primary 풀 (+ 복제본 풀과 ReplicaRoutingDataSource) 을 ShardRoutingDataSource 로 묶고,
+ * 맨 앞에 지연 커넥션 프록시를 둬서 shard / readOnly 판단을 첫 SQL 실행 시점에 하도록 합니다.
+ * 접속 계정/드라이버는 spring.datasource.* 를 그대로 쓰고 URL 만 shard / 복제본 별로 다릅니다.
+ */
+@Configuration
+@ConditionalOnExpression("${payment.sharding.enabled:false} or ${payment.replica.enabled:false}")
+@Slf4j
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @Primary
+    public ShardDataSourceProxy dataSource(DataSourceProperties properties,
+                                           ShardRouter shardRouter,
+                                           MeterRegistry meterRegistry,
+                                           ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                           @Value("${payment.sharding.enabled:false}") boolean shardingEnabled,
+                                           @Value("${payment.sharding.urls:}") List<String> shardUrls,
+                                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        List<String> primaryUrls = shardingEnabled ? shardUrls : List.of(properties.determineUrl());
+        ReplicaLagMonitor lagMonitor = replicaLagMonitor.getIfAvailable();
+        if (lagMonitor != null && lagMonitor.replicaCount() != primaryUrls.size()) {
+            throw new IllegalStateException("payment.replica.urls 는 shard 마다 1개씩 필요합니다. (shard "
+                    + primaryUrls.size() + "개, 복제본 " + lagMonitor.replicaCount() + "개)");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < primaryUrls.size(); i++) {
+            DataSource primary = pool(properties, "payment-shard-" + i, primaryUrls.get(i), maximumPoolSize);
+            shards.add(lagMonitor == null
+                    ? primary
+                    : new ReplicaRoutingDataSource(i, primary, lagMonitor.replica(i), lagMonitor, meterRegistry));
+        }
+
+        log.info("🧩 [DataSource] shard {}개, 읽기 복제본 {}", shardRouter.shardCount(), lagMonitor == null ? "미사용" : "사용");
+        return new ShardDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    // shard 순서대로 복제본 풀을 만들고 복제 지연을 주기적으로 확인 (@Scheduled)
+    @Bean
+    @ConditionalOnProperty(name = "payment.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${payment.replica.urls}") List<String> replicaUrls,
+                                               @Value("${payment.replica.max-lag:2s}") Duration maxLag,
+                                               @Value("${payment.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${payment.replica.lag-column:Seconds_Behind_Source}") String lagColumn,
+                                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(pool(properties, "payment-replica-" + i, replicaUrls.get(i), maximumPoolSize));
+        }
+        return new ReplicaLagMonitor(replicas, maxLag, lagQuery, lagColumn, meterRegistry);
+    }
+
+    // ddl-auto 는 기본 shard 에만 적용되므로 나머지 shard 스키마도 같은 매핑으로 맞춤
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaUpdaterCustomizer(ShardRouter shardRouter,
+                                                                      @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        ShardSchemaUpdater updater = new ShardSchemaUpdater(shardRouter, "update".equals(ddlAuto));
+        return properties -> properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(updater));
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, String name, String url, int maximumPoolSize) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                                          .type(HikariDataSource.class)
+                                          .url(url.trim())
+                                          .build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        return pool;
+    }
+}
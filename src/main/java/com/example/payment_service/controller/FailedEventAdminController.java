@@ -1,16 +1,66 @@
 package com.example.payment_service.controller;
 
+import com.example.payment_service.dto.FailedEventFilter;
+import com.example.payment_service.dto.FailedEventPageResponse;
+import com.example.payment_service.dto.FailedEventResponse;
+import com.example.payment_service.entity.FailedEventStatus;
+import com.example.payment_service.service.FailedEventQueryService;
 import com.example.payment_service.service.FailedEventReplayService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/payments/admin/failed-events")
 @RequiredArgsConstructor
 public class FailedEventAdminController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final FailedEventReplayService replayService;
+    private final FailedEventQueryService queryService;
+
+    // id 오름차순 keyset 페이지. 다음 페이지는 응답의 nextAfterId 를 afterId 로 넘김
+    @GetMapping
+    public ResponseEntity<FailedEventPageResponse> list(
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) FailedEventStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String error,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        FailedEventFilter filter = new FailedEventFilter(topic, status, from, to, error);
+        return ResponseEntity.ok(queryService.list(filter, afterId, limit));
+    }
+
+    // 조건에 맞는 전체 행을 NDJSON 으로 흘려보냄 (payload 는 includePayload=true 일 때만)
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public void stream(
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) FailedEventStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String error,
+            @RequestParam(defaultValue = "false") boolean includePayload,
+            HttpServletResponse response) throws IOException {
+        FailedEventFilter filter = new FailedEventFilter(topic, status, from, to, error);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        queryService.stream(filter, includePayload, response.getOutputStream());
+    }
+
+    @GetMapping("/{eventId}")
+    public ResponseEntity<FailedEventResponse> getEvent(@PathVariable Long eventId) {
+        return queryService.find(eventId)
+                           .map(ResponseEntity::ok)
+                           .orElse(ResponseEntity.notFound().build());
+    }
 
     @PostMapping("/retry-all")
     public ResponseEntity<String> retryAll(@RequestParam String topic) {
@@ -23,4 +73,4 @@ public class FailedEventAdminController {
         replayService.ignoreEvent(eventId);
         return ResponseEntity.ok("에러 메시지가 폐기(IGNORED) 처리되었습니다.");
     }
-}
\ No newline at end of file
+}
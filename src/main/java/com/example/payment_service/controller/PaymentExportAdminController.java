@@ -0,0 +1,42 @@
+package com.example.payment_service.controller;
+
+import com.example.payment_service.dto.PaymentExportJobResponse;
+import com.example.payment_service.service.export.PaymentExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payments/admin/exports")
+@RequiredArgsConstructor
+public class PaymentExportAdminController {
+
+    private final PaymentExportService exportService;
+
+    // 비동기로 시작하고 바로 작업 ID 를 돌려줌. 진행 상황은 GET /{jobId} 로 확인
+    @PostMapping
+    public ResponseEntity<PaymentExportJobResponse> startExport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "4") int slices) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                             .body(PaymentExportJobResponse.fromJob(exportService.start(from, to, slices)));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PaymentExportJobResponse>> listExports() {
+        return ResponseEntity.ok(exportService.list().stream().map(PaymentExportJobResponse::fromJob).toList());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PaymentExportJobResponse> getExport(@PathVariable String jobId) {
+        return exportService.find(jobId)
+                            .map(job -> ResponseEntity.ok(PaymentExportJobResponse.fromJob(job)))
+                            .orElse(ResponseEntity.notFound().build());
+    }
+}
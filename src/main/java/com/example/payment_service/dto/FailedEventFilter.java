@@ -0,0 +1,25 @@
+package com.example.payment_service.dto;
+
+import com.example.payment_service.entity.FailedEventStatus;
+import com.example.payment_service.exception.InvalidFailedEventQueryException;
+
+import java.time.LocalDateTime;
+
+// DLT 목록 조회 조건. 비어 있는 항목은 조건에서 빠짐 (기간은 from 이상 to 미만)
+public record FailedEventFilter(String topic, FailedEventStatus status, LocalDateTime from, LocalDateTime to, String errorContains) {
+
+    public FailedEventFilter {
+        if (topic != null && topic.isBlank()) topic = null;
+        if (errorContains != null && errorContains.isBlank()) errorContains = null;
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidFailedEventQueryException("from 은 to 보다 앞서야 합니다. (from=" + from + ", to=" + to + ")");
+        }
+    }
+
+    // LIKE 패턴: 와일드카드 문자는 '!' 로 이스케이프 (MySQL 에서 '\' 는 문자열 이스케이프와 겹침)
+    public String errorPattern() {
+        if (errorContains == null) return null;
+        String escaped = errorContains.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.payment_service.dto;
+
+import java.util.List;
+
+// nextAfterId 가 null 이면 마지막 페이지. 다음 페이지는 afterId=nextAfterId 로 요청
+public record FailedEventPageResponse(List<FailedEventResponse> items, Long nextAfterId) {
+}
@@ -0,0 +1,29 @@
+package com.example.payment_service.dto;
+
+import com.example.payment_service.entity.FailedEvent;
+import com.example.payment_service.entity.FailedEventStatus;
+
+import java.time.LocalDateTime;
+
+// 목록 조회는 payload(TEXT) 를 읽지 않으므로 null
+public record FailedEventResponse(
+        Long id,
+        String topic,
+        String kafkaKey,
+        FailedEventStatus status,
+        int occurrenceCount,
+        String errorMessage,
+        LocalDateTime createdAt,
+        String payload
+) {
+    // JPQL 생성자 표현식용 (payload 제외)
+    public FailedEventResponse(Long id, String topic, String kafkaKey, FailedEventStatus status, int occurrenceCount,
+                               String errorMessage, LocalDateTime createdAt) {
+        this(id, topic, kafkaKey, status, occurrenceCount, errorMessage, createdAt, null);
+    }
+
+    public static FailedEventResponse fromEntity(FailedEvent event) {
+        return new FailedEventResponse(event.getId(), event.getTopic(), event.getKafkaKey(), event.getStatus(),
+                event.getOccurrenceCount(), event.getErrorMessage(), event.getCreatedAt(), event.getPayload());
+    }
+}
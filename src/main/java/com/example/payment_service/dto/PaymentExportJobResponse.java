@@ -0,0 +1,37 @@
+package com.example.payment_service.dto;
+
+import com.example.payment_service.service.export.PaymentExportJob;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PaymentExportJobResponse(
+        String jobId,
+        String status,
+        LocalDateTime from,
+        LocalDateTime to,
+        int slices,
+        long rows,
+        double rowsPerSecond,
+        long elapsedMillis,
+        List<String> files,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {
+    public static PaymentExportJobResponse fromJob(PaymentExportJob job) {
+        return new PaymentExportJobResponse(
+                job.getJobId(),
+                job.getStatus().name(),
+                job.getFrom(),
+                job.getTo(),
+                job.getSlices(),
+                job.getRows().get(),
+                Math.round(job.rowsPerSecond() * 10) / 10.0,
+                job.elapsed().toMillis(),
+                job.getFiles().stream().map(path -> path.getFileName().toString()).sorted().toList(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getError()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.payment_service.dto;
+
+import com.example.payment_service.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+// 정산 추출(export)용 projection
+public record PaymentExportRow(
+        Long id,
+        String paymentId,
+        String tripId,
+        String userId,
+        Integer amount,
+        PaymentStatus status,
+        String pgTransactionId,
+        LocalDateTime requestedAt,
+        LocalDateTime completedAt
+) {}
@@ -0,0 +1,14 @@
+package com.example.payment_service.dto;
+
+import com.example.payment_service.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+// 대사(reconciliation)용 경량 projection. 엔티티를 영속성 컨텍스트에 올리지 않고 필요한 컬럼만 읽음
+public record PaymentReconciliationRow(
+        Long id,
+        String tripId,
+        String pgTransactionId,
+        PaymentStatus status,
+        Integer amount,
+        LocalDateTime requestedAt
+) {}
@@ -0,0 +1,25 @@
+package com.example.payment_service.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+// pricing-service 요금 규칙 스냅샷 (버전 단위로 통째로 교체). 로컬 요금 계산(LocalFareEngine)에서만 사용
+public record PricingRuleSnapshot(
+        String version,
+        int baseFare,
+        double perMeter,
+        double perSecond,
+        int minimumFare,
+        int roundingUnit,
+        List<TimeBand> timeBands
+) {
+    // [start, end) 구간 할증. start > end 이면 자정을 넘기는 구간 (예: 22:00 ~ 04:00 심야 할증)
+    public record TimeBand(LocalTime start, LocalTime end, double multiplier) {
+        public boolean contains(LocalTime time) {
+            if (start.isBefore(end)) {
+                return !time.isBefore(start) && time.isBefore(end);
+            }
+            return !time.isBefore(start) || time.isBefore(end);
+        }
+    }
+}
@@ -6,8 +6,18 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 @Entity
-@Table(name = "failed_event")
+// 재발행/관리자 조회는 모두 id keyset 으로 읽음. 기간 필터는 created_at 인덱스로 경계 id 를 찾아 id 구간으로 바꿔 읽음
+@Table(name = "failed_event", indexes = {
+        @Index(name = "idx_failed_event_topic_status_id", columnList = "topic, status, id"),
+        @Index(name = "idx_failed_event_status_id", columnList = "status, id"),
+        @Index(name = "idx_failed_event_created_at", columnList = "createdAt, id")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_failed_event_fingerprint", columnNames = "fingerprint"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class FailedEvent extends BaseTimeEntity {
@@ -32,6 +42,13 @@ public class FailedEvent extends BaseTimeEntity {
     @Column(nullable = false)
     private FailedEventStatus status;
 
+    // 같은 (topic, key, payload) 는 한 행으로 모으고 도착 횟수만 셈. 도입 전 행은 null
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false, columnDefinition = "int default 1")
+    private int occurrenceCount;
+
     @Builder
     public FailedEvent(String topic, String kafkaKey, String payload, String errorMessage, FailedEventStatus status) {
         this.topic = topic;
@@ -39,5 +56,26 @@ public class FailedEvent extends BaseTimeEntity {
         this.payload = payload;
         this.errorMessage = errorMessage;
         this.status = status == null ? FailedEventStatus.PENDING : status;
+        this.fingerprint = fingerprintOf(topic, kafkaKey, payload);
+        this.occurrenceCount = 1;
+    }
+
+    // DLT 토픽(<원본>.DLT) 으로 들어온 메시지는 원본 토픽으로 재발행 (DLT 로 다시 보내면 같은 행으로 되돌아옴)
+    public String replayTopic() {
+        return topic.endsWith(".DLT") ? topic.substring(0, topic.length() - ".DLT".length()) : topic;
+    }
+
+    public static String fingerprintOf(String topic, String kafkaKey, String payload) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(topic.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (kafkaKey != null) digest.update(kafkaKey.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(payload.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원 JVM", e);
+        }
     }
 }
\ No newline at end of file
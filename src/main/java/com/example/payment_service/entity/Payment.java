@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_requested_at", columnList = "requestedAt, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Payment extends BaseTimeEntity {
@@ -45,6 +47,11 @@ public class Payment extends BaseTimeEntity {
 
     private LocalDateTime completedAt;
 
+    // 상태 전이 CAS 의 기대 버전. 전이는 조건부 UPDATE 한 번으로 처리하고 그때마다 1씩 올림 (기존 행은 0 부터)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Builder
     public Payment(String tripId, String userId, String paymentMethodId, Integer amount) {
         this.paymentId = UUID.randomUUID().toString();
@@ -56,18 +63,21 @@ public class Payment extends BaseTimeEntity {
         this.requestedAt = LocalDateTime.now();
     }
 
-    public void complete(String pgTransactionId) {
-        this.status = PaymentStatus.COMPLETED;
-        this.pgTransactionId = pgTransactionId;
-        this.completedAt = LocalDateTime.now();
-    }
-
-    public void fail() {
-        this.status = PaymentStatus.FAILED;
-    }
-
-    public void unknown(String pgTransactionId) {
-        this.status = PaymentStatus.UNKNOWN;
-        this.pgTransactionId = pgTransactionId;
+    /**
+     * 조건부 UPDATE 가 성공한 뒤, 호출자가 들고 있는 스냅샷(detached)을 DB 상태와 맞춥니다.
+     * 다음 전이의 기대 상태/버전으로 그대로 쓰이므로 DB 에 반영되지 않은 전이에는 호출하면 안 됩니다.
+     */
+    public void applyTransition(PaymentStatus next, String pgTransactionId, LocalDateTime at) {
+        if (!status.canTransitionTo(next)) {
+            throw new IllegalStateException("허용되지 않는 결제 상태 전이: " + status + " -> " + next);
+        }
+        this.status = next;
+        if (pgTransactionId != null) {
+            this.pgTransactionId = pgTransactionId;
+        }
+        if (next == PaymentStatus.COMPLETED) {
+            this.completedAt = at;
+        }
+        this.version = (version == null ? 0L : version) + 1;
     }
-}
\ No newline at end of file
+}
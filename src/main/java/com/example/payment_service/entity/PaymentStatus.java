@@ -5,5 +5,14 @@ public enum PaymentStatus {
     PROCESSING, // PG 호출 중
     COMPLETED, // 결제 완료
     FAILED,     // 결제 실패
-    UNKNOWN
-}
\ No newline at end of file
+    UNKNOWN;
+
+    // 상태 머신: REQUESTED → PROCESSING → COMPLETED / FAILED / UNKNOWN (종결 상태에서는 더 이상 전이 불가)
+    public boolean canTransitionTo(PaymentStatus next) {
+        return switch (this) {
+            case REQUESTED -> next == PROCESSING;
+            case PROCESSING -> next == COMPLETED || next == FAILED || next == UNKNOWN;
+            case COMPLETED, FAILED, UNKNOWN -> false;
+        };
+    }
+}
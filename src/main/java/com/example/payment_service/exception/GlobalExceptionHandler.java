@@ -15,6 +15,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidExportRequestException.class)
+    public ResponseEntity<String> handleInvalidExportRequest(InvalidExportRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFailedEventQueryException.class)
+    public ResponseEntity<String> handleInvalidFailedEventQuery(InvalidFailedEventQueryException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     @ExceptionHandler({PricingServiceUnavailableException.class, UserServiceUnavailableException.class})
     public ResponseEntity<String> handleServiceUnavailable(RuntimeException ex) {
         log.error("외부 서비스 장애 발생: {}", ex.getMessage(), ex);
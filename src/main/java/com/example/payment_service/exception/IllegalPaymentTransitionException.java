@@ -0,0 +1,9 @@
+package com.example.payment_service.exception;
+
+import com.example.payment_service.entity.PaymentStatus;
+
+public class IllegalPaymentTransitionException extends RuntimeException {
+    public IllegalPaymentTransitionException(Long paymentId, PaymentStatus from, PaymentStatus to) {
+        super("결제 상태 전이 거절 (paymentId=" + paymentId + ", " + from + " -> " + to + ")");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.payment_service.exception;
+
+public class InvalidFailedEventQueryException extends RuntimeException {
+    public InvalidFailedEventQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.payment_service.exception;
+
+// PG 가 정상 응답으로 거절한 경우 (잔액 부족, 한도 초과 등). 서킷 실패로 집계하지 않음
+public class PgPaymentDeclinedException extends RuntimeException {
+    public PgPaymentDeclinedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.payment_service.exception;
+
+public class PgServiceUnavailableException extends RuntimeException {
+    public PgServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public PgServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
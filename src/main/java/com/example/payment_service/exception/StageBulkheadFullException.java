@@ -0,0 +1,7 @@
+package com.example.payment_service.exception;
+
+public class StageBulkheadFullException extends RuntimeException {
+    public StageBulkheadFullException(String stage) {
+        super("처리 단계 대기열 초과 (stage=" + stage + ")");
+    }
+}
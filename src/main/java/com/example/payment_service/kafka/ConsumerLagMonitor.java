@@ -0,0 +1,125 @@
+package com.example.payment_service.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * reactive consumer group 의 trip_events 파티션별 lag 을 주기적으로 계산해 gauge 로 노출합니다. (HPA External metric 용)
+ *
+ * lag = 파티션 끝 offset - group 의 커밋 offset (커밋이 없으면 파티션 시작 offset 기준).
+ * 모든 파드가 같은 group 값을 내보내므로, 외부 지표로 쓸 때는 파드 간 max 로 집계해야 합니다.
+ */
+@Component
+@Slf4j
+public class ConsumerLagMonitor implements DisposableBean {
+
+    private static final long ADMIN_TIMEOUT_SECONDS = 10;
+
+    private final AdminClient adminClient;
+    private final MeterRegistry meterRegistry;
+    private final String groupId;
+    private final String topic;
+
+    private final Map<Integer, AtomicLong> partitionLag = new ConcurrentHashMap<>();
+    private final AtomicLong totalLag = new AtomicLong();
+
+    @Autowired
+    public ConsumerLagMonitor(KafkaAdmin kafkaAdmin,
+                              MeterRegistry meterRegistry,
+                              @Value("${payment.metrics.consumer-lag.group:payment-service-reactive-group}") String groupId,
+                              @Value("${payment.metrics.consumer-lag.topic:trip_events}") String topic) {
+        this(AdminClient.create(kafkaAdmin.getConfigurationProperties()), meterRegistry, groupId, topic);
+    }
+
+    ConsumerLagMonitor(AdminClient adminClient, MeterRegistry meterRegistry, String groupId, String topic) {
+        this.adminClient = adminClient;
+        this.meterRegistry = meterRegistry;
+        this.groupId = groupId;
+        this.topic = topic;
+
+        Gauge.builder("payment.kafka.consumer.lag.total", totalLag, AtomicLong::get)
+             .description("consumer group 의 토픽 전체 lag (메시지 수)")
+             .tags(Tags.of("group", groupId, "topic", topic))
+             .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.metrics.consumer-lag.interval:15s}")
+    public void refresh() {
+        try {
+            TopicDescription description = adminClient.describeTopics(List.of(topic))
+                                                      .allTopicNames()
+                                                      .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                                                      .get(topic);
+            List<TopicPartition> partitions = description.partitions().stream()
+                                                         .map(info -> new TopicPartition(topic, info.partition()))
+                                                         .toList();
+
+            Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                                                                          .partitionsToOffsetAndMetadata()
+                                                                          .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latest = listOffsets(partitions, OffsetSpec.latest());
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> earliest = listOffsets(partitions, OffsetSpec.earliest());
+
+            long total = 0;
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                long consumed = offset != null ? offset.offset() : earliest.get(partition).offset();
+                long lag = Math.max(0, latest.get(partition).offset() - consumed);
+                lagGauge(partition.partition()).set(lag);
+                total += lag;
+            }
+            totalLag.set(total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("⚠️ [Metrics] consumer lag 조회 실패. Group: {}, Error: {}", groupId, e.getMessage());
+        }
+    }
+
+    private Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> listOffsets(List<TopicPartition> partitions, OffsetSpec spec)
+            throws Exception {
+        Map<TopicPartition, OffsetSpec> request = partitions.stream()
+                                                            .collect(Collectors.toMap(Function.identity(), p -> spec, (a, b) -> a, HashMap::new));
+        return adminClient.listOffsets(request).all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // 파티션이 늘어나도 처음 본 파티션만 gauge 를 등록
+    private AtomicLong lagGauge(int partition) {
+        return partitionLag.computeIfAbsent(partition, p -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("payment.kafka.consumer.lag", value, AtomicLong::get)
+                 .description("consumer group 의 파티션별 lag (메시지 수)")
+                 .tags(Tags.of("group", groupId, "topic", topic, "partition", String.valueOf(p)))
+                 .register(meterRegistry);
+            return value;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        adminClient.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.payment_service.kafka;
+
+import org.apache.kafka.common.TopicPartition;
+import reactor.kafka.receiver.ReceiverOffset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 파티션별로 받은 오프셋과 ack 한 오프셋을 추적해서, 앞선 오프셋이 모두 끝난 구간(연속 완료 prefix)의 끝만 커밋 대상으로 돌려줍니다.
+ *
+ * flatMap 동시 처리로 ack 순서가 뒤바뀌어도, 아직 처리 중이거나 drain 으로 시작하지 않은 오프셋을 건너뛰어 커밋하지 않습니다.
+ * (건너뛰면 그 레코드는 재전달되지 않고, REQUESTED 이거나 저장 전인 결제는 구조 스케줄러도 찾지 못함)
+ */
+class ContiguousOffsetTracker {
+
+    private final Map<TopicPartition, Partition> partitions = new ConcurrentHashMap<>();
+
+    void received(ReceiverOffset offset) {
+        partition(offset).received(offset.offset());
+    }
+
+    void acknowledged(ReceiverOffset offset) {
+        partition(offset).acknowledged(offset);
+    }
+
+    // 파티션별 연속 완료 prefix 의 마지막 오프셋 (커밋할 게 없는 파티션은 제외)
+    List<ReceiverOffset> committable() {
+        List<ReceiverOffset> result = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            ReceiverOffset offset = partition.committable();
+            if (offset != null) result.add(offset);
+        }
+        return result;
+    }
+
+    private Partition partition(ReceiverOffset offset) {
+        return partitions.computeIfAbsent(offset.topicPartition(), tp -> new Partition());
+    }
+
+    private static final class Partition {
+        private final NavigableSet<Long> pending = new TreeSet<>();
+        private final NavigableMap<Long, ReceiverOffset> acked = new TreeMap<>();
+
+        synchronized void received(long offset) {
+            pending.add(offset);
+        }
+
+        synchronized void acknowledged(ReceiverOffset offset) {
+            pending.remove(offset.offset());
+            acked.put(offset.offset(), offset);
+            // prefix 안쪽은 마지막 하나만 있으면 되므로 정리 (prefix 밖의 완료 건은 앞 오프셋이 끝날 때까지 보관)
+            NavigableMap<Long, ReceiverOffset> prefix = pending.isEmpty() ? acked : acked.headMap(pending.first(), false);
+            if (prefix.size() > 1) {
+                prefix.headMap(prefix.lastKey(), false).clear();
+            }
+        }
+
+        synchronized ReceiverOffset committable() {
+            Map.Entry<Long, ReceiverOffset> last = pending.isEmpty() ? acked.lastEntry() : acked.lowerEntry(pending.first());
+            return last == null ? null : last.getValue();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.entity.OutboxStatus;
+import com.example.payment_service.repository.PaymentOutboxRepository;
+import com.example.payment_service.shard.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox READY 백로그 건수와 가장 오래된 READY 행의 나이를 gauge 로 노출합니다. (발행 지연 알림 / HPA External metric 용)
+ */
+@Component
+@Slf4j
+public class OutboxBacklogMonitor {
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final ShardRouter shardRouter;
+    private final AtomicLong readyCount = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    public OutboxBacklogMonitor(PaymentOutboxRepository outboxRepository, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.shardRouter = shardRouter;
+
+        Gauge.builder("payment.outbox.ready.count", readyCount, AtomicLong::get)
+             .description("발행 대기(READY) 중인 outbox 행 수")
+             .register(meterRegistry);
+        Gauge.builder("payment.outbox.ready.oldest.age", oldestAgeMillis, v -> v.get() / 1000.0)
+             .description("가장 오래된 READY outbox 행의 나이")
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.metrics.outbox-backlog.interval:15s}")
+    public void refresh() {
+        try {
+            // shard 별 건수는 합치고, 가장 오래된 행은 전체 shard 중 최솟값
+            List<Long> counts = shardRouter.fanOut(shard -> outboxRepository.countByStatus(OutboxStatus.READY));
+            readyCount.set(counts.stream().mapToLong(Long::longValue).sum());
+            LocalDateTime oldest = shardRouter.fanOut(shard -> outboxRepository.findOldestCreatedAt(OutboxStatus.READY))
+                                              .stream()
+                                              .filter(Objects::nonNull)
+                                              .min(Comparator.naturalOrder())
+                                              .orElse(null);
+            oldestAgeMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        } catch (Exception e) {
+            log.warn("⚠️ [Metrics] outbox 백로그 조회 실패. Error: {}", e.getMessage());
+        }
+    }
+}
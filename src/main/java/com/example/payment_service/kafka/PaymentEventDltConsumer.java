@@ -15,6 +15,8 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
@@ -32,6 +34,7 @@ public class PaymentEventDltConsumer {
     public void consumeDlt(
             @Payload String message,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String originalDltTopic,
+            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key,
             @Header(value = "kafka_dlt_exception_message", required = false) String exceptionMessage
     ) {
         log.warn("[DLT 수신] 토픽: {}, 메시지: {}", originalDltTopic, message);
@@ -40,13 +43,13 @@ public class PaymentEventDltConsumer {
             exceptionMessage = "Unknown Error";
         }
 
-        FailedEvent failedEvent = FailedEvent.builder()
-                                             .topic(originalDltTopic)
-                                             .payload(message)
-                                             .errorMessage(truncate(exceptionMessage, 1000))
-                                             .build();
-
-        failedEventRepository.save(failedEvent);
+        // 재시도/리밸런스/두 가지 에러 경로로 같은 메시지가 여러 번 오면 한 행에 도착 횟수만 누적
+        String fingerprint = FailedEvent.fingerprintOf(originalDltTopic, key, message);
+        int affected = failedEventRepository.upsert(originalDltTopic, key, message, truncate(exceptionMessage, 1000),
+                fingerprint, LocalDateTime.now());
+        if (affected != 1) {
+            log.info("[DLT 중복] 이미 적재된 메시지. 도착 횟수만 증가. Key: {}, Fingerprint: {}", key, fingerprint);
+        }
     }
 
     private String truncate(String str, int max) {
@@ -1,32 +1,186 @@
 package com.example.payment_service.kafka;
 
-import com.example.payment_service.kafka.dto.PaymentCompletedEvent;
-import com.example.payment_service.kafka.dto.PaymentFailedEvent;
-import lombok.RequiredArgsConstructor;
+import com.example.payment_service.entity.PaymentOutbox;
+import com.example.payment_service.latency.PaymentLatencyTracker;
+import com.example.payment_service.repository.PaymentOutboxRepository;
+import com.example.payment_service.service.PaymentBulkheads;
+import com.example.payment_service.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * outbox 행의 커밋 직후 직접 발행 (fast path).
+ *
+ * 결제 종결 트랜잭션이 커밋되면 같은 payload 를 전용 발행 스레드에서 비동기 전송하고, ack 를 받으면 행을 DONE 으로 바꿉니다.
+ * 전송 실패·대기열 초과·앱 종료로 READY 로 남은 행은 relay-grace 가 지난 뒤 PaymentOutboxRelay 가 기존대로 발행합니다.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class PaymentKafkaProducer {
-    private static final String TOPIC = "payment_events";
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+public class PaymentKafkaProducer implements DisposableBean {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final PaymentOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final PaymentBulkheads bulkheads;
+    private final PaymentLatencyTracker latencyTracker;
+    private final boolean enabled;
+    private final Duration relayGrace;
+    private final Executor sendExecutor;
+
+    private final Counter acked;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter takenByRelay;
+
+    @Autowired
+    public PaymentKafkaProducer(KafkaTemplate<String, String> kafkaTemplate,
+                                PaymentOutboxRepository outboxRepository,
+                                TransactionTemplate transactionTemplate,
+                                ShardRouter shardRouter,
+                                PaymentBulkheads bulkheads,
+                                PaymentLatencyTracker latencyTracker,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.outbox.direct-publish.enabled:false}") boolean enabled,
+                                @Value("${payment.outbox.direct-publish.relay-grace:5s}") Duration relayGrace,
+                                @Value("${payment.outbox.direct-publish.threads:2}") int threads,
+                                @Value("${payment.outbox.direct-publish.queue-size:1024}") int queueSize) {
+        this(kafkaTemplate, outboxRepository, transactionTemplate, shardRouter, bulkheads, latencyTracker, meterRegistry,
+                enabled, relayGrace, sendExecutor(threads, queueSize));
+    }
+
+    PaymentKafkaProducer(KafkaTemplate<String, String> kafkaTemplate,
+                         PaymentOutboxRepository outboxRepository,
+                         TransactionTemplate transactionTemplate,
+                         ShardRouter shardRouter,
+                         PaymentBulkheads bulkheads,
+                         PaymentLatencyTracker latencyTracker,
+                         MeterRegistry meterRegistry,
+                         boolean enabled,
+                         Duration relayGrace,
+                         Executor sendExecutor) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.bulkheads = bulkheads;
+        this.latencyTracker = latencyTracker;
+        this.enabled = enabled;
+        this.relayGrace = relayGrace;
+        this.sendExecutor = sendExecutor;
+        this.acked = counter(meterRegistry, "acked");
+        this.failed = counter(meterRegistry, "failed");
+        this.rejected = counter(meterRegistry, "rejected");
+        this.takenByRelay = counter(meterRegistry, "taken_by_relay");
+    }
+
+    // relay 는 이 시각 이전에 생성된 READY 행만 가져감 (직접 발행이 ack 받을 시간을 줘서 중복 발행 방지)
+    public LocalDateTime relayCutoff() {
+        LocalDateTime now = LocalDateTime.now();
+        return enabled ? now.minus(relayGrace) : now;
+    }
+
+    // 현재 트랜잭션이 커밋된 뒤에만 발행 (롤백되면 아무것도 보내지 않음)
+    public void publishAfterCommit(PaymentOutbox outbox) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(outbox);
+            }
+        });
+    }
+
+    // 이미 커밋된 행 (PaymentService 의 파이프라인 최종 실패 이벤트처럼 리포지토리 트랜잭션으로 저장된 경우)
+    public void publishCommitted(PaymentOutbox outbox) {
+        if (enabled) dispatch(outbox);
+    }
+
+    // 커밋한 스레드(DB lane)는 send 를 기다리지 않음: 브로커/메타데이터 장애 시 max.block.ms 동안 막히는 건 발행 스레드뿐
+    private void dispatch(PaymentOutbox outbox) {
+        try {
+            sendExecutor.execute(() -> send(outbox));
+        } catch (RejectedExecutionException e) {
+            // 발행 스레드가 밀려 있으면 포기하고 relay 에 맡김
+            rejected.increment();
+        }
+    }
+
+    private void send(PaymentOutbox outbox) {
+        try {
+            kafkaTemplate.send(outbox.getTopic(), outbox.getAggregateId(), outbox.getPayload())
+                         .whenComplete((result, ex) -> {
+                             if (ex != null) {
+                                 onFailure(outbox, ex);
+                                 return;
+                             }
+                             acked.increment();
+                             latencyTracker.recordSince(PaymentLatencyTracker.Stage.COMPLETED_TO_PUBLISHED, outbox.getCreatedAt());
+                             markDone(outbox);
+                         });
+        } catch (Exception e) {
+            // 메타데이터 대기 초과 등 send 호출 자체가 실패해도 커밋된 결제에는 영향 없음
+            onFailure(outbox, e);
+        }
+    }
+
+    private void onFailure(PaymentOutbox outbox, Throwable ex) {
+        failed.increment();
+        log.warn("⚠️ [Payment-Outbox] 직접 발행 실패, relay 로 넘김 | ID: {} | Key: {} | Error: {}",
+                outbox.getId(), outbox.getAggregateId(), ex.getMessage());
+    }
+
+    // ack 콜백은 producer I/O 스레드라 DB 갱신은 db lane 으로 넘기고, 콜백 스레드엔 shard 문맥이 없으므로 aggregateId 로 라우팅
+    private void markDone(PaymentOutbox outbox) {
+        bulkheads.db()
+                 .run(() -> shardRouter.callFor(outbox.getAggregateId(),
+                         () -> transactionTemplate.execute(status -> outboxRepository.markDirectPublished(outbox.getId()))))
+                 .subscribe(updated -> {
+                     if (updated == null || updated == 0) {
+                         // grace 안에 ack 가 안 와서 relay 가 먼저 가져간 경우 (relay 경로와 같은 at-least-once 중복 발행)
+                         takenByRelay.increment();
+                     }
+                 }, e -> log.warn("⚠️ [Payment-Outbox] 직접 발행 후 DONE 갱신 실패, relay 가 재발행 | ID: {} | Error: {}",
+                         outbox.getId(), e.getMessage()));
+    }
+
+    @Override
+    public void destroy() {
+        if (sendExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
 
-    public Mono<Void> sendPaymentCompletedEvent(PaymentCompletedEvent event) {
-        return Mono.fromFuture(() -> kafkaTemplate.send(TOPIC, event.tripId(), event))
-                   .doOnSuccess(result -> log.info("결제 완료 이벤트 발행 성공. Offset: {}, TripId: {}",
-                           result.getRecordMetadata().offset(), event.tripId()))
-                   .doOnError(ex -> log.error("결제 완료 이벤트 발행 실패. TripId: {}", event.tripId(), ex))
-                   .then();
+    private static ThreadPoolExecutor sendExecutor(int threads, int queueSize) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "payment-outbox-direct");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    public Mono<Void> sendPaymentFailedEvent(PaymentFailedEvent event) {
-        return Mono.fromFuture(() -> kafkaTemplate.send(TOPIC, event.tripId(), event))
-                   .doOnSuccess(result -> log.warn("결제 실패 이벤트 발행 성공. TripId: {}", event.tripId()))
-                   .doOnError(ex -> log.error("결제 실패 이벤트 발행 실패. TripId: {}", event.tripId(), ex))
-                   .then();
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.outbox.direct")
+                      .tag("result", result)
+                      .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,9 @@ package com.example.payment_service.kafka;
 
 import com.example.payment_service.entity.OutboxStatus;
 import com.example.payment_service.entity.PaymentOutbox;
+import com.example.payment_service.latency.PaymentLatencyTracker;
 import com.example.payment_service.repository.PaymentOutboxRepository;
+import com.example.payment_service.shard.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
@@ -22,11 +24,23 @@ public class PaymentOutboxRelay {
     private final PaymentOutboxRepository outboxRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final PaymentLatencyTracker latencyTracker;
+    private final PaymentKafkaProducer directPublisher;
 
+    // shard 마다 독립적으로 READY 행을 가져와 병렬 발행 (같은 aggregateId 는 항상 같은 shard 라 순서 유지)
+    // 직접 발행(PaymentKafkaProducer)이 켜져 있으면 relay-grace 안에 DONE 이 안 된 행(전송 실패·미발행)만 대상
     @Scheduled(fixedDelay = 500)
     public void publishEvents() {
+        shardRouter.fanOut(shard -> {
+            publishShard();
+            return null;
+        });
+    }
+
+    private void publishShard() {
         List<PaymentOutbox> eventsToPublish = transactionTemplate.execute(status -> {
-            List<PaymentOutbox> events = outboxRepository.findEventsForPublishing(100);
+            List<PaymentOutbox> events = outboxRepository.findEventsForPublishing(100, directPublisher.relayCutoff());
             if (events.isEmpty()) return null;
 
             List<Long> ids = events.stream().map(PaymentOutbox::getId).toList();
@@ -48,6 +62,8 @@ public class PaymentOutboxRelay {
             log.info("✅ [Payment-Outbox] 발행 성공 | ID: {} | Topic: {} | Key: {}",
                     event.getId(), event.getTopic(), event.getAggregateId());
             outboxRepository.updateStatus(List.of(event.getId()), OutboxStatus.DONE);
+            // outbox 행은 결제 종결(COMPLETED/FAILED)과 같은 트랜잭션에서 생성되므로 createdAt 을 종결 시각으로 사용
+            latencyTracker.recordSince(PaymentLatencyTracker.Stage.COMPLETED_TO_PUBLISHED, event.getCreatedAt());
 
         } catch (Exception e) {
             log.error("❌ [Payment-Outbox] 발행 실패 | ID: {} | Topic: {} | Error: {}",
@@ -68,21 +84,21 @@ public class PaymentOutboxRelay {
     @SchedulerLock(name = "Payment_rescueStuckEvents", lockAtLeastFor = "PT30S", lockAtMostFor = "PT50S")
     public void rescueStuckEvents() {
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(10);
-        transactionTemplate.execute(status -> {
+        shardRouter.fanOut(shard -> transactionTemplate.execute(status -> {
             int count = outboxRepository.resetStuckEvents(OutboxStatus.PUBLISHING, OutboxStatus.READY, cutoff);
-            if (count > 0) log.warn("🚨 [Payment] Stuck 이벤트 {}건 복구 완료", count);
+            if (count > 0) log.warn("🚨 [Payment] Stuck 이벤트 {}건 복구 완료 (shard {})", count, shard);
             return null;
-        });
+        }));
     }
 
     @Scheduled(cron = "0 0 3 * * *")
     @SchedulerLock(name = "Payment_cleanupOldEvents", lockAtLeastFor = "PT30S", lockAtMostFor = "PT50S")
     public void cleanupOldEvents() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(3);
-        transactionTemplate.execute(status -> {
+        shardRouter.fanOut(shard -> transactionTemplate.execute(status -> {
             int count = outboxRepository.deleteOldEvents(OutboxStatus.DONE, cutoff);
-            if (count > 0) log.info("🧹 [Payment] 오래된 이벤트 {}건 삭제 완료", count);
+            if (count > 0) log.info("🧹 [Payment] 오래된 이벤트 {}건 삭제 완료 (shard {})", count, shard);
             return null;
-        });
+        }));
     }
 }
\ No newline at end of file
@@ -1,33 +1,88 @@
 package com.example.payment_service.kafka;
 
 import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.kafka.lane.ConsumerLane;
+import com.example.payment_service.kafka.lane.TripEventLanes;
+import com.example.payment_service.latency.PaymentLatencyTracker;
 import com.example.payment_service.service.PaymentService;
+import com.example.payment_service.service.StartupWarmup;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
 import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
 import reactor.kafka.receiver.ReceiverRecord;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 운행 종료 이벤트(trip_events) Consumer.
+ *
+ * 종료 시에는 SmartLifecycle.stop 에서 drain 모드로 들어갑니다:
+ * 새 레코드 fetch 를 멈추고(pause), 처리 중인 결제가 끝나기를 shutdown phase 제한 시간 안에서 기다린 뒤,
+ * 파티션별 연속 완료 오프셋을 커밋하고 나서야 구독(receiver)을 닫습니다. 시간 안에 못 끝낸 건은 abandoned 로 남기고,
+ * 그 오프셋부터는 커밋하지 않아 다음 소유자에게 재전달됩니다. (PROCESSING 까지 간 건은 PaymentRescueScheduler 도 회수)
+ *
+ * payment.consumer.lanes.enabled=true 이면 새 결제(FRESH)와 재발행/backlog(BULK)를 TripEventLanes 로 나눠 슬롯을 배정합니다.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class PaymentReactiveConsumer implements CommandLineRunner, DisposableBean {
+public class PaymentReactiveConsumer implements CommandLineRunner, SmartLifecycle, DisposableBean {
 
     private final KafkaReceiver<String, String> kafkaReceiver;
     private final PaymentService paymentService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TripEventRetryRouter retryRouter;
+    private final TripEventDeadLetterPublisher deadLetterPublisher;
     private final ObjectMapper objectMapper;
-    private Disposable subscription;
+    private final StartupWarmup startupWarmup;
+    private final PaymentLatencyTracker latencyTracker;
+    private final TripEventLanes lanes;
+    private final Duration drainTimeout;
+    private final Duration commitTimeout;
+    private volatile Disposable subscription;
+
+    // drain 상태: 처리 중인 건수, 파티션별 연속 완료 오프셋, drain 시작 후 처리하지 않고 넘긴 건수
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ContiguousOffsetTracker offsets = new ContiguousOffsetTracker();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private volatile boolean draining;
+
+    public record DrainReport(int drained, int abandoned, int skipped) {}
+
+    public PaymentReactiveConsumer(KafkaReceiver<String, String> kafkaReceiver,
+                                   PaymentService paymentService,
+                                   TripEventRetryRouter retryRouter,
+                                   TripEventDeadLetterPublisher deadLetterPublisher,
+                                   ObjectMapper objectMapper,
+                                   StartupWarmup startupWarmup,
+                                   PaymentLatencyTracker latencyTracker,
+                                   TripEventLanes lanes,
+                                   @Value("${spring.lifecycle.timeout-per-shutdown-phase:30s}") Duration shutdownPhaseTimeout,
+                                   @Value("${payment.consumer.drain.commit-timeout:5s}") Duration commitTimeout) {
+        this.kafkaReceiver = kafkaReceiver;
+        this.paymentService = paymentService;
+        this.retryRouter = retryRouter;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.objectMapper = objectMapper;
+        this.startupWarmup = startupWarmup;
+        this.latencyTracker = latencyTracker;
+        this.lanes = lanes;
+        this.commitTimeout = commitTimeout;
+        // phase 제한 시간 안에 오프셋 커밋과 receiver close 까지 끝나야 하므로 그만큼 남겨두고 기다림
+        Duration remaining = shutdownPhaseTimeout.minus(commitTimeout);
+        this.drainTimeout = remaining.isNegative() ? Duration.ZERO : remaining;
+    }
 
     @Override
     public void run(String... args) {
@@ -35,18 +90,35 @@ public class PaymentReactiveConsumer implements CommandLineRunner, DisposableBea
 
         this.subscription = kafkaReceiver.receive()
                                          .flatMap(record -> {
+                                             offsets.received(record.receiverOffset());
+                                             // drain 중에는 이미 버퍼에 들어온 레코드도 시작하지 않음 (ack 하지 않으므로 다음 소유자가 다시 읽음)
+                                             if (draining) {
+                                                 skipped.incrementAndGet();
+                                                 return Mono.empty();
+                                             }
+                                             inFlight.incrementAndGet();
+                                             long startNanos = System.nanoTime();
                                              return processRecord(record)
                                                      // 성공하든(비즈니스 완료), 실패해서 DLT를 갔든(handleFailure 완료), 파싱 에러든
                                                      // 여기까지 오면 이 메시지에 대한 처리는 끝난 것이므로 무조건 커밋(Ack)합니다.
-                                                     .doOnSuccess(v -> record.receiverOffset().acknowledge());
-                                         }, 32)
+                                                     .doOnNext(handled -> {
+                                                         if (!handled) {
+                                                             skipped.incrementAndGet();
+                                                             return;
+                                                         }
+                                                         acknowledge(record.receiverOffset());
+                                                         startupWarmup.onPaymentProcessed(Duration.ofNanos(System.nanoTime() - startNanos));
+                                                     })
+                                                     .doFinally(signal -> inFlight.decrementAndGet());
+                                         }, lanes.concurrency())
                                          .subscribe(
                                                  null,
                                                  e -> log.error("🔥 [Fatal Error] Consumer 구독이 비정상 종료되었습니다. 앱 재시작이 필요합니다.", e)
                                          );
     }
 
-    private Mono<Void> processRecord(ReceiverRecord<String, String> record) {
+    // true: 처리 끝(ack 대상), false: drain 으로 시작하지 않음(ack 하지 않음)
+    private Mono<Boolean> processRecord(ReceiverRecord<String, String> record) {
         TripCompletedEvent event;
 
         try {
@@ -55,50 +127,159 @@ public class PaymentReactiveConsumer implements CommandLineRunner, DisposableBea
         } catch (JsonProcessingException e) {
             // JSON 형식이 아니거나 파싱 불가능한 데이터가 온 경우
             log.error("🗑️ [Bad Request] JSON 파싱 실패. 메시지를 스킵합니다. Payload: {}", record.value());
-            // 에러를 던지지 않고 빈 Mono를 리턴하여 Ack를 유도 (스트림 중단 방지)
-            return Mono.empty();
+            // 에러를 던지지 않고 처리 끝으로 돌려 Ack를 유도 (스트림 중단 방지)
+            return Mono.just(true);
+        }
+
+        long ageMillis = event.endedAt() == null ? -1 : latencyTracker.ageMillis(event.endedAt());
+        // DLT 재발행 건은 신선도 지표를 왜곡하므로 제외
+        if (event.endedAt() != null && !TripEventLanes.isReplay(record)) {
+            latencyTracker.recordNanos(PaymentLatencyTracker.Stage.EVENT_TO_CONSUME, ageMillis * 1_000_000);
         }
 
+        // lane 슬롯을 기다리는 동안 drain 이 시작되면 시작하지 않고 넘김
+        ConsumerLane lane = lanes.classify(record, ageMillis);
+        return lanes.run(lane, () -> draining
+                ? Mono.just(false)
+                : handle(record, event).thenReturn(true));
+    }
+
+    private Mono<Void> handle(ReceiverRecord<String, String> record, TripCompletedEvent event) {
         // 3. 비즈니스 로직 수행
-        return paymentService.processPayment(event)
-                          .then() // 결과값은 필요 없으니 Void로 변환
-                          .doOnSubscribe(s -> log.debug("⚡ [Start] TripID={}", event.tripId()))
-
-                          // 재시도 전략 (1초 간격, 최대 3회)
-                          .retryWhen(Retry.backoff(3, Duration.ofMillis(1000))
-                                          .transientErrors(true)
-                                          .doBeforeRetry(signal -> log.warn("🔄 [Retry] ({}/3) Error: {}",
-                                                  signal.totalRetries() + 1, signal.failure().getMessage())))
-
-                          // 3번 다 실패하면 DLT 로직으로 넘어감
-                          .onErrorResume(e -> handleFailure(record, e));
+        Mono<Void> pipeline = paymentService.processPayment(event)
+                                            .then() // 결과값은 필요 없으니 Void로 변환
+                                            .doOnSubscribe(s -> log.debug("⚡ [Start] TripID={}", event.tripId()));
+
+        // 지연 토픽 재시도 모드: 슬롯을 붙잡고 기다리지 않고 재시도 토픽으로 넘긴 뒤 바로 커밋
+        if (retryRouter.isTopicMode()) {
+            return pipeline.onErrorResume(e -> {
+                if (!paymentService.isRetryable(e)) {
+                    return handleFailure(record, e);
+                }
+                return retryRouter.scheduleRetry(record.key(), record.value(), 1)
+                                  // 재시도 토픽 발행마저 실패하면 DLT 로 보존
+                                  .onErrorResume(sendEx -> handleFailure(record, e));
+            });
+        }
+
+        return pipeline
+                // 재시도 전략 (1초 간격, 최대 3회)
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(1000))
+                                .transientErrors(true)
+                                .doBeforeRetry(signal -> log.warn("🔄 [Retry] ({}/3) Error: {}",
+                                        signal.totalRetries() + 1, signal.failure().getMessage())))
+
+                // 3번 다 실패하면 DLT 로직으로 넘어감
+                .onErrorResume(e -> handleFailure(record, e));
     }
 
     // DLT 전송 및 데이터 보존 로직
     private Mono<Void> handleFailure(ReceiverRecord<String, String> record, Throwable e) {
-        String dltTopic = record.topic() + ".DLT";
-        log.error("🚨 [Final Fail] 재시도 초과. DLT 전송 시도. Topic={}, Error={}", dltTopic, e.getMessage());
-
-        // KafkaTemplate의 Future(비동기)를 Mono(리액티브)로 변환하여 '기다림'을 구현
-        return Mono.fromFuture(() -> kafkaTemplate.send(dltTopic, record.key(), record.value()))
-                   .flatMap(sendResult -> {
-                       log.info("[DLT Sent] DLT 전송 성공. Offset을 커밋합니다.");
-                       return Mono.empty();
-                   })
-                   .onErrorResume(dltEx -> {
-                       // 최후의 보루: DLT 브로커마저 죽었을 때
-                       // 데이터 유실을 막기 위해 로그 파일에 Payload를 강제로 기록
-                       log.error("[FATAL] DLT 전송 실패! 데이터 유실 방지용 로그 기록.\nKEY: {}\nPAYLOAD: {}\nERROR: {}",
-                               record.key(), record.value(), dltEx.getMessage());
-
-                       // 에러를 다시 던지지 않고 Mono.empty()를 반환해야
-                       // 메인 흐름이 끊기지 않고 다음 메시지(오프셋 커밋)로 넘어갑니다.
-                       return Mono.empty();
-                   })
-                   .then(); // Mono<SendResult> -> Mono<Void>
+        return deadLetterPublisher.publish(record.topic(), record.key(), record.value(), e);
+    }
+
+    private void acknowledge(ReceiverOffset offset) {
+        offset.acknowledge();
+        offsets.acknowledged(offset);
+    }
+
+    /**
+     * drain 모드 종료: fetch 중단 → 처리 중인 결제 대기 → 완료 오프셋 커밋 → receiver 닫기.
+     */
+    DrainReport drain() {
+        draining = true;
+        int atStart = inFlight.get();
+        log.info("🛑 [Shutdown] Reactive Consumer drain 시작. 처리 중={}건, 최대 대기={}", atStart, drainTimeout);
+
+        pauseFetching();
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int abandoned = inFlight.get();
+        commitAcknowledged();
+        subscription.dispose();
+
+        DrainReport report = new DrainReport(Math.max(0, atStart - abandoned), abandoned, skipped.get());
+        if (abandoned > 0) {
+            log.warn("⚠️ [Shutdown] drain 제한 시간 초과. 완료={}건, 중단(abandoned)={}건 → 커밋하지 않아 재전달됩니다. 미시작={}건",
+                    report.drained(), report.abandoned(), report.skipped());
+        } else {
+            log.info("✅ [Shutdown] drain 완료. 완료={}건, 미시작={}건 (미시작 건은 커밋하지 않아 재전달됩니다)",
+                    report.drained(), report.skipped());
+        }
+        return report;
+    }
+
+    // 할당된 파티션을 pause 해서 poll 은 계속 돌되(그룹 세션 유지) 새 레코드는 가져오지 않게 함
+    private void pauseFetching() {
+        try {
+            kafkaReceiver.doOnConsumer(consumer -> {
+                             consumer.pause(consumer.assignment());
+                             return consumer.assignment().size();
+                         })
+                         .block(commitTimeout);
+        } catch (Exception e) {
+            log.warn("⚠️ [Shutdown] 파티션 pause 실패. 이후 들어오는 레코드는 시작하지 않고 넘깁니다. Error: {}", e.getMessage());
+        }
+    }
+
+    // commit interval 을 기다리지 않고 파티션별 연속 완료 오프셋을 바로 커밋
+    // (제한 시간 초과로 중단된 오프셋 뒤쪽은 ack 했더라도 커밋하지 않아 재전달됨)
+    private void commitAcknowledged() {
+        List<ReceiverOffset> committable = offsets.committable();
+        if (committable.isEmpty()) return;
+        try {
+            Flux.fromIterable(committable)
+                .flatMap(ReceiverOffset::commit)
+                .then()
+                .block(commitTimeout);
+        } catch (Exception e) {
+            log.warn("⚠️ [Shutdown] 오프셋 커밋 실패. 마지막 커밋 이후 건은 재전달되어 멱등 처리됩니다. Error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        // 구독은 StartupWarmup 이 끝난 뒤 run() 에서 시작
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    @Override
+    public void stop() {
+        drain();
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        // drain 은 최대 phase 제한 시간까지 걸리므로 별도 스레드에서 돌리고 다른 Lifecycle 의 종료를 막지 않음
+        Thread drainThread = new Thread(() -> {
+            try {
+                drain();
+            } finally {
+                callback.run();
+            }
+        }, "payment-consumer-drain");
+        drainThread.start();
     }
 
-    // 앱 종료 시 카프카 연결을 깔끔하게 끊어줌
+    // Lifecycle stop 을 거치지 않은 경우(컨텍스트 refresh 실패 등)의 안전망
     @Override
     public void destroy() {
         if (subscription != null && !subscription.isDisposed()) {
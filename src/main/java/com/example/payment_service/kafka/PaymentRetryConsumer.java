@@ -0,0 +1,106 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.service.PaymentService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.time.Duration;
+
+/**
+ * 지연 재시도 토픽(trip_events.retry.*) Consumer.
+ * 헤더의 due-at 시각까지 기다렸다가 결제를 다시 시도하고, 또 실패하면 다음 단계 토픽 또는 DLT로 넘깁니다.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.retry.mode", havingValue = "topic")
+@Slf4j
+public class PaymentRetryConsumer implements CommandLineRunner, DisposableBean {
+
+    private static final int CONCURRENCY_PER_TIER = 32;
+
+    private final KafkaReceiver<String, String> kafkaReceiver;
+    private final PaymentService paymentService;
+    private final TripEventRetryRouter retryRouter;
+    private final TripEventDeadLetterPublisher deadLetterPublisher;
+    private final ObjectMapper objectMapper;
+    private Disposable subscription;
+
+    public PaymentRetryConsumer(@Qualifier("tripRetryKafkaReceiver") KafkaReceiver<String, String> kafkaReceiver,
+                                PaymentService paymentService,
+                                TripEventRetryRouter retryRouter,
+                                TripEventDeadLetterPublisher deadLetterPublisher,
+                                ObjectMapper objectMapper) {
+        this.kafkaReceiver = kafkaReceiver;
+        this.paymentService = paymentService;
+        this.retryRouter = retryRouter;
+        this.deadLetterPublisher = deadLetterPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("🚀 [Reactive Kafka] 지연 재시도 토픽 리스너 시작. Topics={}", retryRouter.topics());
+
+        // 단계(토픽)별로 슬롯을 분리해야 5m 대기 레코드가 5s 단계 레코드를 막지 않음
+        this.subscription = kafkaReceiver.receive()
+                                         .groupBy(ReceiverRecord::topic)
+                                         .flatMap(tier -> tier.flatMap(record ->
+                                                 awaitDue(record)
+                                                         .then(Mono.defer(() -> processRecord(record)))
+                                                         .doOnSuccess(v -> record.receiverOffset().acknowledge()),
+                                                 CONCURRENCY_PER_TIER), retryRouter.topics().size())
+                                         .subscribe(
+                                                 null,
+                                                 e -> log.error("🔥 [Fatal Error] 재시도 Consumer 구독이 비정상 종료되었습니다. 앱 재시작이 필요합니다.", e)
+                                         );
+    }
+
+    private Mono<Void> awaitDue(ReceiverRecord<String, String> record) {
+        long waitMillis = TripEventRetryRouter.dueAtOf(record) - System.currentTimeMillis();
+        return waitMillis > 0 ? Mono.delay(Duration.ofMillis(waitMillis)).then() : Mono.empty();
+    }
+
+    private Mono<Void> processRecord(ReceiverRecord<String, String> record) {
+        TripCompletedEvent event;
+
+        try {
+            event = objectMapper.readValue(record.value(), TripCompletedEvent.class);
+        } catch (JsonProcessingException e) {
+            log.error("🗑️ [Bad Request] JSON 파싱 실패. 메시지를 스킵합니다. Payload: {}", record.value());
+            return Mono.empty();
+        }
+
+        int attempt = TripEventRetryRouter.attemptOf(record);
+
+        return paymentService.processPayment(event)
+                             .then()
+                             .doOnSubscribe(s -> log.info("🔁 [Retry-Topic] 재처리 시작 ({}회차) TripID={}", attempt, event.tripId()))
+                             .onErrorResume(e -> {
+                                 int nextAttempt = attempt + 1;
+                                 if (!paymentService.isRetryable(e) || !retryRouter.hasTier(nextAttempt)) {
+                                     return deadLetterPublisher.publish(TripEventRetryRouter.SOURCE_TOPIC, record.key(), record.value(), e);
+                                 }
+                                 return retryRouter.scheduleRetry(record.key(), record.value(), nextAttempt)
+                                                   .onErrorResume(sendEx -> deadLetterPublisher.publish(
+                                                           TripEventRetryRouter.SOURCE_TOPIC, record.key(), record.value(), e));
+                             });
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null && !subscription.isDisposed()) {
+            log.info("🛑 [Shutdown] 재시도 Consumer 구독을 안전하게 종료합니다.");
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.kafka.spill.DeadLetterSpillJournal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TripEventDeadLetterPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DeadLetterSpillJournal spillJournal;
+
+    // DLT 전송 및 데이터 보존 로직 (메인 Consumer / 재시도 Consumer 공용)
+    public Mono<Void> publish(String sourceTopic, String key, String value, Throwable cause) {
+        String dltTopic = sourceTopic + ".DLT";
+        log.error("🚨 [Final Fail] 재시도 초과. DLT 전송 시도. Topic={}, Error={}", dltTopic, cause.getMessage());
+
+        // KafkaTemplate의 Future(비동기)를 Mono(리액티브)로 변환하여 '기다림'을 구현
+        return Mono.fromFuture(() -> kafkaTemplate.send(dltTopic, key, value))
+                   .flatMap(sendResult -> {
+                       log.info("[DLT Sent] DLT 전송 성공. Offset을 커밋합니다.");
+                       return Mono.empty();
+                   })
+                   .onErrorResume(dltEx -> {
+                       // 최후의 보루: DLT 브로커마저 죽었을 때
+                       // 로컬 스필 저널에 보존하고, 브로커가 회복되면 DeadLetterSpillDrainer 가 DLT 로 재전송
+                       if (spillJournal.append(dltTopic, key, value)) {
+                           log.error("[FATAL] DLT 전송 실패! 로컬 스필 저널에 보존했습니다. KEY: {}, ERROR: {}", key, dltEx.getMessage());
+                           return Mono.empty();
+                       }
+
+                       // 저널마저 실패하면 데이터 유실 방지용으로 로그 파일에 Payload를 강제로 기록
+                       log.error("[FATAL] DLT 전송 실패! 데이터 유실 방지용 로그 기록.\nKEY: {}\nPAYLOAD: {}\nERROR: {}",
+                               key, value, dltEx.getMessage());
+
+                       // 에러를 다시 던지지 않고 Mono.empty()를 반환해야
+                       // 메인 흐름이 끊기지 않고 다음 메시지(오프셋 커밋)로 넘어갑니다.
+                       return Mono.empty();
+                   })
+                   .then(); // Mono<SendResult> -> Mono<Void>
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.payment_service.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 재시도 가능한 실패를 지연 토픽(trip_events.retry.5s / .30s / .5m ...)으로 넘기는 라우터.
+ * 재시도 대기 중인 레코드가 메인 Consumer의 flatMap 슬롯을 점유하지 않도록 하는 것이 목적입니다.
+ */
+@Component
+@Slf4j
+public class TripEventRetryRouter {
+
+    public static final String SOURCE_TOPIC = "trip_events";
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String DUE_AT_HEADER = "x-retry-due-at";
+
+    private static final String TOPIC_MODE = "topic";
+
+    public record RetryTier(String topic, Duration delay) {}
+
+    // in-slot 모드에서는 Sender 빈이 없으므로 null
+    private final KafkaSender<String, String> kafkaSender;
+    private final boolean topicMode;
+    private final List<RetryTier> tiers;
+
+    @Autowired
+    public TripEventRetryRouter(ObjectProvider<KafkaSender<String, String>> tripRetryKafkaSender,
+                                @Value("${payment.retry.mode:in-slot}") String mode,
+                                @Value("${payment.retry.tiers:5s,30s,5m}") List<String> tierDelays) {
+        this(tripRetryKafkaSender.getIfAvailable(), mode, tierDelays);
+    }
+
+    TripEventRetryRouter(KafkaSender<String, String> kafkaSender, String mode, List<String> tierDelays) {
+        this.kafkaSender = kafkaSender;
+        this.topicMode = TOPIC_MODE.equalsIgnoreCase(mode);
+        if (topicMode && kafkaSender == null) {
+            throw new IllegalStateException("payment.retry.mode=topic 인데 tripRetryKafkaSender 가 없습니다.");
+        }
+        this.tiers = tierDelays.stream()
+                               .map(String::trim)
+                               .map(delay -> new RetryTier(SOURCE_TOPIC + ".retry." + delay, DurationStyle.detectAndParse(delay)))
+                               .toList();
+    }
+
+    public boolean isTopicMode() {
+        return topicMode;
+    }
+
+    public List<String> topics() {
+        return tiers.stream().map(RetryTier::topic).toList();
+    }
+
+    // attempt 는 1부터 시작 (1 = 첫 번째 지연 토픽)
+    public boolean hasTier(int attempt) {
+        return attempt >= 1 && attempt <= tiers.size();
+    }
+
+    public Mono<Void> scheduleRetry(String key, String value, int attempt) {
+        if (!topicMode) {
+            return Mono.error(new IllegalStateException("지연 재시도 토픽이 비활성화(in-slot 모드)되어 있습니다."));
+        }
+        RetryTier tier = tiers.get(attempt - 1);
+        long dueAt = System.currentTimeMillis() + tier.delay().toMillis();
+
+        ProducerRecord<String, String> producerRecord = new ProducerRecord<>(tier.topic(), key, value);
+        producerRecord.headers()
+                      .add(ATTEMPT_HEADER, Integer.toString(attempt).getBytes(StandardCharsets.UTF_8))
+                      .add(DUE_AT_HEADER, Long.toString(dueAt).getBytes(StandardCharsets.UTF_8));
+
+        return kafkaSender.send(Mono.just(SenderRecord.create(producerRecord, attempt)))
+                          .next()
+                          .doOnNext(result -> log.warn("⏳ [Retry-Topic] 지연 토픽으로 재발행 ({}/{}) | Topic: {} | Key: {}",
+                                  attempt, tiers.size(), tier.topic(), key))
+                          .then();
+    }
+
+    public static int attemptOf(ConsumerRecord<String, String> record) {
+        return (int) longHeader(record, ATTEMPT_HEADER, 0L);
+    }
+
+    public static long dueAtOf(ConsumerRecord<String, String> record) {
+        return longHeader(record, DUE_AT_HEADER, 0L);
+    }
+
+    private static long longHeader(ConsumerRecord<String, String> record, String name, long defaultValue) {
+        Header header = record.headers().lastHeader(name);
+        if (header == null) return defaultValue;
+        try {
+            return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.payment_service.kafka.lane;
+
+/**
+ * trip_events Consumer 의 처리 lane.
+ *
+ * FRESH: 방금 끝난 운행의 결제 (지연 민감)
+ * BULK: DLT 재발행, 재시도, 장애 후 밀린 backlog 처럼 오래된 이벤트 (처리량 위주)
+ */
+public enum ConsumerLane {
+    FRESH("fresh"),
+    BULK("bulk");
+
+    private final String tag;
+
+    ConsumerLane(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.payment_service.kafka.lane;
+
+import com.example.payment_service.kafka.TripEventRetryRouter;
+import com.example.payment_service.service.FailedEventReplayService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * trip_events 레코드를 FRESH / BULK lane 으로 나눠 WeightedLaneGate 로 실행합니다. (payment.consumer.lanes.enabled)
+ *
+ * DLT 재발행 헤더나 재시도 헤더가 있거나, endedAt 이 fresh-max-age 보다 오래된 이벤트는 BULK 입니다.
+ * Consumer 는 window 개까지 레코드를 미리 받아 두고 그중에서 lane 별로 슬롯을 배정하므로,
+ * backlog 를 소화하는 동안에도 window 안에 들어온 새 결제는 BULK 뒤에 줄 서지 않습니다.
+ * 꺼져 있으면 기존처럼 받은 순서대로 permits 개씩 처리합니다.
+ */
+@Component
+@Slf4j
+public class TripEventLanes {
+
+    private final WeightedLaneGate gate;
+    private final int permits;
+    private final int window;
+    private final long freshMaxAgeMillis;
+
+    public TripEventLanes(MeterRegistry meterRegistry,
+                          @Value("${payment.consumer.lanes.enabled:false}") boolean enabled,
+                          @Value("${payment.consumer.lanes.permits:32}") int permits,
+                          @Value("${payment.consumer.lanes.window:256}") int window,
+                          @Value("${payment.consumer.lanes.fresh-max-age:30s}") Duration freshMaxAge,
+                          @Value("${payment.consumer.lanes.fresh-weight:3}") int freshWeight,
+                          @Value("${payment.consumer.lanes.bulk-weight:1}") int bulkWeight,
+                          @Value("${payment.consumer.lanes.fresh-reserved:4}") int freshReserved) {
+        this.gate = enabled ? new WeightedLaneGate(permits, freshWeight, bulkWeight, freshReserved, meterRegistry) : null;
+        this.permits = permits;
+        this.window = Math.max(window, permits);
+        this.freshMaxAgeMillis = freshMaxAge.toMillis();
+        if (enabled) {
+            log.info("🛣️ [Consumer-Lanes] 우선순위 lane 사용. 슬롯={}, window={}, fresh 기준={}, 가중치 fresh:bulk={}:{}, fresh 예약={}",
+                    permits, this.window, freshMaxAge, freshWeight, bulkWeight, freshReserved);
+        }
+    }
+
+    public static TripEventLanes disabled(MeterRegistry meterRegistry) {
+        return new TripEventLanes(meterRegistry, false, 32, 32, Duration.ofSeconds(30), 3, 1, 0);
+    }
+
+    public boolean isEnabled() {
+        return gate != null;
+    }
+
+    // Consumer flatMap 동시 구독 수 (lane 사용 시 대기 중인 레코드까지 포함한 window)
+    public int concurrency() {
+        return isEnabled() ? window : permits;
+    }
+
+    // ageMillis: 운행 종료 후 경과 시간 (endedAt 이 없으면 음수)
+    public ConsumerLane classify(ConsumerRecord<String, String> record, long ageMillis) {
+        if (isReplay(record) || TripEventRetryRouter.attemptOf(record) > 0) return ConsumerLane.BULK;
+        return ageMillis > freshMaxAgeMillis ? ConsumerLane.BULK : ConsumerLane.FRESH;
+    }
+
+    public static boolean isReplay(ConsumerRecord<String, String> record) {
+        return record.headers().lastHeader(FailedEventReplayService.REPLAY_HEADER) != null;
+    }
+
+    public <T> Mono<T> run(ConsumerLane lane, Supplier<Mono<T>> task) {
+        return isEnabled() ? gate.run(lane, task) : Mono.defer(task);
+    }
+}
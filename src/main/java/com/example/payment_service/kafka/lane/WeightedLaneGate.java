@@ -0,0 +1,172 @@
+package com.example.payment_service.kafka.lane;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * lane 별 가중치로 동시 처리 슬롯(permits)을 나눠 주는 게이트.
+ *
+ * 슬롯이 비면 대기 중인 lane 중 (사용 중 슬롯 / 가중치) 가 가장 작은 lane 에 먼저 줍니다.
+ * 한쪽 lane 만 바쁘면 전체 슬롯을 빌려 쓰고(work-conserving), 둘 다 밀리면 가중치 비율로 수렴합니다.
+ * 빌려 쓴 슬롯은 작업이 끝나야 돌아오므로, FRESH 전용으로 reserved 개는 BULK 가 빌려 가지 못하게 남겨 둡니다.
+ */
+public class WeightedLaneGate {
+
+    private final int permits;
+    private final Map<ConsumerLane, LaneState> lanes = new EnumMap<>(ConsumerLane.class);
+    private int inUse;
+
+    private static final class LaneState {
+        final ConsumerLane lane;
+        final int weight;
+        final int reserved;
+        final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        int active;
+        final Timer waitTimer;
+        final Timer latencyTimer;
+        final Counter records;
+
+        LaneState(ConsumerLane lane, int weight, int reserved, MeterRegistry meterRegistry) {
+            this.lane = lane;
+            this.weight = Math.max(1, weight);
+            this.reserved = reserved;
+            this.waitTimer = Timer.builder("payment.consumer.lane.wait")
+                                  .description("lane 슬롯을 얻기까지 대기한 시간")
+                                  .tag("lane", lane.tag())
+                                  .publishPercentiles(0.5, 0.99)
+                                  .register(meterRegistry);
+            this.latencyTimer = Timer.builder("payment.consumer.lane.latency")
+                                     .description("lane 대기 + 처리 시간")
+                                     .tag("lane", lane.tag())
+                                     .publishPercentiles(0.5, 0.99)
+                                     .register(meterRegistry);
+            this.records = Counter.builder("payment.consumer.lane.records")
+                                  .tag("lane", lane.tag())
+                                  .register(meterRegistry);
+        }
+    }
+
+    private static final class Waiter {
+        final LaneState lane;
+        final long enqueuedNanos = System.nanoTime();
+        MonoSink<Void> sink;
+        boolean granted;
+
+        Waiter(LaneState lane) {
+            this.lane = lane;
+        }
+    }
+
+    public WeightedLaneGate(int permits, int freshWeight, int bulkWeight, int freshReserved, MeterRegistry meterRegistry) {
+        this.permits = permits;
+        lanes.put(ConsumerLane.FRESH, new LaneState(ConsumerLane.FRESH, freshWeight, Math.min(freshReserved, permits), meterRegistry));
+        lanes.put(ConsumerLane.BULK, new LaneState(ConsumerLane.BULK, bulkWeight, 0, meterRegistry));
+
+        for (LaneState state : lanes.values()) {
+            Gauge.builder("payment.consumer.lane.active", this, gate -> gate.active(state.lane))
+                 .tag("lane", state.lane.tag())
+                 .register(meterRegistry);
+            Gauge.builder("payment.consumer.lane.waiting", this, gate -> gate.waiting(state.lane))
+                 .tag("lane", state.lane.tag())
+                 .register(meterRegistry);
+        }
+    }
+
+    /**
+     * lane 슬롯을 얻은 뒤 task 를 구독하고, 완료/에러/취소 시 슬롯을 돌려줍니다.
+     */
+    public <T> Mono<T> run(ConsumerLane lane, Supplier<Mono<T>> task) {
+        return Mono.defer(() -> {
+            LaneState state = lanes.get(lane);
+            state.records.increment();
+            Waiter waiter = new Waiter(state);
+            return Mono.<Void>create(sink -> enqueue(waiter, sink))
+                       .then(Mono.defer(task))
+                       .doFinally(signal -> {
+                           finish(waiter);
+                           state.latencyTimer.record(System.nanoTime() - waiter.enqueuedNanos, TimeUnit.NANOSECONDS);
+                       });
+        });
+    }
+
+    public synchronized int active(ConsumerLane lane) {
+        return lanes.get(lane).active;
+    }
+
+    public synchronized int waiting(ConsumerLane lane) {
+        return lanes.get(lane).waiters.size();
+    }
+
+    private void enqueue(Waiter waiter, MonoSink<Void> sink) {
+        synchronized (this) {
+            waiter.sink = sink;
+            waiter.lane.waiters.addLast(waiter);
+        }
+        dispatch();
+    }
+
+    private void finish(Waiter waiter) {
+        synchronized (this) {
+            if (waiter.granted) {
+                waiter.lane.active--;
+                inUse--;
+            } else {
+                // 슬롯을 얻기 전에 취소됨
+                waiter.lane.waiters.remove(waiter);
+            }
+        }
+        dispatch();
+    }
+
+    // 슬롯 배정은 lock 안에서, 구독 재개(sink.success)는 lock 밖에서
+    private void dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            while (inUse < permits) {
+                LaneState next = pick();
+                if (next == null) break;
+                Waiter waiter = next.waiters.pollFirst();
+                waiter.granted = true;
+                next.active++;
+                inUse++;
+                granted.add(waiter);
+            }
+        }
+        for (Waiter waiter : granted) {
+            waiter.lane.waitTimer.record(System.nanoTime() - waiter.enqueuedNanos, TimeUnit.NANOSECONDS);
+            waiter.sink.success();
+        }
+    }
+
+    private LaneState pick() {
+        LaneState best = null;
+        for (LaneState state : lanes.values()) {
+            if (state.waiters.isEmpty() || !canTake(state)) continue;
+            if (best == null || (long) (state.active + 1) * best.weight < (long) (best.active + 1) * state.weight) {
+                best = state;
+            }
+        }
+        return best;
+    }
+
+    // 다른 lane 의 예약분 중 아직 안 쓴 만큼은 남겨 둠
+    private boolean canTake(LaneState state) {
+        int heldForOthers = 0;
+        for (LaneState other : lanes.values()) {
+            if (other != state) heldForOthers += Math.max(0, other.reserved - other.active);
+        }
+        return permits - inUse > heldForOthers;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.payment_service.kafka.spill;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스필 저널에 쌓인 레코드를 브로커가 회복되면 원래 DLT 로 재전송합니다.
+ * 저널은 파드 로컬 파일이므로 SchedulerLock 없이 파드마다 자기 저널만 비웁니다.
+ */
+@Component
+@Slf4j
+public class DeadLetterSpillDrainer {
+
+    private final DeadLetterSpillJournal journal;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    public DeadLetterSpillDrainer(DeadLetterSpillJournal journal,
+                                  KafkaTemplate<String, Object> kafkaTemplate,
+                                  @Value("${payment.dlt-spill.drain-batch-size:500}") int batchSize,
+                                  @Value("${payment.dlt-spill.send-timeout:10s}") Duration sendTimeout) {
+        this.journal = journal;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.dlt-spill.drain-interval:5s}")
+    public void drain() {
+        if (!journal.isEnabled()) return;
+        journal.flush();
+        if (journal.depth() == 0) return;
+
+        long sent = 0;
+        while (true) {
+            DeadLetterSpillJournal.Batch batch = journal.readBatch(batchSize);
+            if (batch.entries().isEmpty()) {
+                if (batch.segmentExhausted()) {
+                    journal.acknowledge(batch);
+                    continue;
+                }
+                break;
+            }
+
+            // 배치 단위로 전부 보내고 모두 성공했을 때만 cursor 를 넘김 (일부 실패 시 다음 주기에 배치 전체 재전송)
+            CompletableFuture<?>[] sends = batch.entries().stream()
+                                                .map(entry -> kafkaTemplate.send(entry.topic(), entry.key(), entry.value()))
+                                                .toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("⏳ [Spill] DLT 재전송 실패. 브로커 회복 후 다시 시도합니다. 남은 건수: {}, Error: {}", journal.depth(), e.getMessage());
+                return;
+            }
+
+            journal.acknowledge(batch);
+            sent += batch.entries().size();
+        }
+
+        if (sent > 0) {
+            log.info("📬 [Spill] 스필 저널 DLT 재전송 완료. 전송: {}건, 남은 건수: {}", sent, journal.depth());
+        }
+    }
+}
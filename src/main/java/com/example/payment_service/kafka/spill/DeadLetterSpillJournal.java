@@ -0,0 +1,394 @@
+package com.example.payment_service.kafka.spill;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * DLT 전송마저 실패한 레코드를 보존하는 로컬 append-only 스필 저널.
+ *
+ * 고정 크기 세그먼트 파일을 mmap 해서 쓰므로 append 는 메모리 복사 + CRC 계산뿐이고 consumer 스레드가 디스크 I/O 를 기다리지 않습니다.
+ * 엔트리 형식은 [길이 int][CRC32 int][본문] 이고, 길이를 마지막에 써서 쓰다 죽은(torn) 엔트리는 길이 0 으로 남아 복구 시 무시됩니다.
+ * 세그먼트가 차면 다음 번호의 세그먼트로 넘어가고, 전부 재전송된 세그먼트는 삭제합니다.
+ * 재전송 위치(cursor)는 배치 단위로 저장하므로, 전송 직후 죽으면 그 배치는 다시 보내질 수 있습니다. (at-least-once)
+ * 남은 세그먼트가 없으면 첫 append 때 세그먼트를 만듭니다. (기동만 하는 CDS 학습 실행 등에서 빈 세그먼트가 이미지에 남지 않도록)
+ */
+@Component
+@Slf4j
+public class DeadLetterSpillJournal implements DisposableBean {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CURSOR_FILE = "cursor.dat";
+    private static final int HEADER_BYTES = 8;
+
+    // 재전송할 엔트리 묶음. acknowledge 로 cursor 를 endOffset 까지 넘김 (segmentExhausted 면 세그먼트 삭제 후 다음 세그먼트로)
+    public record Batch(List<SpillEntry> entries, long segmentId, int endOffset, boolean segmentExhausted) {}
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentSize;
+
+    private long activeSegmentId;
+    private MappedByteBuffer activeBuffer; // 첫 append 전에는 null
+    private int writePosition;
+
+    private long cursorSegmentId;
+    private int cursorOffset;
+    private long readSegmentId = -1;
+    private MappedByteBuffer readBuffer;
+
+    private long depth;
+    private final Counter appended;
+    private final Counter rejected;
+    private final Counter drained;
+
+    public DeadLetterSpillJournal(MeterRegistry meterRegistry,
+                                  @Value("${payment.dlt-spill.enabled:true}") boolean enabled,
+                                  @Value("${payment.dlt-spill.dir:./spill}") Path dir,
+                                  @Value("${payment.dlt-spill.segment-size:64MB}") DataSize segmentSize) {
+        this.enabled = enabled;
+        this.dir = dir;
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+
+        this.appended = Counter.builder("payment.dlt.spill.entries").tag("op", "appended").register(meterRegistry);
+        this.rejected = Counter.builder("payment.dlt.spill.entries").tag("op", "rejected").register(meterRegistry);
+        this.drained = Counter.builder("payment.dlt.spill.entries").tag("op", "drained").register(meterRegistry);
+        Gauge.builder("payment.dlt.spill.depth", this, DeadLetterSpillJournal::depth)
+             .description("재전송 대기 중인 스필 엔트리 수")
+             .register(meterRegistry);
+
+        if (enabled) {
+            recover();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized long depth() {
+        return depth;
+    }
+
+    // consumer 스레드에서 호출. 보존에 실패하면 false (호출 측이 로그로 대체)
+    public boolean append(String topic, String key, String value) {
+        if (!enabled) return false;
+
+        byte[] body = encode(topic, key, value);
+        if (HEADER_BYTES + body.length > segmentSize) {
+            rejected.increment();
+            log.error("❌ [Spill] 세그먼트보다 큰 레코드는 보존할 수 없습니다. Size: {} bytes", body.length);
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        MappedByteBuffer retired = null;
+        synchronized (this) {
+            try {
+                if (activeBuffer == null) {
+                    openActiveSegment();
+                } else if (writePosition + HEADER_BYTES + body.length > segmentSize) {
+                    retired = rotate();
+                }
+                activeBuffer.put(writePosition + HEADER_BYTES, body);
+                activeBuffer.putInt(writePosition + 4, (int) crc.getValue());
+                // 길이를 마지막에 기록해야 중간에 죽어도 반쯤 쓴 엔트리가 유효해 보이지 않음
+                activeBuffer.putInt(writePosition, body.length);
+                writePosition += HEADER_BYTES + body.length;
+                depth++;
+            } catch (IOException | RuntimeException e) {
+                rejected.increment();
+                log.error("❌ [Spill] 스필 저널 기록 실패.", e);
+                return false;
+            }
+        }
+        // 다 찬 세그먼트의 fsync 는 락 밖에서 (다른 consumer 스레드의 append 를 막지 않음)
+        if (retired != null) {
+            force(retired);
+        }
+        appended.increment();
+        return true;
+    }
+
+    // cursor 위치부터 최대 maxEntries 건을 읽음 (cursor 는 acknowledge 전까지 그대로)
+    public Batch readBatch(int maxEntries) {
+        long segmentId;
+        int offset;
+        int limit;
+        boolean active;
+        ByteBuffer buffer;
+
+        synchronized (this) {
+            segmentId = cursorSegmentId;
+            offset = cursorOffset;
+            active = segmentId == activeSegmentId;
+            limit = active ? writePosition : segmentSize;
+            if (active && activeBuffer == null) {
+                return new Batch(List.of(), segmentId, offset, false);
+            }
+            buffer = active ? activeBuffer.duplicate() : readBufferFor(segmentId).duplicate();
+        }
+
+        List<SpillEntry> entries = new ArrayList<>();
+        int position = offset;
+        boolean exhausted = false;
+        while (entries.size() < maxEntries) {
+            int length = validEntryLength(buffer, position, limit);
+            if (length < 0) {
+                // 닫힌 세그먼트의 끝(또는 손상 지점)에 도달하면 다음 세그먼트로 넘어감
+                exhausted = !active;
+                break;
+            }
+            entries.add(decode(buffer, position + HEADER_BYTES, length));
+            position += HEADER_BYTES + length;
+        }
+        return new Batch(entries, segmentId, position, exhausted);
+    }
+
+    public synchronized void acknowledge(Batch batch) {
+        if (batch.segmentId() != cursorSegmentId) return;
+
+        cursorOffset = batch.endOffset();
+        depth -= batch.entries().size();
+        drained.increment(batch.entries().size());
+
+        if (batch.segmentExhausted()) {
+            try {
+                Files.deleteIfExists(segmentPath(batch.segmentId()));
+            } catch (IOException e) {
+                log.warn("⚠️ [Spill] 재전송 완료된 세그먼트 삭제 실패. Segment: {}", batch.segmentId(), e);
+            }
+            readBuffer = null;
+            readSegmentId = -1;
+            cursorSegmentId = batch.segmentId() + 1;
+            cursorOffset = 0;
+        }
+        writeCursor();
+    }
+
+    // 페이지 캐시의 변경분을 디스크로 내림 (프로세스가 죽는 경우는 mmap 만으로도 보존되고, OS 장애 대비용)
+    // 버퍼 참조만 락 안에서 잡고 fsync 는 락 밖에서 해서 append 가 디스크 I/O 를 기다리지 않게 함
+    public void flush() {
+        if (!enabled) return;
+        MappedByteBuffer buffer;
+        synchronized (this) {
+            buffer = activeBuffer;
+        }
+        if (buffer != null) {
+            force(buffer);
+        }
+    }
+
+    private void force(MappedByteBuffer buffer) {
+        try {
+            buffer.force();
+        } catch (UncheckedIOException e) {
+            log.warn("⚠️ [Spill] 스필 세그먼트 fsync 실패 (프로세스 장애에는 mmap 으로 보존됨).", e);
+        }
+    }
+
+    private void recover() {
+        try {
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            List<Long> segmentIds = listSegmentIds();
+            readCursor(segmentIds);
+
+            for (Long id : segmentIds) {
+                if (id < cursorSegmentId) {
+                    Files.deleteIfExists(segmentPath(id));
+                }
+            }
+            List<Long> pending = segmentIds.stream().filter(id -> id >= cursorSegmentId).toList();
+            if (pending.isEmpty()) {
+                // 세그먼트는 첫 append 때 만듦 (openActiveSegment)
+                activeSegmentId = cursorSegmentId;
+                cursorOffset = 0;
+                writePosition = 0;
+                return;
+            }
+
+            for (Long id : pending) {
+                MappedByteBuffer buffer = map(id);
+                int position = id == cursorSegmentId ? cursorOffset : 0;
+                int length;
+                while ((length = validEntryLength(buffer, position, segmentSize)) >= 0) {
+                    position += HEADER_BYTES + length;
+                    depth++;
+                }
+                activeSegmentId = id;
+                activeBuffer = buffer;
+                writePosition = position;
+            }
+            // 마지막 세그먼트 뒤쪽의 torn write 흔적은 지워서 이후 엔트리와 섞이지 않게 함
+            zeroTail(activeBuffer, writePosition);
+
+            log.info("📼 [Spill] 스필 저널 복구 완료. 재전송 대기: {}건, 세그먼트: {}개", depth, pending.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("스필 저널 복구 실패: " + dir, e);
+        }
+    }
+
+    // 첫 append 때 한 번: 디렉터리/세그먼트를 만들고 cursor 를 세그먼트 시작으로 저장 (이전 실행의 낡은 offset 이 남지 않도록)
+    private void openActiveSegment() throws IOException {
+        Files.createDirectories(dir);
+        activeBuffer = map(activeSegmentId);
+        writePosition = 0;
+        cursorSegmentId = activeSegmentId;
+        cursorOffset = 0;
+        writeCursor();
+    }
+
+    // 새 세그먼트로 넘기고 다 찬 세그먼트 버퍼를 돌려줌 (호출 측이 락 밖에서 force)
+    private MappedByteBuffer rotate() throws IOException {
+        MappedByteBuffer retired = activeBuffer;
+        activeSegmentId++;
+        activeBuffer = map(activeSegmentId);
+        writePosition = 0;
+        log.info("📼 [Spill] 스필 세그먼트 교체. Segment: {}", activeSegmentId);
+        return retired;
+    }
+
+    private MappedByteBuffer readBufferFor(long segmentId) {
+        if (readSegmentId != segmentId) {
+            try (FileChannel channel = FileChannel.open(segmentPath(segmentId), StandardOpenOption.READ)) {
+                readBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentSize));
+                readSegmentId = segmentId;
+            } catch (IOException e) {
+                throw new UncheckedIOException("스필 세그먼트 열기 실패: " + segmentId, e);
+            }
+        }
+        return readBuffer;
+    }
+
+    private MappedByteBuffer map(long segmentId) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segmentId),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    // position 의 엔트리가 온전하면 본문 길이, 끝/torn/CRC 불일치면 -1
+    private int validEntryLength(ByteBuffer buffer, int position, int limit) {
+        if (position + HEADER_BYTES > Math.min(limit, buffer.capacity())) return -1;
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + length > Math.min(limit, buffer.capacity())) return -1;
+
+        byte[] body = new byte[length];
+        buffer.get(position + HEADER_BYTES, body);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            log.warn("⚠️ [Spill] CRC 불일치 엔트리 발견. 이후 구간은 건너뜁니다. Position: {}", position);
+            return -1;
+        }
+        return length;
+    }
+
+    private static byte[] encode(String topic, String key, String value) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key == null ? null : key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(12 + topicBytes.length + (keyBytes == null ? 0 : keyBytes.length) + valueBytes.length);
+        buffer.putInt(topicBytes.length).put(topicBytes);
+        buffer.putInt(keyBytes == null ? -1 : keyBytes.length);
+        if (keyBytes != null) buffer.put(keyBytes);
+        buffer.putInt(valueBytes.length).put(valueBytes);
+        return buffer.array();
+    }
+
+    private static SpillEntry decode(ByteBuffer source, int position, int length) {
+        byte[] body = new byte[length];
+        source.get(position, body);
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        String topic = readString(buffer, buffer.getInt());
+        int keyLength = buffer.getInt();
+        String key = keyLength < 0 ? null : readString(buffer, keyLength);
+        String value = readString(buffer, buffer.getInt());
+        return new SpillEntry(topic, key, value);
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void zeroTail(MappedByteBuffer buffer, int from) {
+        if (from + 4 > buffer.capacity() || buffer.getInt(from) == 0) return;
+        byte[] zeros = new byte[8192];
+        for (int position = from; position < buffer.capacity(); position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, buffer.capacity() - position));
+        }
+    }
+
+    private List<Long> listSegmentIds() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                        .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                        .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                        .sorted()
+                        .toList();
+        }
+    }
+
+    private void readCursor(List<Long> segmentIds) throws IOException {
+        Path cursorFile = dir.resolve(CURSOR_FILE);
+        if (Files.exists(cursorFile)) {
+            ByteBuffer cursor = ByteBuffer.wrap(Files.readAllBytes(cursorFile));
+            cursorSegmentId = cursor.getLong();
+            cursorOffset = cursor.getInt();
+        } else {
+            cursorSegmentId = segmentIds.isEmpty() ? 0 : segmentIds.get(0);
+            cursorOffset = 0;
+        }
+        // cursor 가 가리키던 세그먼트가 이미 지워졌다면 남은 가장 오래된 세그먼트부터
+        if (!segmentIds.isEmpty() && !segmentIds.contains(cursorSegmentId) && segmentIds.get(0) > cursorSegmentId) {
+            cursorSegmentId = segmentIds.get(0);
+            cursorOffset = 0;
+        }
+    }
+
+    private void writeCursor() {
+        Path temp = dir.resolve(CURSOR_FILE + ".tmp");
+        try {
+            Files.write(temp, ByteBuffer.allocate(12).putLong(cursorSegmentId).putInt(cursorOffset).array());
+            Files.move(temp, dir.resolve(CURSOR_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("⚠️ [Spill] cursor 저장 실패 (재시작 시 일부 재전송될 수 있음).", e);
+        }
+    }
+
+    private Path segmentPath(long segmentId) {
+        return dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.payment_service.kafka.spill;
+
+// 스필 저널에 보존된 DLT 전송 실패 레코드 (대상 토픽, 원본 key/value)
+public record SpillEntry(String topic, String key, String value) {}
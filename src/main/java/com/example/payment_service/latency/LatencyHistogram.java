@@ -0,0 +1,121 @@
+package com.example.payment_service.latency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 기록 시 객체를 만들지 않는 HDR 스타일(log-linear) 지연 히스토그램. 단위는 마이크로초.
+ *
+ * 2 의 거듭제곱 구간마다 32 개 하위 버킷으로 나눠 상대 오차를 약 3% 이내로 유지하고,
+ * window 길이의 시간 슬롯 windows 개를 링으로 돌려 최근 (window x windows) 구간의 분포만 조회합니다.
+ * 슬롯이 바뀌는 순간 동시에 기록된 몇 건은 초기화에 묻힐 수 있습니다. (모니터링 용도라 허용)
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 40; // 2^41 µs ≈ 25일
+    static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final long windowMillis;
+    private final Slot[] slots;
+    private final LongSupplier clockMillis;
+
+    private static final class Slot {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        final AtomicLong max = new AtomicLong();
+        volatile long epoch = -1;
+    }
+
+    public LatencyHistogram(Duration window, int windows) {
+        this(window, windows, System::currentTimeMillis);
+    }
+
+    LatencyHistogram(Duration window, int windows, LongSupplier clockMillis) {
+        this.windowMillis = window.toMillis();
+        this.clockMillis = clockMillis;
+        this.slots = new Slot[windows];
+        for (int i = 0; i < windows; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        Slot slot = currentSlot();
+        slot.counts.incrementAndGet(indexOf(value));
+        slot.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 최근 windows 개 슬롯을 합친 분포. (조회 쪽은 배열 하나를 새로 만듦)
+     */
+    public Snapshot snapshot() {
+        long nowEpoch = clockMillis.getAsLong() / windowMillis;
+        long[] merged = new long[BUCKETS];
+        long count = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch;
+            if (epoch < 0 || nowEpoch - epoch >= slots.length) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = slot.counts.get(i);
+                merged[i] += c;
+                count += c;
+            }
+            max = Math.max(max, slot.max.get());
+        }
+        return new Snapshot(merged, count, max);
+    }
+
+    private Slot currentSlot() {
+        long epoch = clockMillis.getAsLong() / windowMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        if (slot.epoch != epoch) {
+            synchronized (slot) {
+                if (slot.epoch != epoch) {
+                    for (int i = 0; i < BUCKETS; i++) {
+                        slot.counts.set(i, 0);
+                    }
+                    slot.max.set(0);
+                    slot.epoch = epoch;
+                }
+            }
+        }
+        return slot;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    // 버킷에 들어가는 가장 큰 값 (percentile 은 보수적으로 상한값으로 보고)
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public record Snapshot(long[] counts, long count, long maxMicros) {
+
+        public long percentileMicros(double percentile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(rank, 1)) {
+                    return Math.min(upperBoundOf(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.payment_service.latency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/paymentlatency : 최근 구간(window x windows)의 구간별 지연 percentile (ms).
+ */
+@Component
+@Endpoint(id = "paymentlatency")
+@RequiredArgsConstructor
+public class PaymentLatencyEndpoint {
+
+    private final PaymentLatencyTracker latencyTracker;
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (PaymentLatencyTracker.Stage stage : PaymentLatencyTracker.Stage.values()) {
+            LatencyHistogram.Snapshot snapshot = latencyTracker.snapshot(stage);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", snapshot.count());
+            summary.put("p50Ms", snapshot.percentileMicros(50) / 1000.0);
+            summary.put("p90Ms", snapshot.percentileMicros(90) / 1000.0);
+            summary.put("p99Ms", snapshot.percentileMicros(99) / 1000.0);
+            summary.put("p999Ms", snapshot.percentileMicros(99.9) / 1000.0);
+            summary.put("maxMs", snapshot.maxMicros() / 1000.0);
+            stages.put(stage.tag(), summary);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("window", latencyTracker.recentWindow().toString());
+        body.put("stages", stages);
+        return body;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.payment_service.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 운행 종료부터 결제 이벤트 발행까지의 구간별 지연(신선도)을 기록합니다.
+ *
+ * - event_to_consume: TripCompletedEvent.endedAt → Consumer 가 레코드를 꺼낸 시각
+ * - consume_to_completed: 레코드 처리 시작 → 결제 COMPLETED 커밋
+ * - completed_to_published: outbox 행 생성(결제 종결과 같은 트랜잭션) → Kafka 발행 성공
+ *
+ * 구간마다 SLO 버킷을 가진 Timer(Prometheus 용)와 최근 구간 percentile 조회용 LatencyHistogram 을 함께 둡니다.
+ */
+@Component
+public class PaymentLatencyTracker {
+
+    public enum Stage {
+        EVENT_TO_CONSUME("event_to_consume"),
+        CONSUME_TO_COMPLETED("consume_to_completed"),
+        COMPLETED_TO_PUBLISHED("completed_to_published");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    private final Duration window;
+    private final int windows;
+    private final ZoneId eventZone;
+
+    public PaymentLatencyTracker(MeterRegistry meterRegistry,
+                                 @Value("${payment.latency.slo:250ms,500ms,1s,2s,5s,10s,30s,60s}") List<Duration> slo,
+                                 @Value("${payment.latency.window:10s}") Duration window,
+                                 @Value("${payment.latency.windows:6}") int windows,
+                                 @Value("${payment.latency.event-zone:}") String eventZone) {
+        this.window = window;
+        this.windows = windows;
+        this.eventZone = eventZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(eventZone);
+        Duration[] buckets = slo.toArray(Duration[]::new);
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("payment.latency")
+                                   .description("운행 종료 → 결제 이벤트 발행 구간별 지연")
+                                   .tag("stage", stage.tag())
+                                   .serviceLevelObjectives(buckets)
+                                   .register(meterRegistry));
+            histograms.put(stage, new LatencyHistogram(window, windows));
+        }
+    }
+
+    // 테스트 / 수동 구성용 기본 설정 (SLO 1s, 10s x 6 구간, 서버 기본 zone)
+    public static PaymentLatencyTracker withDefaults(MeterRegistry meterRegistry) {
+        return new PaymentLatencyTracker(meterRegistry, List.of(Duration.ofSeconds(1)), Duration.ofSeconds(10), 6, "");
+    }
+
+    public void recordNanos(Stage stage, long nanos) {
+        long value = Math.max(nanos, 0);
+        timers.get(stage).record(value, TimeUnit.NANOSECONDS);
+        histograms.get(stage).recordMicros(value / 1_000);
+    }
+
+    // 이벤트 시각은 생산자 기준 로컬 시각(LocalDateTime)이라 event-zone (미설정 시 서버 기본 zone) 으로 해석. 시계 오차로 음수면 0 으로 기록
+    public void recordSince(Stage stage, LocalDateTime eventTime) {
+        if (eventTime == null) return;
+        recordNanos(stage, TimeUnit.MILLISECONDS.toNanos(ageMillis(eventTime)));
+    }
+
+    public long ageMillis(LocalDateTime eventTime) {
+        return System.currentTimeMillis() - eventTime.atZone(eventZone).toInstant().toEpochMilli();
+    }
+
+    public LatencyHistogram.Snapshot snapshot(Stage stage) {
+        return histograms.get(stage).snapshot();
+    }
+
+    public Duration recentWindow() {
+        return window.multipliedBy(windows);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.payment_service.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * logback.xml 의 비동기 appender 큐 깊이/버린 건수와 샘플링으로 걸러진 건수를 Micrometer 로 노출합니다.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof MeteredAsyncAppender async) {
+                Gauge.builder("payment.log.async.queue.depth", async, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                     .tag("appender", async.getName())
+                     .register(registry);
+                FunctionCounter.builder("payment.log.async.dropped", async, MeteredAsyncAppender::getDroppedCount)
+                               .description("큐가 임계치를 넘어 버려진 DEBUG/INFO 로그 수")
+                               .tag("appender", async.getName())
+                               .register(registry);
+            }
+        }
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof SuccessLogSamplingFilter sampling) {
+                FunctionCounter.builder("payment.log.sampled.out", sampling, SuccessLogSamplingFilter::getSampledOutCount)
+                               .description("반복 성공 로그 샘플링으로 남기지 않은 로그 수")
+                               .register(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.payment_service.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 버린 이벤트 수를 세는 AsyncAppender (logback.xml 에서 CONSOLE / FILE 을 감쌈).
+ *
+ * 큐 여유가 discardingThreshold 아래로 내려가면 DEBUG/INFO 는 버리고, WARN/ERROR 는 neverBlock=false 로 두어 절대 버리지 않습니다.
+ * 기본 AsyncAppender 는 버린 이벤트를 세지 않으므로 같은 기준을 먼저 적용해 세고 버립니다. (LoggingMetrics 로 노출)
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isDiscardable(event) && getRemainingCapacity() < getDiscardingThreshold()) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
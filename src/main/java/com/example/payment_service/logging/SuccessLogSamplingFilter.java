@@ -0,0 +1,88 @@
+package com.example.payment_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 결제 hot path 의 반복 성공 로그(INFO 이하) 샘플링.
+ *
+ * 대상 logger 의 같은 메시지 템플릿(key)마다 1초에 burst 건까지는 모두 남기고, 그 이상은 sampleRate 건 중 1건만 남깁니다.
+ * 드물게 찍히는 로그(환불 성공 등)는 burst 안에 들어가므로 그대로 남고, WARN/ERROR 와 예외가 붙은 로그는 샘플링하지 않습니다.
+ */
+public class SuccessLogSamplingFilter extends TurboFilter {
+
+    private static final int MAX_KEYS = 1000;
+
+    private Set<String> loggerNames = Set.of();
+    private int burst = 20;
+    private int sampleRate = 10;
+
+    private final Map<String, KeyWindow> windows = new ConcurrentHashMap<>();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private static final class KeyWindow {
+        volatile long second;
+        final AtomicLong count = new AtomicLong();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || t != null || level.isGreaterOrEqual(Level.WARN) || sampleRate <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!loggerNames.contains(logger.getName()) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        KeyWindow window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= MAX_KEYS) return FilterReply.NEUTRAL;
+            window = windows.computeIfAbsent(format, key -> new KeyWindow());
+        }
+
+        long nowSecond = System.currentTimeMillis() / 1000;
+        if (window.second != nowSecond) {
+            // 초가 바뀌면 새 window (동시에 바뀌는 경우 몇 건 더 남는 정도의 오차는 허용)
+            window.second = nowSecond;
+            window.count.set(0);
+        }
+
+        long n = window.count.incrementAndGet();
+        if (n <= burst || (n - burst) % sampleRate == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    // logback.xml: <loggers>a.b.C, a.b.D</loggers>
+    public void setLoggers(String loggers) {
+        this.loggerNames = Arrays.stream(loggers.split(","))
+                                 .map(String::trim)
+                                 .filter(name -> !name.isEmpty())
+                                 .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.payment_service.replica;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 경로 힌트. 힌트가 없으면 readOnly 트랜잭션은 복제본, 나머지는 primary 로 갑니다.
+ * 쓰기 트랜잭션 안에서는 어떤 힌트든 primary 를 씁니다.
+ */
+public final class ReadRoute {
+
+    enum Preference { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Preference> CURRENT = new ThreadLocal<>();
+
+    private ReadRoute() {
+    }
+
+    // 지연이 허용되는 대량 스캔용
+    public static <T> T onReplica(Supplier<T> work) {
+        return with(Preference.REPLICA, work);
+    }
+
+    // 방금 쓴 데이터를 읽어야 하는 경우 (복제 지연 무시)
+    public static <T> T onPrimary(Supplier<T> work) {
+        return with(Preference.PRIMARY, work);
+    }
+
+    // 복제본에서 먼저 읽고, 결과가 accept 를 만족하지 못하면(아직 복제 안 된 신규 행 등) primary 에서 다시 읽음
+    public static <T> T replicaFirst(Supplier<T> work, Predicate<T> accept) {
+        T result = onReplica(work);
+        return accept.test(result) ? result : onPrimary(work);
+    }
+
+    static boolean wantsReplica() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        Preference preference = CURRENT.get();
+        if (preference != null) {
+            return preference == Preference.REPLICA;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static <T> T with(Preference preference, Supplier<T> work) {
+        Preference previous = CURRENT.get();
+        CURRENT.set(preference);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
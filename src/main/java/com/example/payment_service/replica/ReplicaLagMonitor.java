@@ -0,0 +1,91 @@
+package com.example.payment_service.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * shard 별 읽기 복제본의 복제 지연을 주기적으로 확인합니다.
+ *
+ * lag-query 결과의 lag-column(초) 이 max-lag 이하일 때만 fresh 로 보고, 값이 없거나(복제 중단) 조회에 실패하면
+ * 다음 확인 때까지 해당 shard 의 읽기를 primary 로 돌립니다. 기동 직후 첫 확인 전에도 primary 입니다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long UNKNOWN = -1;
+
+    private final List<DataSource> replicas;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicLongArray lagMillis;
+
+    public ReplicaLagMonitor(List<DataSource> replicas, Duration maxLag, String lagQuery, String lagColumn,
+                             MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.lagMillis = new AtomicLongArray(replicas.size());
+
+        for (int shard = 0; shard < replicas.size(); shard++) {
+            int index = shard;
+            lagMillis.set(shard, UNKNOWN);
+            Gauge.builder("payment.db.replica.lag", lagMillis,
+                         values -> values.get(index) == UNKNOWN ? Double.NaN : values.get(index) / 1000.0)
+                 .description("읽기 복제본 복제 지연 (확인 불가면 NaN)")
+                 .tag("shard", String.valueOf(shard))
+                 .baseUnit("seconds")
+                 .register(meterRegistry);
+        }
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    public DataSource replica(int shard) {
+        return replicas.get(shard);
+    }
+
+    public boolean isFresh(int shard) {
+        long lag = lagMillis.get(shard);
+        return lag != UNKNOWN && lag <= maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.replica.lag-check-interval:5s}")
+    public void refresh() {
+        for (int shard = 0; shard < replicas.size(); shard++) {
+            long lag = measure(shard);
+            long previous = lagMillis.getAndSet(shard, lag);
+            boolean wasFresh = previous != UNKNOWN && previous <= maxLagMillis;
+            if (wasFresh != isFresh(shard)) {
+                log.warn("🔁 [Replica] shard {} 읽기 경로 전환: {} (lag={}ms, 기준={}ms)",
+                        shard, isFresh(shard) ? "replica" : "primary", lag, maxLagMillis);
+            }
+        }
+    }
+
+    private long measure(int shard) {
+        try (Connection connection = replicas.get(shard).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) return UNKNOWN;
+            long seconds = rs.getLong(lagColumn);
+            return rs.wasNull() ? UNKNOWN : seconds * 1000;
+        } catch (Exception e) {
+            log.warn("⚠️ [Replica] shard {} 복제 지연 확인 실패. primary 로 읽습니다. Error: {}", shard, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+}
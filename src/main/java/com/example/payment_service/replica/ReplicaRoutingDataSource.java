@@ -0,0 +1,74 @@
+package com.example.payment_service.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * shard 하나의 primary / 읽기 복제본 라우팅.
+ *
+ * 커넥션을 실제로 얻는 시점(LazyConnectionDataSourceProxy 뒤라서 첫 SQL 실행 시점)에 ReadRoute 와 트랜잭션 readOnly 여부를 보고
+ * 복제본을 고르되, ReplicaLagMonitor 가 복제 지연이 기준을 넘었다고(또는 확인 불가) 판단하면 primary 로 보냅니다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final int shard;
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter lagFallbacks;
+
+    public ReplicaRoutingDataSource(int shard, DataSource primary, DataSource replica,
+                                    ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.shard = shard;
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.primaryRoutes = route(meterRegistry, "primary");
+        this.replicaRoutes = route(meterRegistry, "replica");
+        this.lagFallbacks = route(meterRegistry, "replica_lag_fallback");
+
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!ReadRoute.wantsReplica()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        if (!lagMonitor.isFresh(shard)) {
+            lagFallbacks.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return REPLICA;
+    }
+
+    private Counter route(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("payment.db.route")
+                      .description("커넥션을 얻은 경로 (primary / replica / 복제 지연으로 primary 대체)")
+                      .tag("shard", String.valueOf(shard))
+                      .tag("route", route)
+                      .register(meterRegistry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) closeable.close();
+        if (replica instanceof Closeable closeable) closeable.close();
+    }
+}
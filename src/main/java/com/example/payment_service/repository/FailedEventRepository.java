@@ -1,5 +1,6 @@
 package com.example.payment_service.repository;
 
+import com.example.payment_service.dto.FailedEventResponse;
 import com.example.payment_service.entity.FailedEvent;
 import com.example.payment_service.entity.FailedEventStatus;
 import org.springframework.data.domain.Pageable;
@@ -9,14 +10,75 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface FailedEventRepository extends JpaRepository<FailedEvent, Long> {
 
-    Slice<FailedEvent> findAllByTopicAndStatus(String topic, FailedEventStatus status, Pageable pageable);
+    // 관리자 조회 공통 조건: id 구간 (afterId, untilId) keyset + 선택 필터. id 순서로 읽다가 limit 에서 멈춤
+    // topic/status 가 주어지면 (topic, status, id) / (status, id) 인덱스, 아니면 PK 를 따라 읽음
+    // 기간 필터는 호출 측이 findIdsCreatedAtOrAfter 로 경계 id 를 구해 구간으로 좁혀 주므로 오래된 기간도 그 구간만 읽음
+    String SEARCH_CONDITION = "WHERE f.id > :afterId AND f.id < :untilId " +
+            "AND (:topic IS NULL OR f.topic = :topic) " +
+            "AND (:status IS NULL OR f.status = :status) " +
+            "AND (:from IS NULL OR f.createdAt >= :from) " +
+            "AND (:to IS NULL OR f.createdAt < :to) " +
+            "AND (:errorPattern IS NULL OR f.errorMessage LIKE :errorPattern ESCAPE '!') " +
+            "ORDER BY f.id";
+
+    // 재발행용 keyset 페이지 (id > afterId). 처리한 행을 상태로 걸러내지 않으므로 복제본이 조금 늦어도 같은 행을 다시 읽지 않음
+    Slice<FailedEvent> findByTopicAndStatusAndIdGreaterThan(String topic, FailedEventStatus status, Long afterId, Pageable pageable);
+
+    // created_at 이 at 이상인 첫 행의 id (idx_failed_event_created_at 한 번 탐색, pageable 은 1건)
+    @Query("SELECT f.id FROM FailedEvent f WHERE f.createdAt >= :at ORDER BY f.createdAt, f.id")
+    List<Long> findIdsCreatedAtOrAfter(@Param("at") LocalDateTime at, Pageable pageable);
+
+    // 목록용: payload(TEXT) 는 읽지 않음
+    @Query("SELECT new com.example.payment_service.dto.FailedEventResponse(f.id, f.topic, f.kafkaKey, f.status, f.occurrenceCount, f.errorMessage, f.createdAt) " +
+            "FROM FailedEvent f " + SEARCH_CONDITION)
+    List<FailedEventResponse> searchSummaries(@Param("topic") String topic,
+                                              @Param("status") FailedEventStatus status,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("errorPattern") String errorPattern,
+                                              @Param("afterId") Long afterId,
+                                              @Param("untilId") Long untilId,
+                                              Pageable pageable);
+
+    // 스트리밍(payload 포함)용
+    @Query("SELECT f FROM FailedEvent f " + SEARCH_CONDITION)
+    List<FailedEvent> search(@Param("topic") String topic,
+                             @Param("status") FailedEventStatus status,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             @Param("errorPattern") String errorPattern,
+                             @Param("afterId") Long afterId,
+                             @Param("untilId") Long untilId,
+                             Pageable pageable);
+
+    // fingerprint 가 같은 행이 있으면 도착 횟수만 올리고 최신 에러로 갱신. 재발행(RESOLVED) 후 다시 실패해 돌아온 건은 PENDING 으로 되돌림
+    // 반환값: 1 = 새 행, 2 = 기존 행 갱신 (MySQL affected rows)
+    String UPSERT = """
+            INSERT INTO failed_event (topic, kafka_key, payload, error_message, status, fingerprint, occurrence_count, created_at, updated_at)
+            VALUES (:topic, :kafkaKey, :payload, :errorMessage, 'PENDING', :fingerprint, 1, :now, :now)
+            ON DUPLICATE KEY UPDATE
+                occurrence_count = occurrence_count + 1,
+                error_message = VALUES(error_message),
+                status = CASE WHEN status = 'RESOLVED' THEN 'PENDING' ELSE status END,
+                updated_at = VALUES(updated_at)
+            """;
+
+    @Modifying
+    @Query(value = UPSERT, nativeQuery = true)
+    int upsert(@Param("topic") String topic,
+               @Param("kafkaKey") String kafkaKey,
+               @Param("payload") String payload,
+               @Param("errorMessage") String errorMessage,
+               @Param("fingerprint") String fingerprint,
+               @Param("now") LocalDateTime now);
 
     @Modifying(clearAutomatically = true)
     @Query("UPDATE FailedEvent f SET f.status = :status WHERE f.id IN :ids")
     void updateStatus(@Param("ids") List<Long> ids, @Param("status") FailedEventStatus status);
 
-}
\ No newline at end of file
+}
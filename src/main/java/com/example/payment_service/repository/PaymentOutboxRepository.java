@@ -15,11 +15,18 @@ public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Lo
     @Query(value = """
             SELECT * FROM payment_outbox 
             WHERE status = 'READY' 
+              AND created_at < :cutoff 
             ORDER BY created_at ASC 
             LIMIT :limit 
             FOR UPDATE SKIP LOCKED
             """, nativeQuery = true)
-    List<PaymentOutbox> findEventsForPublishing(@Param("limit") int limit);
+    List<PaymentOutbox> findEventsForPublishing(@Param("limit") int limit, @Param("cutoff") LocalDateTime cutoff);
+
+    // 직접 발행 ack 후: relay 가 아직 가져가지 않은(READY) 행만 DONE 으로
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PaymentOutbox p SET p.status = com.example.payment_service.entity.OutboxStatus.DONE "
+            + "WHERE p.id = :id AND p.status = com.example.payment_service.entity.OutboxStatus.READY")
+    int markDirectPublished(@Param("id") Long id);
 
     @Modifying(clearAutomatically = true)
     @Query("UPDATE PaymentOutbox p SET p.status = :status WHERE p.id IN :ids")
@@ -35,4 +42,10 @@ public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Lo
     @Query("DELETE FROM PaymentOutbox p WHERE p.status = :status AND p.createdAt < :cutoffTime")
     int deleteOldEvents(@Param("status") OutboxStatus status,
                         @Param("cutoffTime") LocalDateTime cutoffTime);
-}
\ No newline at end of file
+
+    // 백로그 지표용 (idx_outbox_status_created 인덱스만으로 처리)
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT MIN(p.createdAt) FROM PaymentOutbox p WHERE p.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxStatus status);
+}
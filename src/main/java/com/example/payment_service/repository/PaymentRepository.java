@@ -1,7 +1,10 @@
 package com.example.payment_service.repository;
 
+import com.example.payment_service.dto.PaymentExportRow;
+import com.example.payment_service.dto.PaymentReconciliationRow;
 import com.example.payment_service.entity.Payment;
 import com.example.payment_service.entity.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -16,10 +19,52 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     boolean existsByTripId(String tripId);
 
+    // 상태 전이 CAS: 기대 상태/버전 그대로일 때만 1건 갱신 (SELECT 없이 UPDATE 1회). 0 이면 다른 경로가 먼저 전이시킨 것
+    // 벌크 UPDATE 는 auditing 을 타지 않으므로 updatedAt 을 직접 갱신 (좀비 판정 기준)
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Payment p SET p.status = 'PROCESSING' WHERE p.id = :id AND p.status = 'REQUESTED'")
-    int tryStartProcessing(@Param("id") Long id);
+    @Query("UPDATE Payment p SET p.status = :next, p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.status = :expected AND p.version = :version")
+    int transition(@Param("id") Long id,
+                   @Param("expected") PaymentStatus expected,
+                   @Param("version") Long version,
+                   @Param("next") PaymentStatus next,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :next, p.pgTransactionId = :pgTransactionId, p.completedAt = :completedAt, " +
+            "p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.status = :expected AND p.version = :version")
+    int transitionWithPgTransaction(@Param("id") Long id,
+                                    @Param("expected") PaymentStatus expected,
+                                    @Param("version") Long version,
+                                    @Param("next") PaymentStatus next,
+                                    @Param("pgTransactionId") String pgTransactionId,
+                                    @Param("completedAt") LocalDateTime completedAt,
+                                    @Param("now") LocalDateTime now);
 
     List<Payment> findByStatusAndUpdatedAtBefore(PaymentStatus status, LocalDateTime cutoffTime);
 
-}
\ No newline at end of file
+    // 대사용 keyset 페이지: 추출과 같은 (requestedAt, id) 복합 커서라 idx_payments_requested_at 을 범위 시작부터 순서대로 타고
+    // OFFSET/filesort 없이 다음 페이지를 읽음 (첫 페이지는 afterRequestedAt = from, afterId = 0)
+    @Query("SELECT new com.example.payment_service.dto.PaymentReconciliationRow(p.id, p.tripId, p.pgTransactionId, p.status, p.amount, p.requestedAt) " +
+            "FROM Payment p " +
+            "WHERE (p.requestedAt > :afterRequestedAt OR (p.requestedAt = :afterRequestedAt AND p.id > :afterId)) " +
+            "AND p.requestedAt < :to AND p.pgTransactionId IS NOT NULL " +
+            "ORDER BY p.requestedAt, p.id")
+    List<PaymentReconciliationRow> findReconciliationPage(@Param("afterRequestedAt") LocalDateTime afterRequestedAt,
+                                                          @Param("afterId") Long afterId,
+                                                          @Param("to") LocalDateTime to,
+                                                          Pageable pageable);
+
+    // 추출용 keyset 페이지: (requestedAt, id) 복합 커서로 idx_payments_requested_at 을 그대로 타고 앞으로만 읽음
+    @Query("SELECT new com.example.payment_service.dto.PaymentExportRow(p.id, p.paymentId, p.tripId, p.userId, p.amount, p.status, p.pgTransactionId, p.requestedAt, p.completedAt) " +
+            "FROM Payment p " +
+            "WHERE (p.requestedAt > :afterRequestedAt OR (p.requestedAt = :afterRequestedAt AND p.id > :afterId)) " +
+            "AND p.requestedAt < :to " +
+            "ORDER BY p.requestedAt, p.id")
+    List<PaymentExportRow> findExportPage(@Param("afterRequestedAt") LocalDateTime afterRequestedAt,
+                                          @Param("afterId") Long afterId,
+                                          @Param("to") LocalDateTime to,
+                                          Pageable pageable);
+
+}
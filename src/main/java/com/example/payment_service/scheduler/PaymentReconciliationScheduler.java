@@ -0,0 +1,51 @@
+package com.example.payment_service.scheduler;
+
+import com.example.payment_service.service.reconciliation.PaymentReconciliationService;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@Component
+@ConditionalOnProperty(name = "payment.reconciliation.enabled", havingValue = "true")
+@Slf4j
+public class PaymentReconciliationScheduler {
+
+    private final PaymentReconciliationService reconciliationService;
+    private final Path settlementDir;
+    private final String fileNamePattern;
+
+    public PaymentReconciliationScheduler(PaymentReconciliationService reconciliationService,
+                                          @Value("${payment.reconciliation.settlement-dir:./settlement}") Path settlementDir,
+                                          @Value("${payment.reconciliation.file-name-pattern:'settlement-'yyyyMMdd'.csv'}") String fileNamePattern) {
+        this.reconciliationService = reconciliationService;
+        this.settlementDir = settlementDir;
+        this.fileNamePattern = fileNamePattern;
+    }
+
+    // 매일 새벽, PG 정산 파일이 떨어진 뒤 전날 분을 대사
+    @Scheduled(cron = "${payment.reconciliation.cron:0 0 4 * * *}")
+    @SchedulerLock(name = "Payment_reconciliation", lockAtLeastFor = "PT1M", lockAtMostFor = "PT2H")
+    public void reconcileYesterday() {
+        LocalDate settlementDate = LocalDate.now().minusDays(1);
+        Path settlementFile = settlementDir.resolve(settlementDate.format(DateTimeFormatter.ofPattern(fileNamePattern)));
+
+        if (!Files.exists(settlementFile)) {
+            log.warn("⚠️ [Reconciliation] 정산 파일이 없습니다. 대사를 건너뜁니다. File: {}", settlementFile);
+            return;
+        }
+
+        try {
+            reconciliationService.reconcile(settlementDate, settlementFile);
+        } catch (Exception e) {
+            log.error("💀 [Reconciliation] 대사 실패. Date: {}", settlementDate, e);
+        }
+    }
+}
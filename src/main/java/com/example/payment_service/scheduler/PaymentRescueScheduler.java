@@ -1,11 +1,13 @@
 package com.example.payment_service.scheduler;
 
-import com.example.payment_service.client.VirtualPGClient;
+import com.example.payment_service.client.PgClient;
 import com.example.payment_service.entity.Payment;
 import com.example.payment_service.entity.PaymentStatus;
 import com.example.payment_service.kafka.dto.PaymentFailedEvent;
 import com.example.payment_service.repository.PaymentRepository;
 import com.example.payment_service.service.PaymentTransactionService;
+import com.example.payment_service.shard.ShardRouter;
+import com.example.payment_service.replica.ReadRoute;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -21,8 +24,9 @@ import java.util.List;
 public class PaymentRescueScheduler {
 
     private final PaymentRepository paymentRepository;
-    private final VirtualPGClient virtualPGClient;
+    private final PgClient pgClient;
     private final PaymentTransactionService paymentTransactionService;
+    private final ShardRouter shardRouter;
 
     // 1분마다 실행
     @Scheduled(fixedDelay = 60000)
@@ -31,15 +35,26 @@ public class PaymentRescueScheduler {
         // 기준: 10분 넘게 PROCESSING 상태인 건 (서버 다운 의심)
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(10);
 
-        List<Payment> zombies = paymentRepository.findByStatusAndUpdatedAtBefore(PaymentStatus.PROCESSING, cutoff);
-
-        if (zombies.isEmpty()) return;
-
-        log.warn("🧟‍♂️ 발견된 좀비 결제(처리 중단) 건수: {}건. 구조 작업을 시작합니다.", zombies.size());
-
-        for (Payment zombie : zombies) {
-            rescueSingleZombie(zombie);
-        }
+        // shard 별로 병렬 조회/구조 (구조 중 상태 전이도 같은 shard 스레드에서 실행되어 그대로 라우팅됨)
+        // 후보 스캔은 복제본에서 하고, PG 조치 전에 primary 에서 건별로 다시 확인
+        shardRouter.fanOut(shard -> {
+            List<Payment> zombies = ReadRoute.onReplica(() ->
+                    paymentRepository.findByStatusAndUpdatedAtBefore(PaymentStatus.PROCESSING, cutoff));
+            if (zombies.isEmpty()) return null;
+
+            log.warn("🧟‍♂️ 발견된 좀비 결제(처리 중단) 건수: {}건 (shard {}). 구조 작업을 시작합니다.", zombies.size(), shard);
+
+            for (Payment candidate : zombies) {
+                Optional<Payment> zombie = ReadRoute.onPrimary(() -> paymentRepository.findById(candidate.getId()))
+                                                    .filter(p -> p.getStatus() == PaymentStatus.PROCESSING);
+                if (zombie.isEmpty()) {
+                    log.info("👉 복제본 스캔 이후 이미 종결된 결제. 구조 생략. PaymentID: {}", candidate.getId());
+                    continue;
+                }
+                rescueSingleZombie(zombie.get());
+            }
+            return null;
+        });
     }
 
     private void rescueSingleZombie(Payment p) {
@@ -57,7 +72,7 @@ public class PaymentRescueScheduler {
             // Case 2: PG 승인 번호가 있음 (PG 성공 후 DB 저장 전 사망)
             else {
                 // PG사 조회 (확실하게 하려면 조회 후 상태보고 결정)
-                String status = virtualPGClient.getStatus(pgTxId);
+                String status = pgClient.getStatus(pgTxId);
                 if ("PAID".equals(status)) {
                     log.info("👉 PG사 확인 결과: 결제 완료 상태임. 환불 필요.");
                     needRefund = true;
@@ -69,21 +84,26 @@ public class PaymentRescueScheduler {
 
             // 환불이 필요하면 실행 (망취소)
             if (needRefund && pgTxId != null) {
-                virtualPGClient.cancelPayment(pgTxId);
+                pgClient.cancelPayment(pgTxId);
                 log.info("✅ 강제 환불 성공.");
             }
 
             // DB 상태 (FAILED) + 이벤트 발행
             // 이 메서드는 REQUIRES_NEW 트랜잭션으로 돌므로 안전함
             PaymentFailedEvent event = new PaymentFailedEvent(p.getTripId(), "서버 장애로 인한 처리 누락 - 자동 환불 처리됨");
-            paymentTransactionService.failPaymentWithOutbox(p.getId(), "좀비 데이터 자동 복구", event);
-
-            log.info("✅ 좀비 데이터 복구 완료 (FAILED 처리).");
+            // 조회 시점의 (PROCESSING, version) 조건부 전이라 그 사이 메인 파이프라인이 끝낸 건은 덮어쓰지 않음
+            if (paymentTransactionService.failPaymentWithOutbox(p, "좀비 데이터 자동 복구", event)) {
+                log.info("✅ 좀비 데이터 복구 완료 (FAILED 처리).");
+            } else if (needRefund) {
+                log.error("💀 환불 후 상태 전이 거절: 다른 경로에서 먼저 종결됨. 수기 확인 필요. PaymentID: {}, PgTxId: {}", p.getId(), pgTxId);
+            } else {
+                log.info("👉 구조 중 다른 경로에서 먼저 종결됨. 상태 변경 생략. PaymentID: {}", p.getId());
+            }
 
         } catch (Exception e) {
             log.error("💀 좀비 구조 실패 (Double Fault). 수기 확인 필요. ID: {}", p.getId(), e);
             // 최후의 수단: UNKNOWN 마킹 (운영자 개입 요청)
-            paymentTransactionService.markAsUnknown(p.getId(), p.getPgTransactionId());
+            paymentTransactionService.markAsUnknown(p, p.getPgTransactionId());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.dto.FailedEventFilter;
+import com.example.payment_service.dto.FailedEventPageResponse;
+import com.example.payment_service.dto.FailedEventResponse;
+import com.example.payment_service.replica.ReadRoute;
+import com.example.payment_service.repository.FailedEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DLT(failed_event) 관리자 조회.
+ *
+ * OFFSET 없이 id keyset 으로만 앞으로 읽고, 모든 조회는 읽기 복제본(설정 시)에서 합니다.
+ * id 는 createdAt 과 함께 증가하므로 기간 필터는 created_at 인덱스에서 경계 id 를 찾아 id 구간으로 바꿔 읽습니다. (afterId 커서 계약은 그대로)
+ * 스트리밍은 chunk 단위로 읽어 바로 NDJSON 으로 쓰므로 행 수와 무관하게 메모리 사용량이 일정합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FailedEventQueryService {
+
+    static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    // created_at 은 저장 시각이라 커밋 순서(id)와 조금 어긋날 수 있음. 경계 id 를 이만큼 넓게 잡고, 기간 조건은 그대로 다시 거름
+    private static final Duration ID_WINDOW_SLACK = Duration.ofMinutes(1);
+
+    // 조회할 id 구간 (afterId, untilId)
+    private record IdWindow(long afterId, long untilId) {
+        static final IdWindow ALL = new IdWindow(0L, Long.MAX_VALUE);
+        static final IdWindow EMPTY = new IdWindow(0L, 0L);
+
+        boolean isEmpty() {
+            return untilId <= afterId + 1;
+        }
+    }
+
+    private final FailedEventRepository failedEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public FailedEventPageResponse list(FailedEventFilter filter, long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        IdWindow window = idWindow(filter);
+        if (window.isEmpty()) {
+            return new FailedEventPageResponse(List.of(), null);
+        }
+        // 다음 페이지 존재 여부를 COUNT 없이 알기 위해 1건 더 읽음
+        List<FailedEventResponse> rows = summaries(filter, Math.max(afterId, window.afterId()), window.untilId(), size + 1);
+        if (rows.size() <= size) {
+            return new FailedEventPageResponse(rows, null);
+        }
+        List<FailedEventResponse> items = rows.subList(0, size);
+        return new FailedEventPageResponse(items, items.get(size - 1).id());
+    }
+
+    public Optional<FailedEventResponse> find(Long eventId) {
+        return ReadRoute.onReplica(() -> failedEventRepository.findById(eventId)).map(FailedEventResponse::fromEntity);
+    }
+
+    // 조건에 맞는 행을 끝까지 한 줄에 하나씩(JSON) 씀. 반환값은 쓴 행 수
+    public long stream(FailedEventFilter filter, boolean includePayload, OutputStream out) throws IOException {
+        IdWindow window = idWindow(filter);
+        long afterId = window.afterId();
+        long written = 0;
+        while (!window.isEmpty()) {
+            List<FailedEventResponse> chunk = includePayload
+                    ? fullRows(filter, afterId, window.untilId(), STREAM_CHUNK_SIZE)
+                    : summaries(filter, afterId, window.untilId(), STREAM_CHUNK_SIZE);
+            for (FailedEventResponse row : chunk) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+            written += chunk.size();
+            if (chunk.size() < STREAM_CHUNK_SIZE) break;
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+        log.info("📤 [DLT-Query] 스트리밍 완료. {}건, 조건: {}", written, filter);
+        return written;
+    }
+
+    // 기간 → id 구간: from 이전 첫 id 부터, to 이후 첫 id 전까지 (각각 created_at 인덱스 한 번 탐색)
+    private IdWindow idWindow(FailedEventFilter filter) {
+        if (filter.from() == null && filter.to() == null) {
+            return IdWindow.ALL;
+        }
+        long afterId = 0L;
+        if (filter.from() != null) {
+            Long first = firstIdCreatedAtOrAfter(filter.from().minus(ID_WINDOW_SLACK));
+            if (first == null) return IdWindow.EMPTY;
+            afterId = first - 1;
+        }
+        long untilId = Long.MAX_VALUE;
+        if (filter.to() != null) {
+            Long end = firstIdCreatedAtOrAfter(filter.to().plus(ID_WINDOW_SLACK));
+            if (end != null) untilId = end;
+        }
+        return new IdWindow(afterId, untilId);
+    }
+
+    private Long firstIdCreatedAtOrAfter(LocalDateTime at) {
+        List<Long> ids = ReadRoute.onReplica(() -> failedEventRepository.findIdsCreatedAtOrAfter(at, PageRequest.of(0, 1)));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private List<FailedEventResponse> summaries(FailedEventFilter filter, long afterId, long untilId, int size) {
+        return ReadRoute.onReplica(() -> failedEventRepository.searchSummaries(
+                filter.topic(), filter.status(), filter.from(), filter.to(), filter.errorPattern(), afterId, untilId, PageRequest.of(0, size)));
+    }
+
+    private List<FailedEventResponse> fullRows(FailedEventFilter filter, long afterId, long untilId, int size) {
+        return ReadRoute.onReplica(() -> failedEventRepository.search(
+                                filter.topic(), filter.status(), filter.from(), filter.to(), filter.errorPattern(), afterId, untilId, PageRequest.of(0, size)))
+                        .stream()
+                        .map(FailedEventResponse::fromEntity)
+                        .toList();
+    }
+}
@@ -3,8 +3,10 @@ package com.example.payment_service.service;
 import com.example.payment_service.entity.FailedEvent;
 import com.example.payment_service.entity.FailedEventStatus;
 import com.example.payment_service.repository.FailedEventRepository;
+import com.example.payment_service.replica.ReadRoute;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -14,8 +16,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -28,32 +33,47 @@ public class FailedEventReplayService {
 
     private static final int CHUNK_SIZE = 1000;
 
+    // 재발행 표시 (값: FailedEvent ID). Consumer 는 이 헤더가 있으면 BULK lane 으로 보내고 신선도 지표에서 제외
+    public static final String REPLAY_HEADER = "x-replay";
+
     public int retryAllByTopic(String targetTopic) {
         int totalProcessed = 0;
+        int duplicates = 0;
+        long afterId = 0L;
+        // fingerprint 도입 전 행은 같은 메시지가 여러 행일 수 있으므로 이번 실행에서 보낸 내용은 한 번만 보냄
+        Set<String> sentLegacy = new HashSet<>();
         boolean hasNext = true;
 
         log.info("🚀 [Bulk Retry] 토픽({}) 재발행 시작...", targetTopic);
 
         while (hasNext) {
             Pageable pageable = PageRequest.of(0, CHUNK_SIZE, Sort.by(Sort.Direction.ASC, "id"));
-            Slice<FailedEvent> slice = failedEventRepository.findAllByTopicAndStatus(
+            long cursor = afterId;
+            // 목록 스캔은 복제본에서, 상태 변경은 primary 트랜잭션에서
+            Slice<FailedEvent> slice = ReadRoute.onReplica(() -> failedEventRepository.findByTopicAndStatusAndIdGreaterThan(
                     targetTopic,
                     FailedEventStatus.PENDING,
+                    cursor,
                     pageable
-            );
+            ));
 
             List<FailedEvent> events = slice.getContent();
             if (events.isEmpty()) break;
+            afterId = events.get(events.size() - 1).getId();
 
             List<Long> successIds = new ArrayList<>();
 
             for (FailedEvent event : events) {
+                if (event.getFingerprint() == null
+                        && !sentLegacy.add(FailedEvent.fingerprintOf(event.getTopic(), event.getKafkaKey(), event.getPayload()))) {
+                    successIds.add(event.getId());
+                    duplicates++;
+                    continue;
+                }
                 try {
-                    if (event.getKafkaKey() != null) {
-                        kafkaTemplate.send(event.getTopic(), event.getKafkaKey(), event.getPayload()).get();
-                    } else {
-                        kafkaTemplate.send(event.getTopic(), event.getPayload()).get();
-                    }
+                    ProducerRecord<String, String> record = new ProducerRecord<>(event.replayTopic(), event.getKafkaKey(), event.getPayload());
+                    record.headers().add(REPLAY_HEADER, event.getId().toString().getBytes(StandardCharsets.UTF_8));
+                    kafkaTemplate.send(record).get();
 
                     successIds.add(event.getId());
 
@@ -78,8 +98,8 @@ public class FailedEventReplayService {
             hasNext = slice.hasNext();
         }
 
-        log.info("✅ [Bulk Retry] 완료. 총 {}건 재발행됨.", totalProcessed);
-        return totalProcessed;
+        log.info("✅ [Bulk Retry] 완료. 총 {}건 처리 (중복 {}건은 재발행 없이 RESOLVED).", totalProcessed, duplicates);
+        return totalProcessed - duplicates;
     }
 
     @Transactional
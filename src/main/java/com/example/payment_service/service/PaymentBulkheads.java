@@ -0,0 +1,52 @@
+package com.example.payment_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 결제 파이프라인 단계별 bulkhead 묶음.
+ * 느린 PG 가 boundedElastic 을 다 차지해서 빠른 완료 트랜잭션까지 굶는 상황을 막기 위해 lane 을 분리합니다.
+ */
+@Component
+public class PaymentBulkheads implements DisposableBean {
+
+    private final StageBulkhead db;
+    private final StageBulkhead pg;
+    private final StageBulkhead compensation;
+
+    public PaymentBulkheads(MeterRegistry meterRegistry,
+                            @Value("${payment.bulkhead.db.max-concurrency:10}") int dbConcurrency,
+                            @Value("${payment.bulkhead.db.max-queue:256}") int dbQueue,
+                            @Value("${payment.bulkhead.pg.max-concurrency:32}") int pgConcurrency,
+                            @Value("${payment.bulkhead.pg.max-queue:256}") int pgQueue,
+                            @Value("${payment.bulkhead.compensation.max-concurrency:4}") int compensationConcurrency,
+                            @Value("${payment.bulkhead.compensation.max-queue:64}") int compensationQueue) {
+        this.db = new StageBulkhead("db", dbConcurrency, dbQueue, meterRegistry);
+        this.pg = new StageBulkhead("pg", pgConcurrency, pgQueue, meterRegistry);
+        this.compensation = new StageBulkhead("compensation", compensationConcurrency, compensationQueue, meterRegistry);
+    }
+
+    // 결제 생성/선점/완료/실패 등 DB 쓰기 (Hikari 풀 크기 기준)
+    public StageBulkhead db() {
+        return db;
+    }
+
+    // PG 승인 호출 (PG 동시 호출 quota 기준)
+    public StageBulkhead pg() {
+        return pg;
+    }
+
+    // 망취소/환불 등 보상 처리 전용
+    public StageBulkhead compensation() {
+        return compensation;
+    }
+
+    @Override
+    public void destroy() {
+        db.dispose();
+        pg.dispose();
+        compensation.dispose();
+    }
+}
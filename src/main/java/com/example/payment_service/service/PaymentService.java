@@ -2,44 +2,66 @@ package com.example.payment_service.service;
 
 import com.example.payment_service.client.PricingServiceClient;
 import com.example.payment_service.client.UserServiceClient;
-import com.example.payment_service.client.VirtualPGClient;
+import com.example.payment_service.client.PgClient;
 import com.example.payment_service.dto.PaymentResponse;
 import com.example.payment_service.entity.Payment;
 import com.example.payment_service.entity.PaymentOutbox;
 import com.example.payment_service.entity.PaymentStatus;
 import com.example.payment_service.exception.PaymentNotFoundException;
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
 import com.example.payment_service.exception.PricingServiceUnavailableException;
+import com.example.payment_service.exception.StageBulkheadFullException;
+import com.example.payment_service.kafka.PaymentKafkaProducer;
 import com.example.payment_service.kafka.dto.PaymentCompletedEvent;
 import com.example.payment_service.kafka.dto.PaymentFailedEvent;
 import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.latency.PaymentLatencyTracker;
 import com.example.payment_service.repository.PaymentOutboxRepository;
 import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.service.fare.FareQuoteService;
+import com.example.payment_service.shard.ShardRouter;
+import com.example.payment_service.replica.ReadRoute;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
 
+    // PG 타임아웃/서킷 OPEN 시 같은 멱등 키로 다시 승인 요청하는 횟수와 간격 (선점한 PROCESSING 상태 그대로 재요청)
+    private static final int PG_UNAVAILABLE_RETRIES = 2;
+    private static final Duration PG_UNAVAILABLE_BACKOFF = Duration.ofMillis(200);
+
     private final PaymentRepository paymentRepository;
-    private final PricingServiceClient pricingServiceClient;
+    private final FareQuoteService fareQuoteService;
     private final UserServiceClient userServiceClient;
-    private final VirtualPGClient virtualPGClient;
+    private final PgClient pgClient;
     private final PaymentOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
 
     private final PaymentTransactionService paymentTransactionService;
+    private final PaymentBulkheads bulkheads;
+    private final PgAuthorizationBatcher pgAuthorizationBatcher;
+    private final ShardRouter shardRouter;
+    private final PaymentLatencyTracker latencyTracker;
+    private final PaymentKafkaProducer directPublisher;
 
     public Mono<Void> processPayment(TripCompletedEvent event) {
+        // Consumer 가 레코드를 꺼내자마자 호출하므로 이 시점을 consume 시각으로 봄 (in-memory 재시도 시간도 포함)
+        long consumedNanos = System.nanoTime();
 
-        Mono<PricingServiceClient.FareResponse> fareMono = pricingServiceClient.calculateFare(
+        // 요금: payment.fare.mode 에 따라 pricing-service 원격 계산 또는 로컬 요금 규칙 스냅샷
+        Mono<PricingServiceClient.FareResponse> fareMono = fareQuoteService.calculateFare(
                 event.tripId(), event.distanceMeters(), event.durationSeconds(), event.endedAt());
 
         Mono<UserServiceClient.UserInfoForPaymentResponse> userInfoMono = userServiceClient.getUserInfoForPayment(event.userId());
@@ -49,18 +71,17 @@ public class PaymentService {
                        Integer fare = tuple.getT1().fare();
                        var userInfo = tuple.getT2();
 
-                       return Mono.fromCallable(() ->
-                                          paymentTransactionService.createPendingPayment(
+                       // 신규 결제 진입: DB lane 대기열이 가득 차면 거절 (재시도 가능)
+                       return bulkheads.db().admit(() ->
+                                          shardRouter.callFor(event.tripId(), () -> paymentTransactionService.createPendingPayment(
                                                   event, userInfo.userId(), userInfo.paymentMethodId(), fare
-                                          ))
-                                  .subscribeOn(Schedulers.boundedElastic())
+                                          )))
 
                                   // 선점(Locking) 시도
                                   .flatMap(payment -> {
-                                      return Mono.fromCallable(() ->
-                                                         paymentTransactionService.tryStartProcessing(payment.getId())
+                                      return bulkheads.db().run(() ->
+                                                         shardRouter.callFor(payment.getTripId(), () -> paymentTransactionService.tryStartProcessing(payment))
                                                  )
-                                                 .subscribeOn(Schedulers.boundedElastic())
                                                  .flatMap(isMyTurn -> {
                                                      if (!isMyTurn) {
                                                          log.info("다른 스레드/서버가 이미 처리 중입니다. (PaymentID: {})", payment.getId());
@@ -70,7 +91,9 @@ public class PaymentService {
                                                      return Mono.just(payment);
                                                  });
                                   })
-                                  .flatMap(payment -> processPgAndComplete(payment));
+                                  .flatMap(payment -> processPgAndComplete(payment))
+                                  .doOnNext(payment -> latencyTracker.recordNanos(
+                                          PaymentLatencyTracker.Stage.CONSUME_TO_COMPLETED, System.nanoTime() - consumedNanos));
                    })
                    .then()
                    .onErrorResume(error -> {
@@ -86,68 +109,93 @@ public class PaymentService {
                    });
     }
 
-    private boolean isRetryable(Throwable error) {
+    public boolean isRetryable(Throwable error) {
         return error instanceof PricingServiceUnavailableException
+                || error instanceof StageBulkheadFullException
                 || error instanceof java.net.ConnectException;
     }
 
     private Mono<Payment> processPgAndComplete(Payment payment) {
-        return Mono.fromCallable(() -> {
-            String pgTxId = null;
+        // 1단계: PG 결제 시도 (PG 전용 lane, 설정 시 배치 승인)
+        return pgAuthorizationBatcher.authorize(payment)
+                        // 타임아웃/서킷 OPEN 은 승인 여부를 알 수 없음. 같은 멱등 키(paymentId)로 다시 요청하면 이미 승인된 건은 기존 거래가 돌아옴
+                        .retryWhen(Retry.backoff(PG_UNAVAILABLE_RETRIES, PG_UNAVAILABLE_BACKOFF)
+                                        .filter(PgServiceUnavailableException.class::isInstance)
+                                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                        .onErrorResume(e -> {
+                            // 카드사 거절만 확정 실패. 그 외(응답 없음 등)는 이미 승인됐을 수 있으므로 FAILED 로 닫지 않음
+                            if (!(e instanceof PgPaymentDeclinedException)) {
+                                log.error("⏱️ PG 승인 결과 불명. UNKNOWN 처리 후 대사에서 확정합니다. Payment ID: {}, Error: {}", payment.getId(), e.getMessage());
+                                return bulkheads.db().run(() -> {
+                                                    shardRouter.runFor(payment.getTripId(), () -> paymentTransactionService.markAsUnknown(payment, null));
+                                                    return payment;
+                                                })
+                                                .then(Mono.<String>empty());
+                            }
+
+                            log.warn("PG 결제 승인 실패. Payment ID: {}", payment.getId());
+                            PaymentFailedEvent failedEvent = new PaymentFailedEvent(payment.getTripId(), "PG 승인 거절: " + e.getMessage());
+                            return bulkheads.db().run(() -> {
+                                                shardRouter.callFor(payment.getTripId(), () ->
+                                                        paymentTransactionService.failPaymentWithOutbox(payment, "PG 승인 거절", failedEvent));
+                                                return payment;
+                                            })
+                                            .then(Mono.error(new RuntimeException("PG 결제 승인 실패", e)));
+                        })
+                        .flatMap(pgTxId -> completeOrCompensate(payment, pgTxId));
+    }
 
-            // 1단계: PG 결제 시도
-            try {
-                pgTxId = virtualPGClient.processPayment();
-            } catch (Exception e) {
-                log.warn("PG 결제 승인 실패. Payment ID: {}", payment.getId());
-                PaymentFailedEvent failedEvent = new PaymentFailedEvent(payment.getTripId(), "PG 승인 거절: " + e.getMessage());
-                paymentTransactionService.failPaymentWithOutbox(payment.getId(), "PG 승인 거절", failedEvent);
-                throw new RuntimeException("PG 결제 승인 실패", e);
-            }
+    private Mono<Payment> completeOrCompensate(Payment payment, String pgTxId) {
+        // 2단계: DB 반영
+        PaymentCompletedEvent completedEvent = new PaymentCompletedEvent(
+                payment.getTripId(), payment.getAmount(), payment.getUserId());
+
+        return bulkheads.db().run(() -> shardRouter.callFor(payment.getTripId(), () -> paymentTransactionService.completePaymentWithOutbox(
+                                payment, pgTxId, completedEvent)))
+                        .onErrorResume(e -> {
+                            log.error("🚨 CRITICAL: PG 승인 후 DB 반영 실패! 자동 취소 시도. Payment ID: {}", payment.getId(), e);
+
+                            // 3단계: 보상 트랜잭션 (자동 환불) - PG 지연에 막히지 않도록 별도 lane
+                            return bulkheads.compensation().run(() -> {
+                                                compensate(payment, pgTxId);
+                                                return payment;
+                                            })
+                                            .then(Mono.error(new RuntimeException("결제 처리 중 시스템 오류 발생 (Double Fault 가능성 있음)", e)));
+                        });
+    }
 
-            // 2단계: DB 반영
-            try {
-                PaymentCompletedEvent completedEvent = new PaymentCompletedEvent(
-                        payment.getTripId(), payment.getAmount(), payment.getUserId());
-
-                return paymentTransactionService.completePaymentWithOutbox(
-                        payment.getId(), pgTxId, completedEvent);
-
-            } catch (Exception e) {
-                log.error("🚨 CRITICAL: PG 승인 후 DB 반영 실패! 자동 취소 시도. Payment ID: {}", payment.getId(), e);
-
-                // 3단계: 보상 트랜잭션 (자동 환불)
-                try {
-                    virtualPGClient.cancelPayment(pgTxId);
-                    log.info("✅ 자동 취소(환불) 성공.");
-                    PaymentFailedEvent failedEvent = new PaymentFailedEvent(payment.getTripId(), "시스템 오류로 인한 자동 취소");
-                    paymentTransactionService.failPaymentWithOutbox(payment.getId(), "자동 취소 완료", failedEvent);
-
-                } catch (Exception refundEx) {
-                    log.error("💀 DOUBLE FAULT: 환불마저 실패함! 수기 정산 필요.", refundEx);
-                    paymentTransactionService.markAsUnknown(payment.getId(), pgTxId);
-                }
-                throw new RuntimeException("결제 처리 중 시스템 오류 발생 (Double Fault 가능성 있음)", e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+    private void compensate(Payment payment, String pgTxId) {
+        try {
+            pgClient.cancelPayment(pgTxId);
+            log.info("✅ 자동 취소(환불) 성공.");
+            PaymentFailedEvent failedEvent = new PaymentFailedEvent(payment.getTripId(), "시스템 오류로 인한 자동 취소");
+            shardRouter.callFor(payment.getTripId(), () ->
+                    paymentTransactionService.failPaymentWithOutbox(payment, "자동 취소 완료", failedEvent));
+
+        } catch (Exception refundEx) {
+            log.error("💀 DOUBLE FAULT: 환불마저 실패함! 수기 정산 필요.", refundEx);
+            shardRouter.runFor(payment.getTripId(), () -> paymentTransactionService.markAsUnknown(payment, pgTxId));
+        }
     }
 
     private Mono<PaymentOutbox> saveToOutbox(String topic, String key, Object event) {
-        return Mono.fromCallable(() -> {
+        return bulkheads.db().run(() -> {
             try {
                 String payload = objectMapper.writeValueAsString(event);
                 PaymentOutbox outbox = PaymentOutbox.builder().aggregateId(key).topic(topic).payload(payload).build();
-                return outboxRepository.save(outbox);
+                return shardRouter.callFor(key, () -> outboxRepository.save(outbox));
             } catch (JsonProcessingException e) {
                 throw new RuntimeException(e);
             }
-        }).subscribeOn(Schedulers.boundedElastic());
+        }).doOnNext(directPublisher::publishCommitted); // save 가 자체 트랜잭션으로 이미 커밋됐으므로 바로 직접 발행
     }
 
-    @Transactional(readOnly = true)
+    // shard 는 커넥션을 얻기 전에 정해져야 하므로 서비스 트랜잭션 없이 리포지토리(readOnly) 트랜잭션만 사용
+    // 복제본에서 먼저 찾고, 아직 복제되지 않은 신규 결제면 primary 에서 다시 찾음
     public PaymentResponse getPaymentByTripId(String tripId) {
-        Payment payment = paymentRepository.findByTripId(tripId)
-                                           .orElseThrow(() -> new PaymentNotFoundException("결제 내역 미발견: " + tripId));
+        Payment payment = shardRouter.callFor(tripId, () -> ReadRoute.replicaFirst(
+                                             () -> paymentRepository.findByTripId(tripId), Optional::isPresent))
+                                     .orElseThrow(() -> new PaymentNotFoundException("결제 내역 미발견: " + tripId));
         return PaymentResponse.fromEntity(payment);
     }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.example.payment_service.service;
 
 import com.example.payment_service.entity.Payment;
 import com.example.payment_service.entity.PaymentOutbox;
+import com.example.payment_service.entity.PaymentStatus;
+import com.example.payment_service.exception.IllegalPaymentTransitionException;
+import com.example.payment_service.kafka.PaymentKafkaProducer;
 import com.example.payment_service.kafka.dto.TripCompletedEvent;
 import com.example.payment_service.repository.PaymentOutboxRepository;
 import com.example.payment_service.repository.PaymentRepository;
@@ -13,6 +16,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -21,6 +26,7 @@ public class PaymentTransactionService {
     private final PaymentRepository paymentRepository;
     private final PaymentOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final PaymentKafkaProducer directPublisher;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Payment createPendingPayment(TripCompletedEvent event, String userId, String paymentMethodId, Integer fare) {
@@ -42,48 +48,75 @@ public class PaymentTransactionService {
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public Payment completePaymentWithOutbox(Long paymentId, String pgTransactionId, Object eventData) {
-        Payment payment = paymentRepository.findById(paymentId)
-                                           .orElseThrow(() -> new RuntimeException("결제 정보 유실"));
-        payment.complete(pgTransactionId);
+    public Payment completePaymentWithOutbox(Payment payment, String pgTransactionId, Object eventData) {
+        // PROCESSING 이 아니게 됐다면(구조 스케줄러가 먼저 종결) 완료로 덮어쓰지 않고 호출자가 보상하도록 예외
+        if (!transition(payment, PaymentStatus.COMPLETED, pgTransactionId)) {
+            throw new IllegalPaymentTransitionException(payment.getId(), payment.getStatus(), PaymentStatus.COMPLETED);
+        }
         saveOutboxInTransaction(payment.getTripId(), "payment_events", eventData);
-        log.info("결제 완료 및 Outbox 저장 성공. Payment ID: {}", paymentId);
+        log.info("결제 완료 및 Outbox 저장 성공. Payment ID: {}", payment.getId());
         return payment;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void failPaymentWithOutbox(Long paymentId, String errorMessage, Object eventData) {
-        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
-        payment.fail();
+    public boolean failPaymentWithOutbox(Payment payment, String errorMessage, Object eventData) {
+        if (!transition(payment, PaymentStatus.FAILED, null)) {
+            log.warn("이미 종결된 결제입니다. 실패 처리 생략. Payment ID: {}, Reason: {}", payment.getId(), errorMessage);
+            return false;
+        }
         saveOutboxInTransaction(payment.getTripId(), "payment_events", eventData);
-        log.warn("결제 실패 처리 및 Outbox 저장. Payment ID: {}, Reason: {}", paymentId, errorMessage);
+        log.warn("결제 실패 처리 및 Outbox 저장. Payment ID: {}, Reason: {}", payment.getId(), errorMessage);
+        return true;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public boolean tryStartProcessing(Long paymentId) {
+    public boolean tryStartProcessing(Payment payment) {
         // REQUESTED 상태인 것만 PROCESSING으로 변경 시도
-        int updatedCount = paymentRepository.tryStartProcessing(paymentId);
-
-        if (updatedCount > 0) {
-            log.info("결제 처리 권한 획득 (PROCESSING 상태로 변경). Payment ID: {}", paymentId);
+        if (transition(payment, PaymentStatus.PROCESSING, null)) {
+            log.info("결제 처리 권한 획득 (PROCESSING 상태로 변경). Payment ID: {}", payment.getId());
             return true; // 선점 성공
         } else {
-            log.warn("이미 처리 중이거나 완료된 결제입니다. 선점 실패. Payment ID: {}", paymentId);
+            log.warn("이미 처리 중이거나 완료된 결제입니다. 선점 실패. Payment ID: {}", payment.getId());
             return false; // 선점 실패
         }
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void markAsUnknown(Long paymentId, String pgTxId) {
+    public void markAsUnknown(Payment payment, String pgTxId) {
         try {
-            Payment payment = paymentRepository.findById(paymentId).orElseThrow();
-            payment.unknown(pgTxId);
-            log.error("🛑 수기 정산 필요 (UNKNOWN 상태). PaymentId: {}, PgTxId: {}", paymentId, pgTxId);
+            if (!transition(payment, PaymentStatus.UNKNOWN, pgTxId)) {
+                log.warn("이미 종결된 결제입니다. UNKNOWN 마킹 생략. PaymentId: {}", payment.getId());
+                return;
+            }
+            log.error("🛑 수기 정산 필요 (UNKNOWN 상태). PaymentId: {}, PgTxId: {}", payment.getId(), pgTxId);
         } catch (Exception e) {
             log.error("MarkAsUnknown 실패", e);
         }
     }
 
+    /**
+     * 상태 전이 1회: 허용되지 않는 전이는 DB 를 건드리지 않고 거절하고,
+     * 허용되면 (기대 상태, 버전) 조건부 UPDATE 한 번으로 처리한 뒤 스냅샷을 맞춥니다.
+     */
+    private boolean transition(Payment payment, PaymentStatus next, String pgTransactionId) {
+        PaymentStatus expected = payment.getStatus();
+        if (!expected.canTransitionTo(next)) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = (pgTransactionId == null)
+                ? paymentRepository.transition(payment.getId(), expected, payment.getVersion(), next, now)
+                : paymentRepository.transitionWithPgTransaction(payment.getId(), expected, payment.getVersion(), next,
+                        pgTransactionId, next == PaymentStatus.COMPLETED ? now : null, now);
+        if (updated == 0) {
+            return false;
+        }
+
+        payment.applyTransition(next, pgTransactionId, now);
+        return true;
+    }
+
     private void saveOutboxInTransaction(String aggregateId, String topic, Object eventData) {
         try {
             String payload = objectMapper.writeValueAsString(eventData);
@@ -92,7 +125,8 @@ public class PaymentTransactionService {
                                                 .topic(topic)
                                                 .payload(payload)
                                                 .build();
-            outboxRepository.save(outbox);
+            // 커밋 후 바로 발행하고, 실패하면 행이 READY 로 남아 relay 가 이어받음
+            directPublisher.publishAfterCommit(outboxRepository.save(outbox));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("JSON 변환 실패", e);
         }
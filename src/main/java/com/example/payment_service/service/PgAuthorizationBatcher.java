@@ -0,0 +1,78 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.client.MicroBatcher;
+import com.example.payment_service.client.PgClient;
+import com.example.payment_service.entity.Payment;
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 선점(PROCESSING)된 결제의 PG 승인 단계.
+ *
+ * payment.pg.batch.enabled=true 이면 max-size 건 또는 linger 시간 동안 모아서 PG 배치 승인 1회로 보내고,
+ * 항목별 결과를 각 결제 흐름(완료/실패 처리)으로 다시 흩어 보냅니다. 꺼져 있으면 기존처럼 건별로 승인합니다.
+ * 배치 호출도 PG lane 에서 실행되므로 PG 동시 호출 수는 bulkhead 설정을 그대로 따릅니다.
+ * 배치 승인 API 가 없는 PgClient 는 켜 두어도 건별 승인으로 동작합니다 (순차 건별 호출을 한 lane 에 묶으면 N배 느려지므로).
+ * 결과를 알 수 없는 항목(응답 누락 등)은 거절이 아니라 PgServiceUnavailableException 으로 돌려 재시도/UNKNOWN 경로를 탑니다.
+ */
+@Component
+@Slf4j
+public class PgAuthorizationBatcher implements DisposableBean {
+
+    private final PgClient pgClient;
+    private final PaymentBulkheads bulkheads;
+    private final MicroBatcher<PgClient.AuthorizationRequest, PgClient.AuthorizationResult> batcher;
+
+    public PgAuthorizationBatcher(PgClient pgClient,
+                                  PaymentBulkheads bulkheads,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${payment.pg.batch.enabled:false}") boolean enabled,
+                                  @Value("${payment.pg.batch.max-size:20}") int maxSize,
+                                  @Value("${payment.pg.batch.linger:20ms}") Duration linger,
+                                  @Value("${payment.pg.batch.max-in-flight:4}") int maxInFlight) {
+        this.pgClient = pgClient;
+        this.bulkheads = bulkheads;
+        if (enabled && !pgClient.supportsBatchAuthorization()) {
+            log.warn("⚠️ [PG-Batch] {} 는 배치 승인 API 가 없어 payment.pg.batch.enabled 를 무시하고 건별 승인합니다.",
+                    pgClient.getClass().getSimpleName());
+        }
+        this.batcher = enabled && pgClient.supportsBatchAuthorization()
+                ? new MicroBatcher<>("pg-authorization", maxSize, linger, maxInFlight, this::authorizeBatch, meterRegistry)
+                : null;
+    }
+
+    // 승인 성공 시 PG 거래 번호, 거절/장애 시 에러
+    public Mono<String> authorize(Payment payment) {
+        if (batcher == null) {
+            return bulkheads.pg().run(() -> pgClient.processPayment(payment.getPaymentId(), payment.getAmount()));
+        }
+
+        return batcher.submit(new PgClient.AuthorizationRequest(payment.getPaymentId(), payment.getAmount()))
+                      .switchIfEmpty(Mono.error(() -> new PgServiceUnavailableException("PG 배치 응답 누락")))
+                      .flatMap(result -> {
+                          if (result.isApproved()) return Mono.just(result.pgTransactionId());
+                          if (result.outcomeUnknown()) return Mono.error(new PgServiceUnavailableException(result.failureReason()));
+                          return Mono.error(new PgPaymentDeclinedException(result.failureReason()));
+                      });
+    }
+
+    private Mono<List<PgClient.AuthorizationResult>> authorizeBatch(List<PgClient.AuthorizationRequest> requests) {
+        return bulkheads.pg().run(() -> pgClient.processPayments(requests));
+    }
+
+    @Override
+    public void destroy() {
+        if (batcher != null) {
+            batcher.dispose();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.exception.StageBulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 결제 파이프라인 단계(DB / PG / 보상)별 전용 스레드 lane.
+ * 동시 실행 수는 전용 Scheduler 스레드 수로, 대기열 길이는 직접 세어서 제한합니다.
+ */
+public class StageBulkhead {
+
+    private final String name;
+    private final int maxQueue;
+    private final Scheduler scheduler;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejected;
+
+    public StageBulkhead(String name, int maxConcurrency, int maxQueue, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxQueue = maxQueue;
+        this.scheduler = Schedulers.newBoundedElastic(maxConcurrency, Integer.MAX_VALUE, "payment-" + name);
+
+        Gauge.builder("payment.bulkhead.queue.depth", queued, AtomicInteger::get)
+             .tag("stage", name)
+             .register(meterRegistry);
+        Gauge.builder("payment.bulkhead.active", active, AtomicInteger::get)
+             .tag("stage", name)
+             .register(meterRegistry);
+        Gauge.builder("payment.bulkhead.max.concurrency", () -> maxConcurrency)
+             .tag("stage", name)
+             .register(meterRegistry);
+        this.rejected = Counter.builder("payment.bulkhead.rejected")
+                               .tag("stage", name)
+                               .register(meterRegistry);
+    }
+
+    // 신규 결제 진입용: 대기열이 가득 차면 즉시 거절 (재시도 가능한 예외)
+    public <T> Mono<T> admit(Callable<T> task) {
+        return submit(task, true);
+    }
+
+    // 이미 시작된 결제의 후속 단계용: 거절하면 PROCESSING 건이 남으므로 대기열에 넣고 끝까지 처리
+    public <T> Mono<T> run(Callable<T> task) {
+        return submit(task, false);
+    }
+
+    private <T> Mono<T> submit(Callable<T> task, boolean rejectWhenFull) {
+        return Mono.defer(() -> {
+            int depth = queued.incrementAndGet();
+            if (rejectWhenFull && depth > maxQueue) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new StageBulkheadFullException(name));
+            }
+
+            AtomicBoolean started = new AtomicBoolean();
+            return Mono.fromCallable(() -> {
+                           started.set(true);
+                           queued.decrementAndGet();
+                           active.incrementAndGet();
+                           try {
+                               return task.call();
+                           } finally {
+                               active.decrementAndGet();
+                           }
+                       })
+                       .subscribeOn(scheduler)
+                       // 실행 전에 취소된 경우 대기열 카운트 복구
+                       .doFinally(signal -> {
+                           if (started.compareAndSet(false, true)) {
+                               queued.decrementAndGet();
+                           }
+                       });
+        });
+    }
+
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    public void dispose() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.client.PricingServiceClient;
+import com.example.payment_service.client.UserServiceClient;
+import com.example.payment_service.kafka.dto.PaymentCompletedEvent;
+import com.example.payment_service.kafka.dto.PaymentFailedEvent;
+import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.shard.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 신규 파드 예열 (HPA 스케일 아웃 직후 첫 결제들이 콜드 스타트 비용을 떠안지 않도록).
+ *
+ * 가장 먼저 실행되는 CommandLineRunner 로, 끝날 때까지 Kafka Consumer 구독과 readiness 전환이 뒤로 밀립니다.
+ * - DB 커넥션 풀 채우기 + JPA 쿼리 플랜 캐시
+ * - pricing/user 서비스로 keep-alive 커넥션 미리 열기 (LoadBalancer 인스턴스 캐시 포함)
+ * - 이벤트 DTO Jackson (역)직렬화 반복으로 deserializer 캐시와 JIT 예열
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class StartupWarmup implements CommandLineRunner, HealthIndicator {
+
+    private static final String SAMPLE_TRIP_EVENT = """
+            {"tripId":"warmup-trip","userId":"warmup-user","distanceMeters":3200,"durationSeconds":840,"endedAt":"2024-01-01T10:00:00"}""";
+    private static final String SAMPLE_FARE = """
+            {"fare":15000}""";
+    private static final String SAMPLE_USER_INFO = """
+            {"userId":"warmup-user","userName":"warmup","userEmail":"warmup@example.com","paymentMethodId":"card-1","billingKey":"bk-1"}""";
+
+    private final PaymentRepository paymentRepository;
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper;
+    private final List<String> serviceUrls;
+    private final boolean enabled;
+    private final int iterations;
+    private final int connections;
+    private final Duration timeout;
+
+    private final AtomicBoolean warmedUp = new AtomicBoolean(false);
+    private final AtomicLong warmupMillis = new AtomicLong(-1);
+    private final AtomicLong firstPaymentMillis = new AtomicLong(-1);
+    private final Timer pipelineTimer;
+
+    public StartupWarmup(PaymentRepository paymentRepository,
+                         DataSource dataSource,
+                         ShardRouter shardRouter,
+                         WebClient.Builder webClientBuilder,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${services.pricing-service.url}") String pricingServiceUrl,
+                         @Value("${services.user-service.url}") String userServiceUrl,
+                         @Value("${payment.warmup.enabled:true}") boolean enabled,
+                         @Value("${payment.warmup.iterations:500}") int iterations,
+                         @Value("${payment.warmup.connections:4}") int connections,
+                         @Value("${payment.warmup.timeout:20s}") Duration timeout) {
+        this.paymentRepository = paymentRepository;
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.webClientBuilder = webClientBuilder;
+        this.objectMapper = objectMapper;
+        this.serviceUrls = List.of(pricingServiceUrl, userServiceUrl);
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.connections = connections;
+        this.timeout = timeout;
+
+        Gauge.builder("payment.startup.warmup.duration", warmupMillis, v -> v.get() / 1000.0)
+             .baseUnit("seconds")
+             .register(meterRegistry);
+        Gauge.builder("payment.startup.time.to.first.payment", firstPaymentMillis, v -> v.get() / 1000.0)
+             .description("JVM 시작부터 첫 결제 처리 완료까지 걸린 시간")
+             .baseUnit("seconds")
+             .register(meterRegistry);
+        this.pipelineTimer = Timer.builder("payment.pipeline.duration")
+                                  .description("trip_events 레코드 1건의 결제 파이프라인 처리 시간")
+                                  .publishPercentileHistogram()
+                                  .register(meterRegistry);
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            warmedUp.set(true);
+            return;
+        }
+
+        long start = System.nanoTime();
+        log.info("🔥 [Warm-up] 신규 파드 예열 시작");
+
+        Mono.when(
+                    Mono.fromRunnable(this::warmUpDatabase).subscribeOn(Schedulers.boundedElastic()),
+                    warmUpHttpConnections(),
+                    Mono.fromRunnable(this::warmUpSerialization).subscribeOn(Schedulers.boundedElastic()))
+            .timeout(timeout)
+            .onErrorResume(e -> {
+                // 예열 실패가 기동 실패가 되어서는 안 됨 - 콜드 상태로라도 트래픽은 받는다
+                log.warn("⚠️ [Warm-up] 예열이 완료되지 못했습니다. 그대로 기동을 계속합니다. Error: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .block();
+
+        warmupMillis.set(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        warmedUp.set(true);
+        log.info("✅ [Warm-up] 예열 완료 ({} ms)", warmupMillis.get());
+    }
+
+    private void warmUpDatabase() {
+        // 샤딩 시 shard 마다 풀이 따로 있으므로 모든 shard 를 예열
+        shardRouter.fanOut(shard -> {
+            warmUpShard();
+            return null;
+        });
+    }
+
+    private void warmUpShard() {
+        // 커넥션을 동시에 빌려서 풀을 미리 채움
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                borrowed.add(dataSource.getConnection());
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [Warm-up] DB 커넥션 예열 실패: {}", e.getMessage());
+        } finally {
+            borrowed.forEach(this::closeQuietly);
+        }
+
+        // 핫패스 쿼리 (존재 확인 / 단건 조회) 실행 계획 캐시
+        for (int i = 0; i < Math.min(iterations, 20); i++) {
+            paymentRepository.existsByTripId("warmup-" + i);
+            paymentRepository.findByTripId("warmup-" + i);
+        }
+    }
+
+    private Mono<Void> warmUpHttpConnections() {
+        // 클라이언트와 같은 커넥터(커넥션 풀)를 공유하는 빌더로 health 엔드포인트를 동시에 호출
+        return Flux.fromIterable(serviceUrls)
+                   .flatMap(url -> {
+                       WebClient webClient = webClientBuilder.clone().baseUrl(url).build();
+                       return Flux.range(0, connections)
+                                  .flatMap(i -> webClient.get()
+                                                         .uri("/actuator/health")
+                                                         .retrieve()
+                                                         .toBodilessEntity()
+                                                         .onErrorResume(e -> Mono.empty()));
+                   })
+                   .then();
+    }
+
+    private void warmUpSerialization() {
+        try {
+            for (int i = 0; i < iterations; i++) {
+                TripCompletedEvent event = objectMapper.readValue(SAMPLE_TRIP_EVENT, TripCompletedEvent.class);
+                objectMapper.readValue(SAMPLE_FARE, PricingServiceClient.FareResponse.class);
+                objectMapper.readValue(SAMPLE_USER_INFO, UserServiceClient.UserInfoForPaymentResponse.class);
+                objectMapper.writeValueAsString(new PaymentCompletedEvent(event.tripId(), 15000, event.userId()));
+                objectMapper.writeValueAsString(new PaymentFailedEvent(event.tripId(), "warmup"));
+                objectMapper.writeValueAsString(new TripCompletedEvent(event.tripId(), event.userId(), 1, 1, LocalDateTime.now()));
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [Warm-up] 직렬화 예열 실패: {}", e.getMessage());
+        }
+    }
+
+    // Consumer 가 레코드 처리를 마칠 때마다 호출 (첫 결제까지 걸린 시간 + 파이프라인 지연 분포)
+    public void onPaymentProcessed(Duration elapsed) {
+        pipelineTimer.record(elapsed);
+        if (firstPaymentMillis.get() < 0) {
+            long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            if (firstPaymentMillis.compareAndSet(-1, sinceJvmStart)) {
+                log.info("⏱️ [Startup] 첫 결제 처리 완료. JVM 시작 후 {} ms", sinceJvmStart);
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        return warmedUp.get()
+                ? Health.up().withDetail("warmupMillis", warmupMillis.get()).build()
+                : Health.outOfService().withDetail("reason", "warm-up in progress").build();
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (Exception ignored) {
+            // 반납 실패는 무시
+        }
+    }
+}
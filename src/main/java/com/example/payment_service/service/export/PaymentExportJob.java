@@ -0,0 +1,69 @@
+package com.example.payment_service.service.export;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 추출 작업 1건의 진행 상태 (in-memory, 파드 재시작 시 사라짐)
+@Getter
+public class PaymentExportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String jobId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final int slices;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong rows = new AtomicLong();
+    private final List<Path> files = new CopyOnWriteArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile long elapsedNanos;
+    private volatile String error;
+
+    public PaymentExportJob(String jobId, LocalDateTime from, LocalDateTime to, int slices) {
+        this.jobId = jobId;
+        this.from = from;
+        this.to = to;
+        this.slices = slices;
+    }
+
+    void addRows(int count) {
+        rows.addAndGet(count);
+    }
+
+    void addFile(Path file) {
+        files.add(file);
+    }
+
+    void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void finish(Status status, String error) {
+        this.elapsedNanos = System.nanoTime() - startNanos;
+        this.finishedAt = LocalDateTime.now();
+        this.error = error;
+        this.status = status;
+    }
+
+    public Duration elapsed() {
+        return Duration.ofNanos(status == Status.RUNNING ? System.nanoTime() - startNanos : elapsedNanos);
+    }
+
+    public double rowsPerSecond() {
+        double seconds = elapsed().toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? rows.get() / seconds : 0;
+    }
+}
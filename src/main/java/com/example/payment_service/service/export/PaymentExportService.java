@@ -0,0 +1,232 @@
+package com.example.payment_service.service.export;
+
+import com.example.payment_service.dto.PaymentExportRow;
+import com.example.payment_service.exception.InvalidExportRequestException;
+import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.shard.ShardRouter;
+import com.example.payment_service.replica.ReadRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 재무팀 정산 추출: 기간 내 payments 를 gzip CSV 파일로 내보냅니다.
+ *
+ * 기간을 slice 개로 나눠 slice 마다 writer 1개가 (requestedAt, id) keyset 페이지로 앞으로만 읽고 바로 압축 스트림에 씁니다.
+ * 한 번에 메모리에 있는 행은 writer 당 page-size 건뿐이라 기간 길이와 무관하게 메모리 사용량이 일정합니다.
+ */
+@Service
+@Slf4j
+public class PaymentExportService implements DisposableBean {
+
+    static final String CSV_HEADER = "payment_id,trip_id,user_id,amount,status,pg_transaction_id,requested_at,completed_at";
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+
+    private final PaymentRepository paymentRepository;
+    private final ShardRouter shardRouter;
+    private final Path exportDir;
+    private final int pageSize;
+    private final int maxSlices;
+    private final int maxRunningJobs;
+    private final int retainedJobs;
+    private final ExecutorService writerExecutor;
+    private final Counter exportedRows;
+    private final Map<String, PaymentExportJob> jobs = new ConcurrentHashMap<>();
+
+    public PaymentExportService(PaymentRepository paymentRepository,
+                                ShardRouter shardRouter,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.export.dir:./exports}") Path exportDir,
+                                @Value("${payment.export.writer-threads:4}") int writerThreads,
+                                @Value("${payment.export.page-size:2000}") int pageSize,
+                                @Value("${payment.export.max-slices:32}") int maxSlices,
+                                @Value("${payment.export.max-running-jobs:2}") int maxRunningJobs,
+                                @Value("${payment.export.retained-jobs:50}") int retainedJobs) {
+        this.paymentRepository = paymentRepository;
+        this.shardRouter = shardRouter;
+        this.exportDir = exportDir;
+        this.pageSize = pageSize;
+        this.maxSlices = maxSlices;
+        this.maxRunningJobs = maxRunningJobs;
+        this.retainedJobs = retainedJobs;
+        this.writerExecutor = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-export-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.exportedRows = Counter.builder("payment.export.rows").register(meterRegistry);
+    }
+
+    public PaymentExportJob start(LocalDateTime from, LocalDateTime to, int slices) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidExportRequestException("추출 기간이 올바르지 않습니다. (from < to)");
+        }
+        if (slices < 1 || slices > maxSlices) {
+            throw new InvalidExportRequestException("slices 는 1~" + maxSlices + " 사이여야 합니다.");
+        }
+        long running = jobs.values().stream().filter(job -> job.getStatus() == PaymentExportJob.Status.RUNNING).count();
+        if (running >= maxRunningJobs) {
+            throw new InvalidExportRequestException("이미 진행 중인 추출 작업이 너무 많습니다. (최대 " + maxRunningJobs + "개)");
+        }
+
+        String jobId = from.format(DateTimeFormatter.BASIC_ISO_DATE) + "-" + UUID.randomUUID().toString().substring(0, 8);
+        PaymentExportJob job = new PaymentExportJob(jobId, from, to, slices);
+        Path jobDir = exportDir.resolve(jobId);
+
+        try {
+            Files.createDirectories(jobDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("추출 디렉터리 생성 실패: " + jobDir, e);
+        }
+
+        jobs.put(jobId, job);
+        evictFinishedJobs();
+        log.info("📦 [Export] 결제 추출 시작. Job: {}, 기간: {} ~ {}, Slices: {}", jobId, from, to, slices);
+
+        // 기간을 균등하게 나눠 slice 마다 독립 writer 로 병렬 처리 (샤딩 시 slice x shard 마다 파일 1개)
+        Duration sliceLength = Duration.between(from, to).dividedBy(slices);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int i = 0; i < slices; i++) {
+            LocalDateTime sliceFrom = from.plus(sliceLength.multipliedBy(i));
+            LocalDateTime sliceTo = i == slices - 1 ? to : from.plus(sliceLength.multipliedBy(i + 1));
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int target = shard;
+                Path file = jobDir.resolve(shardRouter.shardCount() == 1
+                        ? String.format("payments-%03d.csv.gz", i)
+                        : String.format("payments-%03d-shard%02d.csv.gz", i, shard));
+                writers.add(CompletableFuture.runAsync(() -> shardRouter.callOn(target, () -> ReadRoute.onReplica(() -> {
+                    writeSlice(job, sliceFrom, sliceTo, file);
+                    return null;
+                })), writerExecutor));
+            }
+        }
+
+        CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new))
+                         .whenComplete((ignored, error) -> {
+                             if (error != null) {
+                                 job.fail(error.getMessage());
+                                 log.error("💀 [Export] 결제 추출 실패. Job: {}", jobId, error);
+                                 return;
+                             }
+                             job.complete();
+                             log.info("✅ [Export] 결제 추출 완료. Job: {}, Rows: {}, 소요: {}ms, 처리량: {} rows/s",
+                                     jobId, job.getRows().get(), job.elapsed().toMillis(), Math.round(job.rowsPerSecond()));
+                         });
+
+        return job;
+    }
+
+    public Optional<PaymentExportJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public List<PaymentExportJob> list() {
+        return jobs.values().stream()
+                   .sorted(Comparator.comparing(PaymentExportJob::getStartedAt).reversed())
+                   .toList();
+    }
+
+    private void writeSlice(PaymentExportJob job, LocalDateTime from, LocalDateTime to, Path file) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), IO_BUFFER_BYTES), StandardCharsets.UTF_8), IO_BUFFER_BYTES)) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+
+            LocalDateTime afterRequestedAt = from;
+            Long afterId = 0L;
+            while (true) {
+                List<PaymentExportRow> page = paymentRepository.findExportPage(afterRequestedAt, afterId, to, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) break;
+
+                for (PaymentExportRow row : page) {
+                    writeRow(writer, row);
+                }
+                job.addRows(page.size());
+                exportedRows.increment(page.size());
+
+                PaymentExportRow last = page.get(page.size() - 1);
+                afterRequestedAt = last.requestedAt();
+                afterId = last.id();
+
+                if (page.size() < pageSize) break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("추출 파일 쓰기 실패: " + file, e);
+        }
+        job.addFile(file);
+    }
+
+    private void writeRow(Writer writer, PaymentExportRow row) throws IOException {
+        writeField(writer, row.paymentId());
+        writer.write(',');
+        writeField(writer, row.tripId());
+        writer.write(',');
+        writeField(writer, row.userId());
+        writer.write(',');
+        writer.write(String.valueOf(row.amount()));
+        writer.write(',');
+        writer.write(row.status().name());
+        writer.write(',');
+        writeField(writer, row.pgTransactionId());
+        writer.write(',');
+        writer.write(row.requestedAt().toString());
+        writer.write(',');
+        writer.write(row.completedAt() == null ? "" : row.completedAt().toString());
+        writer.write('\n');
+    }
+
+    // 외부에서 들어온 문자열 필드는 RFC 4180 규칙으로 씀: 쉼표/따옴표/줄바꿈이 있으면 큰따옴표로 감싸고 안의 따옴표는 두 번
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // 끝난 작업 기록은 최근 retainedJobs 개만 유지
+    private void evictFinishedJobs() {
+        List<PaymentExportJob> finished = jobs.values().stream()
+                                              .filter(job -> job.getStatus() != PaymentExportJob.Status.RUNNING)
+                                              .sorted(Comparator.comparing(PaymentExportJob::getStartedAt))
+                                              .toList();
+        for (int i = 0; i < finished.size() - retainedJobs; i++) {
+            jobs.remove(finished.get(i).getJobId());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        writerExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.payment_service.service.fare;
+
+import com.example.payment_service.client.PricingServiceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.OptionalInt;
+
+/**
+ * 결제 요금 결정 (payment.fare.mode).
+ *
+ * off    : 기존처럼 pricing-service 원격 계산만 사용
+ * shadow : 원격 결과로 과금하고, 같은 입력으로 로컬 계산을 돌려 일치 여부만 집계 (payment.fare.shadow.compare)
+ * local  : 로컬 스냅샷으로 계산. 쓸 수 있는 스냅샷이 없을 때만 원격 계산으로 대체
+ */
+@Service
+@Slf4j
+public class FareQuoteService {
+
+    public enum Mode { OFF, SHADOW, LOCAL }
+
+    private final PricingServiceClient pricingServiceClient;
+    private final LocalFareEngine localFareEngine;
+    private final Mode mode;
+    private final int mismatchTolerance;
+
+    private final Counter localQuotes;
+    private final Counter remoteQuotes;
+    private final Counter shadowMatch;
+    private final Counter shadowMismatch;
+    private final Counter shadowUnavailable;
+
+    public FareQuoteService(PricingServiceClient pricingServiceClient,
+                            LocalFareEngine localFareEngine,
+                            MeterRegistry meterRegistry,
+                            @Value("${payment.fare.mode:off}") String mode,
+                            @Value("${payment.fare.shadow.mismatch-tolerance:0}") int mismatchTolerance) {
+        this.pricingServiceClient = pricingServiceClient;
+        this.localFareEngine = localFareEngine;
+        this.mode = Mode.valueOf(mode.toUpperCase());
+        this.mismatchTolerance = mismatchTolerance;
+
+        this.localQuotes = Counter.builder("payment.fare.quotes").tag("source", "local").register(meterRegistry);
+        this.remoteQuotes = Counter.builder("payment.fare.quotes").tag("source", "remote").register(meterRegistry);
+        this.shadowMatch = Counter.builder("payment.fare.shadow.compare").tag("result", "match").register(meterRegistry);
+        this.shadowMismatch = Counter.builder("payment.fare.shadow.compare").tag("result", "mismatch").register(meterRegistry);
+        this.shadowUnavailable = Counter.builder("payment.fare.shadow.compare").tag("result", "unavailable").register(meterRegistry);
+    }
+
+    public Mono<PricingServiceClient.FareResponse> calculateFare(String tripId, Integer distance, Integer duration, LocalDateTime endedAt) {
+        if (mode == Mode.LOCAL) {
+            OptionalInt localFare = localFare(distance, duration, endedAt);
+            if (localFare.isPresent()) {
+                localQuotes.increment();
+                return Mono.just(new PricingServiceClient.FareResponse(localFare.getAsInt()));
+            }
+        }
+
+        Mono<PricingServiceClient.FareResponse> remote = pricingServiceClient.calculateFare(tripId, distance, duration, endedAt)
+                                                                             .doOnNext(response -> remoteQuotes.increment());
+        if (mode == Mode.SHADOW) {
+            return remote.doOnNext(response -> compare(tripId, distance, duration, endedAt, response.fare()));
+        }
+        return remote;
+    }
+
+    private void compare(String tripId, Integer distance, Integer duration, LocalDateTime endedAt, Integer remoteFare) {
+        OptionalInt localFare = localFare(distance, duration, endedAt);
+        if (localFare.isEmpty() || remoteFare == null) {
+            shadowUnavailable.increment();
+            return;
+        }
+        if (Math.abs(localFare.getAsInt() - remoteFare) <= mismatchTolerance) {
+            shadowMatch.increment();
+            return;
+        }
+        shadowMismatch.increment();
+        log.warn("🔍 [Fare] 로컬/원격 요금 불일치. TripID: {}, Local: {}, Remote: {}, Version: {}, Distance: {}, Duration: {}, EndedAt: {}",
+                tripId, localFare.getAsInt(), remoteFare, localFareEngine.currentVersion(), distance, duration, endedAt);
+    }
+
+    private OptionalInt localFare(Integer distance, Integer duration, LocalDateTime endedAt) {
+        if (distance == null || duration == null) {
+            return OptionalInt.empty();
+        }
+        return localFareEngine.calculate(distance, duration, endedAt);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.payment_service.service.fare;
+
+import com.example.payment_service.client.PricingServiceClient;
+import com.example.payment_service.dto.PricingRuleSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * pricing-service 요금 규칙 스냅샷을 메모리에 들고 요금을 프로세스 안에서 계산합니다.
+ *
+ * 스냅샷은 refresh-interval 마다 통째로 받아 교체하고(버전이 같으면 수신 시각만 갱신), 조회에 실패하면 이전 스냅샷을 계속 씁니다.
+ * 마지막 수신 후 max-age 가 지난 스냅샷은 쓰지 않습니다. (규칙 변경을 오래 놓친 상태로 과금하지 않도록)
+ * 스냅샷은 파드마다 따로 들고 있으므로 갱신에 SchedulerLock 을 걸지 않습니다.
+ */
+@Component
+@Slf4j
+public class LocalFareEngine {
+
+    private record LoadedSnapshot(PricingRuleSnapshot rules, Instant fetchedAt) {}
+
+    private final PricingServiceClient pricingServiceClient;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final AtomicReference<LoadedSnapshot> current = new AtomicReference<>();
+    private final Counter refreshFailures;
+
+    public LocalFareEngine(PricingServiceClient pricingServiceClient,
+                           MeterRegistry meterRegistry,
+                           @Value("${payment.fare.mode:off}") String mode,
+                           @Value("${payment.fare.snapshot.max-age:10m}") Duration maxAge) {
+        this.pricingServiceClient = pricingServiceClient;
+        this.enabled = !"off".equalsIgnoreCase(mode);
+        this.maxAge = maxAge;
+        this.refreshFailures = Counter.builder("payment.fare.snapshot.refresh.failures").register(meterRegistry);
+        Gauge.builder("payment.fare.snapshot.age", this, engine -> {
+                 LoadedSnapshot loaded = engine.current.get();
+                 return loaded == null ? Double.NaN : Duration.between(loaded.fetchedAt(), Instant.now()).toMillis() / 1000.0;
+             })
+             .baseUnit("seconds")
+             .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.fare.snapshot.refresh-interval:60s}")
+    public void refresh() {
+        if (!enabled) return;
+
+        try {
+            PricingRuleSnapshot rules = pricingServiceClient.fetchRuleSnapshot().block();
+            if (rules == null) return;
+
+            LoadedSnapshot previous = current.getAndSet(new LoadedSnapshot(rules, Instant.now()));
+            if (previous == null || !previous.rules().version().equals(rules.version())) {
+                log.info("💰 [Fare] 요금 규칙 스냅샷 교체. Version: {} -> {}",
+                        previous == null ? "-" : previous.rules().version(), rules.version());
+            }
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.warn("⚠️ [Fare] 요금 규칙 스냅샷 갱신 실패. 이전 스냅샷 유지. Error: {}", e.getMessage());
+        }
+    }
+
+    // 쓸 수 있는 스냅샷이 없으면(미수신/만료) empty → 호출 측이 원격 계산으로 대체
+    public OptionalInt calculate(int distanceMeters, int durationSeconds, LocalDateTime endedAt) {
+        LoadedSnapshot loaded = current.get();
+        if (loaded == null || Duration.between(loaded.fetchedAt(), Instant.now()).compareTo(maxAge) > 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(evaluate(loaded.rules(), distanceMeters, durationSeconds, endedAt));
+    }
+
+    public String currentVersion() {
+        LoadedSnapshot loaded = current.get();
+        return loaded == null ? null : loaded.rules().version();
+    }
+
+    static int evaluate(PricingRuleSnapshot rules, int distanceMeters, int durationSeconds, LocalDateTime endedAt) {
+        double fare = rules.baseFare()
+                + rules.perMeter() * distanceMeters
+                + rules.perSecond() * durationSeconds;
+
+        // 종료 시각이 속한 첫 번째 시간대 할증만 적용
+        if (rules.timeBands() != null && endedAt != null) {
+            for (PricingRuleSnapshot.TimeBand band : rules.timeBands()) {
+                if (band.contains(endedAt.toLocalTime())) {
+                    fare *= band.multiplier();
+                    break;
+                }
+            }
+        }
+
+        fare = Math.max(fare, rules.minimumFare());
+        int unit = Math.max(1, rules.roundingUnit());
+        return (int) (Math.round(fare / unit) * unit);
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.payment_service.service.reconciliation;
+
+import com.example.payment_service.dto.PaymentReconciliationRow;
+import com.example.payment_service.entity.PaymentStatus;
+import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.shard.ShardRouter;
+import com.example.payment_service.replica.ReadRoute;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * PG 정산 파일 ↔ payments 테이블 대사.
+ *
+ * 양쪽을 모두 힙에 올리지 않도록 grace hash join 방식으로 처리합니다.
+ * 1) 정산 파일(mmap 스트리밍)과 payments(keyset 페이지)를 pgTransactionId 해시로 N 개 파티션 파일에 흘려 씀
+ * 2) 파티션별로 PG 쪽만 HashMap 에 올리고 우리 쪽을 스트리밍하며 비교 (파티션끼리는 병렬)
+ * 3) 불일치는 하나의 CSV 로 기록
+ * 메모리 사용량은 (전체 건수 / 파티션 수) x 병렬도 수준으로 제한됩니다.
+ */
+@Service
+@Slf4j
+public class PaymentReconciliationService {
+
+    private static final char SEP = '\t';
+
+    private final PaymentRepository paymentRepository;
+    private final ShardRouter shardRouter;
+    private final SettlementFileReader settlementFileReader;
+    private final Path workDir;
+    private final Path outputDir;
+    private final int partitions;
+    private final int parallelism;
+    private final int pageSize;
+    private final Duration windowSlack;
+    private final Timer durationTimer;
+    private final MeterRegistry meterRegistry;
+
+    public PaymentReconciliationService(PaymentRepository paymentRepository,
+                                        ShardRouter shardRouter,
+                                        SettlementFileReader settlementFileReader,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${payment.reconciliation.work-dir:${java.io.tmpdir}}") Path workDir,
+                                        @Value("${payment.reconciliation.output-dir:./reconciliation}") Path outputDir,
+                                        @Value("${payment.reconciliation.partitions:64}") int partitions,
+                                        @Value("${payment.reconciliation.parallelism:4}") int parallelism,
+                                        @Value("${payment.reconciliation.page-size:5000}") int pageSize,
+                                        @Value("${payment.reconciliation.window-slack:10m}") Duration windowSlack) {
+        this.paymentRepository = paymentRepository;
+        this.shardRouter = shardRouter;
+        this.settlementFileReader = settlementFileReader;
+        this.meterRegistry = meterRegistry;
+        this.workDir = workDir;
+        this.outputDir = outputDir;
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+        this.windowSlack = windowSlack;
+        this.durationTimer = Timer.builder("payment.reconciliation.duration").register(meterRegistry);
+    }
+
+    public ReconciliationReport reconcile(LocalDate settlementDate, Path settlementFile) throws IOException {
+        long start = System.nanoTime();
+        LocalDateTime dayStart = settlementDate.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+
+        Path spillDir = Files.createTempDirectory(Files.createDirectories(workDir), "reconciliation-" + settlementDate + "-");
+        Files.createDirectories(outputDir);
+        Path mismatchFile = outputDir.resolve("mismatches-" + settlementDate + ".csv");
+
+        log.info("🧮 [Reconciliation] 대사 시작. Date: {}, File: {}, Partitions: {}", settlementDate, settlementFile, partitions);
+
+        try {
+            // 1) 양쪽을 파티션 파일로 분배
+            long pgRecords;
+            try (PartitionWriters pgWriters = new PartitionWriters(spillDir, "pg", partitions)) {
+                pgRecords = settlementFileReader.read(settlementFile, record ->
+                        pgWriters.write(record.pgTransactionId(),
+                                record.pgTransactionId() + SEP + record.status() + SEP + record.amount()));
+            }
+
+            long localRows;
+            try (PartitionWriters localWriters = new PartitionWriters(spillDir, "local", partitions)) {
+                // PG 승인 시각과 우리 요청 시각이 자정 근처에서 엇갈리므로 앞뒤로 여유를 두고 읽음
+                localRows = streamLocalRows(dayStart.minus(windowSlack), dayEnd.plus(windowSlack), row ->
+                        localWriters.write(row.pgTransactionId(),
+                                row.pgTransactionId() + SEP + row.tripId() + SEP + row.status() + SEP + row.amount() + SEP + row.requestedAt()));
+            }
+
+            // 2) 파티션별 비교 (병렬)
+            AtomicLong matched = new AtomicLong();
+            AtomicLongArray mismatchCounts = new AtomicLongArray(ReconciliationMismatch.Type.values().length);
+
+            try (BufferedWriter out = Files.newBufferedWriter(mismatchFile, StandardCharsets.UTF_8)) {
+                out.write(ReconciliationMismatch.CSV_HEADER);
+                out.newLine();
+
+                ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+                try {
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (int p = 0; p < partitions; p++) {
+                        int partition = p;
+                        futures.add(executor.submit(() -> {
+                            diffPartition(spillDir, partition, dayStart, dayEnd, matched, mismatch -> {
+                                mismatchCounts.incrementAndGet(mismatch.type().ordinal());
+                                writeLine(out, mismatch.toCsvLine());
+                            });
+                            return null;
+                        }));
+                    }
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                } catch (Exception e) {
+                    throw new IOException("대사 파티션 비교 실패", e);
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            Map<ReconciliationMismatch.Type, Long> mismatches = new EnumMap<>(ReconciliationMismatch.Type.class);
+            for (ReconciliationMismatch.Type type : ReconciliationMismatch.Type.values()) {
+                long count = mismatchCounts.get(type.ordinal());
+                mismatches.put(type, count);
+                meterRegistry.counter("payment.reconciliation.mismatches", "type", type.name()).increment(count);
+            }
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            durationTimer.record(elapsed);
+            ReconciliationReport report = new ReconciliationReport(settlementDate, pgRecords, localRows, matched.get(), mismatches, mismatchFile, elapsed);
+
+            log.info("✅ [Reconciliation] 대사 완료. Date: {}, PG: {}건, Local: {}건, 일치: {}건, 불일치: {}건, 소요: {}s, 결과: {}",
+                    settlementDate, pgRecords, localRows, report.matched(), report.totalMismatches(), elapsed.toSeconds(), mismatchFile);
+            return report;
+        } finally {
+            deleteQuietly(spillDir);
+        }
+    }
+
+    // shard 마다 keyset 을 범위 시작부터 따로 읽음 (파티션 writer 가 스레드 안전하지 않아 순차)
+    private long streamLocalRows(LocalDateTime from, LocalDateTime to, Consumer<PaymentReconciliationRow> consumer) {
+        long rows = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            rows += shardRouter.callOn(shard, () -> ReadRoute.onReplica(() -> streamShardRows(from, to, consumer)));
+        }
+        return rows;
+    }
+
+    private long streamShardRows(LocalDateTime from, LocalDateTime to, Consumer<PaymentReconciliationRow> consumer) {
+        long rows = 0;
+        LocalDateTime afterRequestedAt = from;
+        long afterId = 0L;
+        while (true) {
+            List<PaymentReconciliationRow> page = paymentRepository.findReconciliationPage(afterRequestedAt, afterId, to, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) break;
+
+            page.forEach(consumer);
+            rows += page.size();
+            PaymentReconciliationRow last = page.get(page.size() - 1);
+            afterRequestedAt = last.requestedAt();
+            afterId = last.id();
+
+            if (page.size() < pageSize) break;
+        }
+        return rows;
+    }
+
+    private void diffPartition(Path spillDir, int partition, LocalDateTime dayStart, LocalDateTime dayEnd,
+                               AtomicLong matched, Consumer<ReconciliationMismatch> sink) throws IOException {
+        // PG 쪽 파티션만 메모리에 올림 (같은 거래가 승인 후 취소로 두 번 나오면 나중 줄이 최종 상태)
+        Map<String, SettlementRecord> pgSide = new HashMap<>();
+        forEachLine(PartitionWriters.path(spillDir, "pg", partition), fields ->
+                pgSide.put(fields[0], new SettlementRecord(fields[0], fields[1], Long.parseLong(fields[2]))));
+
+        forEachLine(PartitionWriters.path(spillDir, "local", partition), fields -> {
+            String pgTransactionId = fields[0];
+            String tripId = fields[1];
+            PaymentStatus status = PaymentStatus.valueOf(fields[2]);
+            Integer amount = Integer.valueOf(fields[3]);
+            LocalDateTime requestedAt = LocalDateTime.parse(fields[4]);
+
+            SettlementRecord pg = pgSide.remove(pgTransactionId);
+            ReconciliationMismatch.Type type = classify(status, amount, pg, requestedAt, dayStart, dayEnd);
+            if (type == null) {
+                if (pg != null) matched.incrementAndGet();
+                return;
+            }
+            sink.accept(new ReconciliationMismatch(type, pgTransactionId, tripId, status,
+                    pg == null ? null : pg.status(), amount, pg == null ? null : pg.amount()));
+        });
+
+        // 우리 쪽에 없는 PG 승인 건
+        for (SettlementRecord pg : pgSide.values()) {
+            if (pg.isPaid()) {
+                sink.accept(new ReconciliationMismatch(ReconciliationMismatch.Type.MISSING_LOCALLY,
+                        pg.pgTransactionId(), null, null, pg.status(), null, pg.amount()));
+            }
+        }
+    }
+
+    // 불일치 유형. 일치하거나 판단 대상이 아니면 null
+    static ReconciliationMismatch.Type classify(PaymentStatus status, Integer amount, SettlementRecord pg,
+                                                LocalDateTime requestedAt, LocalDateTime dayStart, LocalDateTime dayEnd) {
+        if (status == PaymentStatus.UNKNOWN) {
+            return ReconciliationMismatch.Type.LOCAL_UNKNOWN;
+        }
+        if (pg == null) {
+            // 여유 구간(전날/다음날)에 걸친 건은 해당 날짜 정산 파일에서 확인
+            boolean inDay = !requestedAt.isBefore(dayStart) && requestedAt.isBefore(dayEnd);
+            return status == PaymentStatus.COMPLETED && inDay ? ReconciliationMismatch.Type.MISSING_IN_PG : null;
+        }
+        if (pg.isPaid()) {
+            if (status != PaymentStatus.COMPLETED) {
+                return ReconciliationMismatch.Type.PAID_BUT_NOT_COMPLETED;
+            }
+            return pg.amount() != amount.longValue() ? ReconciliationMismatch.Type.AMOUNT_MISMATCH : null;
+        }
+        // PG 취소 건
+        return status == PaymentStatus.COMPLETED ? ReconciliationMismatch.Type.CANCELED_BUT_COMPLETED : null;
+    }
+
+    private interface LineHandler {
+        void accept(String[] fields) throws IOException;
+    }
+
+    private static void forEachLine(Path path, LineHandler handler) throws IOException {
+        if (!Files.exists(path)) return;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                handler.accept(line.split(String.valueOf(SEP), -1));
+            }
+        }
+    }
+
+    private static void writeLine(BufferedWriter out, String line) {
+        synchronized (out) {
+            try {
+                out.write(line);
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> file.toFile().delete());
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            log.warn("⚠️ [Reconciliation] 임시 파티션 파일 정리 실패: {}", dir);
+        }
+    }
+
+    // pgTransactionId 해시로 나눈 파티션별 spill 파일 writer 묶음
+    private static final class PartitionWriters implements AutoCloseable {
+
+        private final BufferedWriter[] writers;
+
+        PartitionWriters(Path dir, String side, int partitions) throws IOException {
+            this.writers = new BufferedWriter[partitions];
+            for (int i = 0; i < partitions; i++) {
+                writers[i] = Files.newBufferedWriter(path(dir, side, i), StandardCharsets.UTF_8);
+            }
+        }
+
+        static Path path(Path dir, String side, int partition) {
+            return dir.resolve(side + "-" + partition + ".tsv");
+        }
+
+        void write(String key, String line) {
+            try {
+                BufferedWriter writer = writers[Math.floorMod(key.hashCode(), writers.length)];
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (BufferedWriter writer : writers) {
+                writer.close();
+            }
+        }
+    }
+}
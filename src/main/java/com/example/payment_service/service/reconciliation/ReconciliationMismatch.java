@@ -0,0 +1,40 @@
+package com.example.payment_service.service.reconciliation;
+
+import com.example.payment_service.entity.PaymentStatus;
+
+public record ReconciliationMismatch(
+        Type type,
+        String pgTransactionId,
+        String tripId,
+        PaymentStatus localStatus,
+        String pgStatus,
+        Integer localAmount,
+        Long pgAmount
+) {
+
+    public enum Type {
+        PAID_BUT_NOT_COMPLETED,   // PG 는 승인, 우리는 FAILED/PROCESSING 등 (환불 또는 완료 처리 필요)
+        CANCELED_BUT_COMPLETED,   // PG 는 취소, 우리는 COMPLETED
+        AMOUNT_MISMATCH,          // 양쪽 승인이지만 금액 불일치
+        MISSING_IN_PG,            // 우리는 COMPLETED, PG 정산 파일에 없음
+        MISSING_LOCALLY,          // PG 는 승인, 우리 DB 에 해당 거래 없음
+        LOCAL_UNKNOWN             // 우리 쪽 UNKNOWN (PG 상태를 보고 수기 확정 필요)
+    }
+
+    public static final String CSV_HEADER = "type,pg_transaction_id,trip_id,local_status,pg_status,local_amount,pg_amount";
+
+    public String toCsvLine() {
+        return String.join(",",
+                type.name(),
+                nullToEmpty(pgTransactionId),
+                nullToEmpty(tripId),
+                localStatus == null ? "" : localStatus.name(),
+                nullToEmpty(pgStatus),
+                localAmount == null ? "" : localAmount.toString(),
+                pgAmount == null ? "" : pgAmount.toString());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
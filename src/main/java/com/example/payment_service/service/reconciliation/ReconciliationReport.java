@@ -0,0 +1,21 @@
+package com.example.payment_service.service.reconciliation;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+public record ReconciliationReport(
+        LocalDate settlementDate,
+        long pgRecords,
+        long localRows,
+        long matched,
+        Map<ReconciliationMismatch.Type, Long> mismatches,
+        Path mismatchFile,
+        Duration elapsed
+) {
+
+    public long totalMismatches() {
+        return mismatches.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.payment_service.service.reconciliation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * PG 정산 파일 스트리밍 리더.
+ *
+ * 파일을 window 단위로 memory-map 해서 한 줄씩 파싱하고 바로 consumer 로 넘기므로, 파일 크기와 무관하게 힙 사용량이 일정합니다.
+ * - csv: 거래번호,상태,금액[,...] (첫 줄이 헤더면 건너뜀. 따옴표로 감싼 필드는 지원하지 않음)
+ * - fixed-width: payment.reconciliation.fixed-width 의 시작-끝 컬럼 위치로 잘라냄
+ */
+@Component
+@Slf4j
+public class SettlementFileReader {
+
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final String format;
+    private final int[][] fixedWidthColumns;
+
+    public SettlementFileReader(@Value("${payment.reconciliation.file-format:csv}") String format,
+                                @Value("${payment.reconciliation.fixed-width:0-20,20-30,30-42}") String fixedWidth) {
+        this.format = format.toLowerCase(Locale.ROOT);
+        this.fixedWidthColumns = Arrays.stream(fixedWidth.split(","))
+                                       .map(String::trim)
+                                       .map(span -> span.split("-"))
+                                       .map(span -> new int[]{Integer.parseInt(span[0]), Integer.parseInt(span[1])})
+                                       .toArray(int[][]::new);
+    }
+
+    // 읽은 레코드 수를 반환. 파싱할 수 없는 줄(헤더, 빈 줄, 깨진 줄)은 건너뜀
+    public long read(Path file, Consumer<SettlementRecord> consumer) throws IOException {
+        long records = 0;
+        long skipped = 0;
+        byte[] line = new byte[256];
+        int length = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_BYTES, size - position));
+
+                // window 경계에 걸친 줄은 line 버퍼에 남겨 두었다가 다음 window 에서 이어 붙임
+                while (window.hasRemaining()) {
+                    byte b = window.get();
+                    if (b == '\n') {
+                        SettlementRecord record = parse(line, length);
+                        if (record != null) {
+                            consumer.accept(record);
+                            records++;
+                        } else if (length > 0) {
+                            skipped++;
+                        }
+                        length = 0;
+                    } else if (b != '\r') {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[length++] = b;
+                    }
+                }
+            }
+        }
+
+        // 마지막 줄에 개행이 없는 경우
+        SettlementRecord last = parse(line, length);
+        if (last != null) {
+            consumer.accept(last);
+            records++;
+        }
+
+        log.info("📄 [Reconciliation] 정산 파일 읽기 완료. File: {}, Records: {}, Skipped: {}", file, records, skipped);
+        return records;
+    }
+
+    private SettlementRecord parse(byte[] line, int length) {
+        if (length == 0) return null;
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+
+        String[] fields = "fixed-width".equals(format) ? sliceFixedWidth(text) : text.split(",", -1);
+        if (fields == null || fields.length < 3) return null;
+
+        try {
+            String pgTransactionId = fields[0].trim();
+            if (pgTransactionId.isEmpty()) return null;
+            long amount = Long.parseLong(fields[2].trim());
+            return new SettlementRecord(pgTransactionId, fields[1].trim().toUpperCase(Locale.ROOT), amount);
+        } catch (NumberFormatException e) {
+            return null; // 헤더 또는 깨진 줄
+        }
+    }
+
+    private String[] sliceFixedWidth(String text) {
+        String[] fields = new String[fixedWidthColumns.length];
+        for (int i = 0; i < fixedWidthColumns.length; i++) {
+            int start = fixedWidthColumns[i][0];
+            int end = Math.min(fixedWidthColumns[i][1], text.length());
+            if (start >= end) return null;
+            fields[i] = text.substring(start, end);
+        }
+        return fields;
+    }
+}
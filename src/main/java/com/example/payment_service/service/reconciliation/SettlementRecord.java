@@ -0,0 +1,9 @@
+package com.example.payment_service.service.reconciliation;
+
+// PG 정산 파일의 한 줄 (거래 번호 / PG 상태 / 금액)
+public record SettlementRecord(String pgTransactionId, String status, long amount) {
+
+    public boolean isPaid() {
+        return "PAID".equals(status) || "APPROVED".equals(status);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.payment_service.shard;
+
+/**
+ * 현재 스레드가 사용할 shard 번호. ShardRoutingDataSource 가 커넥션을 얻을 때 이 값을 lookup key 로 씁니다.
+ * 직접 set 하지 말고 ShardRouter.callOn / callFor 로 범위를 지정해서 사용합니다.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    // 지정되지 않았으면 null (기본 shard 0 으로 라우팅)
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.payment_service.shard;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 라우팅 datasource 앞의 지연 커넥션 프록시.
+ *
+ * JPA 트랜잭션은 시작 시점에 커넥션을 잡지만, 이 프록시 덕분에 실제 커넥션은 첫 SQL 에서 얻으므로
+ * 그 시점의 ShardContext / readOnly 여부로 shard 와 primary·복제본을 고를 수 있습니다. 종료 시 하위 풀도 함께 닫습니다.
+ */
+public class ShardDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final ShardRoutingDataSource routing;
+
+    public ShardDataSourceProxy(ShardRoutingDataSource routing) {
+        super(routing);
+        this.routing = routing;
+    }
+
+    @Override
+    public void close() throws IOException {
+        routing.close();
+    }
+}
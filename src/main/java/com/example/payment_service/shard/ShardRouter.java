@@ -0,0 +1,125 @@
+package com.example.payment_service.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * payments / payment_outbox 의 shard 라우팅.
+ *
+ * 결제는 tripId, outbox 는 aggregateId(= tripId) 의 CRC32 해시로 shard 를 정하므로 한 결제의 상태 전이와
+ * outbox insert 는 항상 같은 shard 의 한 트랜잭션에 들어갑니다. 키가 없는 스캔(relay, 구조 스케줄러, 대사/추출)은
+ * fanOut 으로 모든 shard 를 병렬로 돕니다. 샤딩이 꺼져 있으면 shard 는 0 하나뿐이고 라우팅은 아무 일도 하지 않습니다.
+ */
+@Component
+@Slf4j
+public class ShardRouter implements DisposableBean {
+
+    private final int shardCount;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(@Value("${payment.sharding.enabled:false}") boolean enabled,
+                       @Value("${payment.sharding.urls:}") List<String> urls) {
+        if (enabled && urls.isEmpty()) {
+            throw new IllegalStateException("payment.sharding.enabled=true 이면 payment.sharding.urls 가 필요합니다.");
+        }
+        this.shardCount = enabled ? urls.size() : 1;
+        // relay / 구조 스케줄러 / 지표 갱신이 동시에 fanOut 할 수 있어 고정 크기 풀이면 서로 대기하므로 cached 풀 사용
+        this.fanOutExecutor = shardCount > 1
+                ? Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "payment-shard-fanout");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    // 샤딩 없는 단일 DB 구성 (테스트 등)
+    public static ShardRouter single() {
+        return new ShardRouter(false, List.of());
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String key) {
+        if (shardCount == 1) return 0;
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    public <T> T callFor(String key, Supplier<T> work) {
+        return callOn(shardOf(key), work);
+    }
+
+    public void runFor(String key, Runnable work) {
+        callOn(shardOf(key), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        int current = previous == null ? 0 : previous;
+        // 이미 열린 트랜잭션은 다른 shard 커넥션을 쥐고 있으므로 안에서 shard 를 바꾸면 엉뚱한 DB 에 씀
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("트랜잭션 안에서 shard 를 바꿀 수 없습니다. (" + current + " -> " + shard + ")");
+        }
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * 모든 shard 에서 work 를 병렬로 실행하고 shard 순서대로 결과를 모읍니다. 한 shard 라도 실패하면 예외를 그대로 던집니다.
+     */
+    public <T> List<T> fanOut(IntFunction<T> work) {
+        if (shardCount == 1) {
+            List<T> single = new ArrayList<>(1);
+            single.add(callOn(0, () -> work.apply(0)));
+            return single;
+        }
+
+        List<CompletableFuture<T>> futures = IntStream.range(0, shardCount)
+                                                      .mapToObj(shard -> CompletableFuture.supplyAsync(
+                                                              () -> callOn(shard, () -> work.apply(shard)), fanOutExecutor))
+                                                      .toList();
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.payment_service.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardContext 의 shard 번호로 커넥션을 얻을 datasource 를 고릅니다. (지정이 없으면 shard 0)
+ * 라우팅은 커넥션을 얻는 시점(트랜잭션 시작)에 결정되므로, 트랜잭션 도중 shard 를 바꿔도 반영되지 않습니다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard == null ? 0 : shard;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    // shard 별 커넥션 풀(복제본 라우팅 포함)은 빈이 아니므로 컨텍스트 종료 시 직접 닫음
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.payment_service.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate 의 ddl-auto=update 는 라우팅 datasource 의 기본 shard(0) 에만 적용되므로,
+ * SessionFactory 기동 시 같은 매핑 메타데이터로 1..N-1 shard 에도 스키마 update 를 실행합니다.
+ */
+@Slf4j
+public class ShardSchemaUpdater implements Integrator {
+
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+
+    public ShardSchemaUpdater(ShardRouter shardRouter, boolean enabled) {
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        if (!enabled) return;
+
+        for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.callOn(shard, () -> {
+                new SchemaUpdate().execute(EnumSet.of(TargetType.DATABASE), metadata, sessionFactory.getServiceRegistry());
+                return null;
+            });
+            log.info("🧩 [Sharding] shard {} 스키마 update 완료", shard);
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.payment_service.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-based trace 샘플링 (payment.tracing.tail-sampling.enabled=true).
+ *
+ * head 샘플링(probability 1.0)으로 기록된 span 을 Zipkin 으로 보내기 전에 trace 단위로 메모리에 모아 두고,
+ * 로컬 root span 이 끝나거나 decision-wait 가 지나면 trace 전체를 보낼지 결정합니다.
+ * 에러 / 느린 span / 재시도·DLT·취소(보상) 키워드가 있는 trace 는 항상 보내고, 나머지 정상 trace 는 healthy-ratio 만큼만 보냅니다.
+ * 버퍼는 max-traces, trace 당 max-spans-per-trace 로 제한하고, 넘치면 버퍼 없이 바로 확률 샘플링합니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Zipkin SpanHandler 보다 먼저 span 을 받아야 함
+@ConditionalOnProperty(name = "payment.tracing.tail-sampling.enabled", havingValue = "true")
+@Slf4j
+public class TailSamplingSpanHandler extends SpanHandler implements DisposableBean {
+
+    private record BufferedSpan(TraceContext context, MutableSpan span) {}
+
+    private static final class TraceBuffer {
+        final long createdNanos = System.nanoTime();
+        final List<BufferedSpan> spans = new ArrayList<>();
+        String keepReason;
+    }
+
+    private final AsyncZipkinSpanHandler delegate;
+    private final long slowThresholdMicros;
+    private final double healthyRatio;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long decisionWaitNanos;
+    private final List<String> keepKeywords;
+
+    private final Map<String, TraceBuffer> buffers = new ConcurrentHashMap<>();
+    // 결정이 끝난 뒤 늦게 끝나는 span 을 같은 결정으로 처리하기 위한 최근 결정 캐시
+    private final Map<String, Boolean> decided = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > maxTraces;
+        }
+    });
+    private final ScheduledExecutorService sweeper;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter dropped;
+    private final Counter overflow;
+
+    public TailSamplingSpanHandler(AsyncZipkinSpanHandler delegate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${payment.tracing.tail-sampling.slow-threshold:2s}") Duration slowThreshold,
+                                   @Value("${payment.tracing.tail-sampling.healthy-ratio:0.05}") double healthyRatio,
+                                   @Value("${payment.tracing.tail-sampling.max-traces:10000}") int maxTraces,
+                                   @Value("${payment.tracing.tail-sampling.max-spans-per-trace:256}") int maxSpansPerTrace,
+                                   @Value("${payment.tracing.tail-sampling.decision-wait:10s}") Duration decisionWait,
+                                   @Value("${payment.tracing.tail-sampling.keep-keywords:retry,dlt,cancel,compensat,rescue}") String keepKeywords) {
+        this.delegate = delegate;
+        this.slowThresholdMicros = slowThreshold.toNanos() / 1000;
+        this.healthyRatio = healthyRatio;
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.decisionWaitNanos = decisionWait.toNanos();
+        this.keepKeywords = Arrays.stream(keepKeywords.split(","))
+                                  .map(keyword -> keyword.trim().toLowerCase(Locale.ROOT))
+                                  .filter(keyword -> !keyword.isEmpty())
+                                  .toList();
+
+        this.meterRegistry = meterRegistry;
+        this.dropped = Counter.builder("payment.trace.tail.decisions").tag("decision", "dropped").register(meterRegistry);
+        this.overflow = Counter.builder("payment.trace.tail.overflow")
+                               .description("버퍼 한도를 넘어 tail 판단 없이 확률 샘플링된 span 수")
+                               .register(meterRegistry);
+        Gauge.builder("payment.trace.tail.buffered", buffers, Map::size)
+             .description("결정을 기다리며 버퍼에 있는 trace 수")
+             .register(meterRegistry);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tail-sampling-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(this::sweepExpired, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        // 버려진(abandoned) span 이나 head 샘플링에서 빠진 span 은 기존 체인대로
+        if (cause == Cause.ABANDONED || !Boolean.TRUE.equals(context.sampled())) {
+            return true;
+        }
+
+        String traceId = context.traceIdString();
+        Boolean earlier = decided.get(traceId);
+        if (earlier != null) {
+            if (earlier) delegate.end(context, span, cause);
+            return false;
+        }
+
+        String reason = keepReason(span);
+        boolean localRootEnded = span.id() != null && span.id().equals(span.localRootId());
+        List<BufferedSpan> ready = null;
+        String decision = null;
+
+        TraceBuffer buffer = buffers.get(traceId);
+        if (buffer == null && buffers.size() >= maxTraces) {
+            overflow.increment();
+            if (reason != null || ThreadLocalRandom.current().nextDouble() < healthyRatio) {
+                delegate.end(context, span, cause);
+            }
+            return false;
+        }
+        if (buffer == null) {
+            buffer = buffers.computeIfAbsent(traceId, id -> new TraceBuffer());
+        }
+
+        boolean alreadyFlushed = false;
+        synchronized (buffer) {
+            if (buffers.get(traceId) != buffer) {
+                // 그 사이 sweeper 가 이 trace 를 결정하고 내보낸 경우
+                alreadyFlushed = true;
+            } else if (buffer.spans.size() < maxSpansPerTrace) {
+                buffer.spans.add(new BufferedSpan(context, new MutableSpan(span)));
+            } else {
+                overflow.increment();
+            }
+            if (reason != null && buffer.keepReason == null) {
+                buffer.keepReason = reason;
+            }
+            if (localRootEnded && buffers.remove(traceId, buffer)) {
+                ready = new ArrayList<>(buffer.spans);
+                decision = buffer.keepReason;
+            }
+        }
+
+        if (alreadyFlushed) {
+            Boolean later = decided.get(traceId);
+            if (Boolean.TRUE.equals(later) || (later == null && reason != null)) {
+                delegate.end(context, span, cause);
+            }
+            return false;
+        }
+        if (ready != null) {
+            flush(traceId, ready, decision);
+        }
+        return false;
+    }
+
+    private void sweepExpired() {
+        try {
+            long now = System.nanoTime();
+            buffers.forEach((traceId, buffer) -> {
+                if (now - buffer.createdNanos < decisionWaitNanos) return;
+                List<BufferedSpan> ready;
+                String reason;
+                synchronized (buffer) {
+                    if (!buffers.remove(traceId, buffer)) return;
+                    ready = new ArrayList<>(buffer.spans);
+                    reason = buffer.keepReason;
+                }
+                flush(traceId, ready, reason);
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ [Tracing] tail 샘플링 버퍼 정리 실패.", e);
+        }
+    }
+
+    private void flush(String traceId, List<BufferedSpan> spans, String keepReason) {
+        boolean keep = keepReason != null || ThreadLocalRandom.current().nextDouble() < healthyRatio;
+        decided.put(traceId, keep);
+
+        if (!keep) {
+            dropped.increment();
+            return;
+        }
+        Counter.builder("payment.trace.tail.decisions")
+               .tag("decision", keepReason != null ? "kept_" + keepReason : "kept_random")
+               .register(meterRegistry)
+               .increment();
+        for (BufferedSpan buffered : spans) {
+            delegate.end(buffered.context(), buffered.span(), Cause.FINISHED);
+        }
+    }
+
+    // 이 span 때문에 trace 를 반드시 남겨야 하면 이유(error/slow/keyword), 아니면 null
+    private String keepReason(MutableSpan span) {
+        if (span.error() != null || span.tag("error") != null) {
+            return "error";
+        }
+        if (span.startTimestamp() > 0 && span.finishTimestamp() - span.startTimestamp() >= slowThresholdMicros) {
+            return "slow";
+        }
+        if (!keepKeywords.isEmpty()) {
+            if (containsKeyword(span.name())) return "keyword";
+            for (int i = 0; i < span.tagCount(); i++) {
+                if (containsKeyword(span.tagValueAt(i))) return "keyword";
+            }
+        }
+        return null;
+    }
+
+    private boolean containsKeyword(String value) {
+        if (value == null) return false;
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (String keyword : keepKeywords) {
+            if (lower.contains(keyword)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+        // 종료 시 남은 trace 는 결정 규칙대로 마저 보냄
+        buffers.forEach((traceId, buffer) -> {
+            synchronized (buffer) {
+                if (buffers.remove(traceId, buffer)) {
+                    flush(traceId, new ArrayList<>(buffer.spans), buffer.keepReason);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.payment_service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingPolicyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("첫 호출이 지연 기준을 넘기면 헤지 호출을 보내고 먼저 온 응답을 쓰며 느린 호출은 취소한다")
+    void hedge_FirstResponseWinsAndLoserIsCancelled() {
+        HedgingPolicy policy = policy(true, 10.0);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+
+        Mono<String> result = policy.hedge(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).map(t -> "slow").doOnCancel(cancelled::incrementAndGet)
+                : Mono.just("fast"));
+
+        StepVerifier.create(result)
+                    .expectNext("fast")
+                    .verifyComplete();
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.hedge.wins").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("헤지 예산 토큰이 없으면 추가 호출 없이 원래 호출을 기다린다")
+    void hedge_SkipsBackupWhenBudgetExhausted() {
+        HedgingPolicy policy = policy(true, 0.0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        Mono<String> result = policy.hedge(() -> {
+            attempts.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).map(t -> "primary");
+        });
+
+        StepVerifier.create(result)
+                    .expectNext("primary")
+                    .verifyComplete();
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.hedge.requests").tag("outcome", "budget_exhausted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("비활성화 상태에서는 호출을 그대로 한 번만 보낸다")
+    void hedge_DisabledPassesThrough() {
+        HedgingPolicy policy = policy(false, 10.0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(policy.hedge(() -> {
+                        attempts.incrementAndGet();
+                        return Mono.delay(Duration.ofMillis(100)).map(t -> "only");
+                    }))
+                    .expectNext("only")
+                    .verifyComplete();
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    private HedgingPolicy policy(boolean enabled, double maxTokens) {
+        return new HedgingPolicy("test", enabled, 95.0, Duration.ofMillis(10), Duration.ofMillis(20),
+                0.0, maxTokens, meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.payment_service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+    private MicroBatcher<Integer, String> batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) batcher.dispose();
+    }
+
+    @Test
+    @DisplayName("max-size 만큼 모이면 한 번의 배치 호출로 보내고 결과를 요청 순서대로 돌려준다")
+    void submit_GroupsIntoSingleBatchCall() {
+        batcher = new MicroBatcher<>("test", 3, Duration.ofSeconds(5), 1, items -> {
+            calls.add(items);
+            return Mono.just(items.stream().map(i -> "r" + i).toList());
+        }, meterRegistry);
+
+        StepVerifier.create(Flux.merge(batcher.submit(1), batcher.submit(2), batcher.submit(3)).collectList())
+                    .assertNext(results -> assertThat(results).containsExactlyInAnyOrder("r1", "r2", "r3"))
+                    .verifyComplete();
+
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactly(1, 2, 3);
+        assertThat(meterRegistry.get("payment.batch.size").tag("batcher", "test").summary().max()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("linger 시간이 지나면 덜 찬 배치도 내보낸다")
+    void submit_FlushesPartialBatchAfterLinger() {
+        batcher = new MicroBatcher<>("test", 100, Duration.ofMillis(50), 1, items -> {
+            calls.add(items);
+            return Mono.just(items.stream().map(i -> "r" + i).toList());
+        }, meterRegistry);
+
+        StepVerifier.create(batcher.submit(7))
+                    .expectNext("r7")
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+
+        assertThat(calls).containsExactly(List.of(7));
+    }
+
+    @Test
+    @DisplayName("결과가 null 인 항목만 비고, 같은 배치의 다른 항목은 정상 처리된다")
+    void submit_IsolatesMissingResult() {
+        batcher = new MicroBatcher<>("test", 2, Duration.ofSeconds(5), 1, items -> {
+            List<String> results = new ArrayList<>();
+            items.forEach(i -> results.add(i == 2 ? null : "r" + i));
+            return Mono.just(results);
+        }, meterRegistry);
+
+        Mono<String> first = batcher.submit(1).cache();
+        Mono<String> second = batcher.submit(2).cache();
+        first.subscribe();
+        second.subscribe();
+
+        StepVerifier.create(first).expectNext("r1").verifyComplete();
+        StepVerifier.create(second).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("배치 호출이 실패하면 그 배치의 항목들이 같은 에러로 실패한다")
+    void submit_PropagatesBatchFailure() {
+        batcher = new MicroBatcher<>("test", 1, Duration.ofSeconds(5), 1,
+                items -> Mono.error(new IllegalStateException("batch down")), meterRegistry);
+
+        StepVerifier.create(batcher.submit(1))
+                    .expectErrorMessage("batch down")
+                    .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.payment_service.client;
+
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PgClientTest {
+
+    @Test
+    @DisplayName("건별 승인으로 대신하는 배치는 거절만 항목별 결과로 바꾸고 나머지 항목은 계속 승인한다")
+    void processPayments_DeclineIsPerItem() {
+        StubPgClient pgClient = new StubPgClient();
+
+        List<PgClient.AuthorizationResult> results = pgClient.processPayments(List.of(
+                new PgClient.AuthorizationRequest("pay-1", 1000),
+                new PgClient.AuthorizationRequest("decline-2", 1000),
+                new PgClient.AuthorizationRequest("pay-3", 1000)));
+
+        assertThat(results).extracting(PgClient.AuthorizationResult::isApproved).containsExactly(true, false, true);
+        assertThat(results.get(1).failureReason()).isEqualTo("한도 초과");
+    }
+
+    @Test
+    @DisplayName("🔌 통신 장애는 거절로 바꾸지 않고 배치 전체 실패로 올리며, 앞서 승인된 항목은 망취소한다")
+    void processPayments_TransportFailurePropagates() {
+        StubPgClient pgClient = new StubPgClient();
+
+        assertThatThrownBy(() -> pgClient.processPayments(List.of(
+                new PgClient.AuthorizationRequest("pay-1", 1000),
+                new PgClient.AuthorizationRequest("down-2", 1000),
+                new PgClient.AuthorizationRequest("pay-3", 1000))))
+                .isInstanceOf(PgServiceUnavailableException.class);
+
+        assertThat(pgClient.approved).containsExactly("pay-1");
+        assertThat(pgClient.canceled).containsExactly("tx-pay-1");
+    }
+
+    private static class StubPgClient implements PgClient {
+        private final List<String> approved = new ArrayList<>();
+        private final List<String> canceled = new ArrayList<>();
+
+        @Override
+        public String processPayment(String paymentId, int amount) {
+            if (paymentId.startsWith("decline")) throw new PgPaymentDeclinedException("한도 초과");
+            if (paymentId.startsWith("down")) throw new PgServiceUnavailableException("PG 응답 시간 초과");
+            approved.add(paymentId);
+            return "tx-" + paymentId;
+        }
+
+        @Override
+        public void cancelPayment(String pgTransactionId) {
+            canceled.add(pgTransactionId);
+        }
+
+        @Override
+        public String getStatus(String pgTransactionId) {
+            return "PAID";
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.payment_service.client;
+
+import com.example.payment_service.exception.UserServiceUnavailableException;
+import com.example.payment_service.loadtest.DependencyStubServer;
+import com.example.payment_service.loadtest.StubProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class UserServiceClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DependencyStubServer userStub;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        userStub = DependencyStubServer.userService(new StubProfile(5, 0, 0.0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) client.destroy();
+        userStub.close();
+    }
+
+    @Test
+    @DisplayName("window 안의 조회를 bulk 호출 1회로 묶고, 응답에 없는 userId 만 실패시킨다")
+    void getUserInfoForPayment_BatchesAndIsolatesMissingUsers() {
+        client = newClient(true);
+
+        Mono<UserServiceClient.UserInfoForPaymentResponse> first = client.getUserInfoForPayment("user-1");
+        Mono<UserServiceClient.UserInfoForPaymentResponse> second = client.getUserInfoForPayment("user-2");
+        Mono<UserServiceClient.UserInfoForPaymentResponse> missing = client.getUserInfoForPayment("missing-3");
+
+        StepVerifier.create(Mono.zip(first, second, missing.onErrorResume(UserServiceUnavailableException.class, e -> Mono.just(
+                            new UserServiceClient.UserInfoForPaymentResponse("failed", null, null, null, null)))))
+                    .assertNext(results -> {
+                        assertThat(results.getT1().billingKey()).isEqualTo("bk-user-1");
+                        assertThat(results.getT2().billingKey()).isEqualTo("bk-user-2");
+                        assertThat(results.getT3().userId()).isEqualTo("failed");
+                    })
+                    .verifyComplete();
+
+        assertThat(userStub.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("배치가 꺼져 있으면 건별 조회 경로를 그대로 쓴다")
+    void getUserInfoForPayment_SingleCallWhenBatchDisabled() {
+        client = newClient(false);
+
+        StepVerifier.create(client.getUserInfoForPayment("user-1"))
+                    .assertNext(info -> assertThat(info.paymentMethodId()).isEqualTo("card-user-1"))
+                    .verifyComplete();
+
+        assertThat(userStub.requestCount()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserServiceClient newClient(boolean batchEnabled) {
+        ReactiveCircuitBreaker circuitBreaker = mock(ReactiveCircuitBreaker.class);
+        given(circuitBreaker.run(any(Mono.class), any())).willAnswer(invocation -> invocation.getArgument(0));
+        ReactiveCircuitBreakerFactory<?, ?> cbFactory = mock(ReactiveCircuitBreakerFactory.class);
+        given(cbFactory.create(anyString())).willReturn(circuitBreaker);
+        HedgingPolicyFactory hedgingPolicyFactory = mock(HedgingPolicyFactory.class);
+        given(hedgingPolicyFactory.create(anyString())).willReturn(new HedgingPolicy(
+                "user-service", false, 95.0, Duration.ofMillis(20), Duration.ofMillis(200), 0.1, 10.0, meterRegistry));
+
+        return new UserServiceClient(WebClient.builder(), userStub.baseUrl(), cbFactory, hedgingPolicyFactory,
+                meterRegistry, batchEnabled, 10, Duration.ofMillis(50), 1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.payment_service.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VirtualPgSimulationTest {
+
+    private static final VirtualPgProperties.Profile TAIL_PROFILE =
+            new VirtualPgProperties.Profile(Duration.ofMillis(100), Duration.ofMillis(800), 0.1, 0.05, 0.05);
+
+    private final AtomicLong elapsedMillis = new AtomicLong();
+
+    @Test
+    @DisplayName("🎲 같은 seed 면 operation 별 호출 순서대로 같은 지연/결과가 나온다")
+    void next_IsReproducibleForSameSeed() {
+        VirtualPgProperties properties = properties(List.of());
+
+        List<VirtualPgSimulation.Outcome> first = draw(new VirtualPgSimulation(properties, 42, elapsedMillis::get), 200);
+        List<VirtualPgSimulation.Outcome> second = draw(new VirtualPgSimulation(properties, 42, elapsedMillis::get), 200);
+        List<VirtualPgSimulation.Outcome> otherSeed = draw(new VirtualPgSimulation(properties, 7, elapsedMillis::get), 200);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(otherSeed).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("지연은 설정한 중앙값/p99 를 따르고 결과 비율은 프로파일 비율에 수렴한다")
+    void next_FollowsProfileDistribution() {
+        List<VirtualPgSimulation.Outcome> outcomes = draw(new VirtualPgSimulation(properties(List.of()), 1, elapsedMillis::get), 20_000);
+
+        long[] latencies = outcomes.stream().mapToLong(o -> o.latency().toMillis()).sorted().toArray();
+        assertThat((double) latencies[latencies.length / 2]).isCloseTo(100, within(10.0));
+        assertThat((double) latencies[(int) (latencies.length * 0.99)]).isCloseTo(800, within(120.0));
+
+        assertThat(ratio(outcomes, VirtualPgSimulation.Result.DECLINED)).isCloseTo(0.1, within(0.01));
+        assertThat(ratio(outcomes, VirtualPgSimulation.Result.TIMEOUT)).isCloseTo(0.05, within(0.01));
+        assertThat(ratio(outcomes, VirtualPgSimulation.Result.ERROR)).isCloseTo(0.05, within(0.01));
+    }
+
+    @Test
+    @DisplayName("시나리오는 지정한 operation 의 활성 구간에서만 프로파일을 덮어쓰고 주기마다 반복된다")
+    void next_AppliesScenarioOnlyInsideWindow() {
+        VirtualPgProperties.Scenario burst = new VirtualPgProperties.Scenario("pg-timeout-burst",
+                Set.of(VirtualPgSimulation.Operation.APPROVE), Duration.ofSeconds(60), Duration.ofSeconds(10),
+                Duration.ofMinutes(5), 3.0, null, 1.0, null);
+        VirtualPgSimulation simulation = new VirtualPgSimulation(properties(List.of(burst)), 3, elapsedMillis::get);
+
+        assertThat(simulation.next(VirtualPgSimulation.Operation.APPROVE).scenario()).isNull();
+
+        elapsedMillis.set(65_000);
+        VirtualPgSimulation.Outcome inBurst = simulation.next(VirtualPgSimulation.Operation.APPROVE);
+        assertThat(inBurst.scenario()).isEqualTo("pg-timeout-burst");
+        assertThat(inBurst.result()).isEqualTo(VirtualPgSimulation.Result.TIMEOUT);
+        assertThat(simulation.next(VirtualPgSimulation.Operation.CANCEL).scenario()).isNull();
+
+        elapsedMillis.set(75_000);
+        assertThat(simulation.next(VirtualPgSimulation.Operation.APPROVE).scenario()).isNull();
+
+        elapsedMillis.set(365_000);
+        assertThat(simulation.next(VirtualPgSimulation.Operation.APPROVE).result()).isEqualTo(VirtualPgSimulation.Result.TIMEOUT);
+    }
+
+    private VirtualPgProperties properties(List<VirtualPgProperties.Scenario> scenarios) {
+        return new VirtualPgProperties(null, Duration.ofSeconds(3), TAIL_PROFILE, null, null, scenarios);
+    }
+
+    private List<VirtualPgSimulation.Outcome> draw(VirtualPgSimulation simulation, int count) {
+        List<VirtualPgSimulation.Outcome> outcomes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            outcomes.add(simulation.next(VirtualPgSimulation.Operation.APPROVE));
+        }
+        return outcomes;
+    }
+
+    private double ratio(List<VirtualPgSimulation.Outcome> outcomes, VirtualPgSimulation.Result result) {
+        return outcomes.stream().filter(o -> o.result() == result).count() / (double) outcomes.size();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.payment_service.controller;
+
+import com.example.payment_service.dto.FailedEventFilter;
+import com.example.payment_service.dto.FailedEventPageResponse;
+import com.example.payment_service.dto.FailedEventResponse;
+import com.example.payment_service.entity.FailedEventStatus;
+import com.example.payment_service.service.FailedEventQueryService;
+import com.example.payment_service.service.FailedEventReplayService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(FailedEventAdminController.class)
+class FailedEventAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FailedEventReplayService replayService;
+
+    @MockitoBean
+    private FailedEventQueryService queryService;
+
+    @Test
+    @DisplayName("GET /failed-events - 필터와 keyset 커서로 조회하고 다음 커서를 돌려준다")
+    void list_ReturnsPageWithNextCursor() throws Exception {
+        FailedEventFilter filter = new FailedEventFilter("trip_events", FailedEventStatus.PENDING, null, null, "timeout");
+        given(queryService.list(filter, 120L, 2)).willReturn(new FailedEventPageResponse(List.of(
+                event(121L), event(130L)), 130L));
+
+        mockMvc.perform(get("/api/payments/admin/failed-events")
+                       .param("topic", "trip_events")
+                       .param("status", "PENDING")
+                       .param("error", "timeout")
+                       .param("afterId", "120")
+                       .param("limit", "2"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.items[0].id").value(121))
+               .andExpect(jsonPath("$.items[1].errorMessage").value("PG timeout"))
+               .andExpect(jsonPath("$.items[1].occurrenceCount").value(3))
+               .andExpect(jsonPath("$.nextAfterId").value(130));
+    }
+
+    @Test
+    @DisplayName("GET /failed-events - from 이 to 보다 늦으면 400")
+    void list_RejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/payments/admin/failed-events")
+                       .param("from", "2025-01-02T00:00:00")
+                       .param("to", "2025-01-01T00:00:00"))
+               .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(queryService);
+    }
+
+    @Test
+    @DisplayName("GET /failed-events/stream - 조회 결과를 NDJSON 으로 흘려보낸다")
+    void stream_WritesNdjson() throws Exception {
+        given(queryService.stream(any(), anyBoolean(), any())).willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        mockMvc.perform(get("/api/payments/admin/failed-events/stream").param("topic", "trip_events"))
+               .andExpect(status().isOk())
+               .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+               .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /failed-events/{id} - 없으면 404")
+    void getEvent_NotFound() throws Exception {
+        given(queryService.find(eq(999L))).willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/payments/admin/failed-events/999"))
+               .andExpect(status().isNotFound());
+    }
+
+    private FailedEventResponse event(Long id) {
+        return new FailedEventResponse(id, "trip_events", "trip-" + id, FailedEventStatus.PENDING, 3, "PG timeout",
+                LocalDateTime.of(2025, 1, 1, 10, 0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.payment_service.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ConsumerLagMonitorTest {
+
+    private static final String GROUP = "payment-service-reactive-group";
+    private static final String TOPIC = "trip_events";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdminClient adminClient;
+    private ConsumerLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        adminClient = mock(AdminClient.class);
+        monitor = new ConsumerLagMonitor(adminClient, meterRegistry, GROUP, TOPIC);
+
+        DescribeTopicsResult describe = mock(DescribeTopicsResult.class);
+        given(describe.allTopicNames()).willReturn(KafkaFuture.completedFuture(Map.of(TOPIC, new TopicDescription(TOPIC, false, List.of(
+                new TopicPartitionInfo(0, null, List.of(), List.of()),
+                new TopicPartitionInfo(1, null, List.of(), List.of()))))));
+        given(adminClient.describeTopics(anyCollection())).willReturn(describe);
+
+        // partition 1 은 아직 커밋 이력이 없음
+        ListConsumerGroupOffsetsResult committed = mock(ListConsumerGroupOffsetsResult.class);
+        given(committed.partitionsToOffsetAndMetadata()).willReturn(KafkaFuture.completedFuture(Map.of(P0, new OffsetAndMetadata(40))));
+        given(adminClient.listConsumerGroupOffsets(GROUP)).willReturn(committed);
+
+        given(adminClient.listOffsets(anyMap())).willAnswer(invocation -> {
+            Map<TopicPartition, OffsetSpec> request = invocation.getArgument(0);
+            boolean latest = request.values().iterator().next() instanceof OffsetSpec.LatestSpec;
+            return offsets(latest ? Map.of(P0, 100L, P1, 50L) : Map.of(P0, 0L, P1, 10L));
+        });
+    }
+
+    @Test
+    @DisplayName("📈 lag = 끝 offset - 커밋 offset 이고, 커밋이 없는 파티션은 시작 offset 기준으로 센다")
+    void refresh_ComputesLagPerPartitionAndTotal() {
+        monitor.refresh();
+
+        assertThat(partitionLag("0")).isEqualTo(60.0);
+        assertThat(partitionLag("1")).isEqualTo(40.0);
+        assertThat(totalLag()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Admin 조회가 실패하면 gauge 를 0 으로 떨어뜨리지 않고 마지막 값을 유지한다")
+    void refresh_KeepsLastValueWhenAdminCallFails() {
+        monitor.refresh();
+        given(adminClient.describeTopics(anyCollection())).willThrow(new KafkaException("broker down"));
+
+        monitor.refresh();
+
+        assertThat(totalLag()).isEqualTo(100.0);
+        assertThat(partitionLag("0")).isEqualTo(60.0);
+    }
+
+    private double totalLag() {
+        return meterRegistry.get("payment.kafka.consumer.lag.total").tag("group", GROUP).gauge().value();
+    }
+
+    private double partitionLag(String partition) {
+        return meterRegistry.get("payment.kafka.consumer.lag").tag("partition", partition).gauge().value();
+    }
+
+    private static ListOffsetsResult offsets(Map<TopicPartition, Long> offsets) {
+        Map<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>> futures = new HashMap<>();
+        offsets.forEach((partition, offset) -> futures.put(partition,
+                KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(offset, -1L, Optional.empty()))));
+        return new ListOffsetsResult(futures);
+    }
+}
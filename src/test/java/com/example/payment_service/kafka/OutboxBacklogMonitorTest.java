@@ -0,0 +1,79 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.entity.OutboxStatus;
+import com.example.payment_service.repository.PaymentOutboxRepository;
+import com.example.payment_service.shard.ShardContext;
+import com.example.payment_service.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class OutboxBacklogMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PaymentOutboxRepository outboxRepository;
+    private ShardRouter shardRouter;
+    private OutboxBacklogMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(PaymentOutboxRepository.class);
+        // shard 2개: 각 shard 의 조회 결과를 합치는지 확인
+        shardRouter = new ShardRouter(true, List.of("shard-0", "shard-1"));
+        monitor = new OutboxBacklogMonitor(outboxRepository, shardRouter, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.destroy();
+    }
+
+    @Test
+    @DisplayName("📦 READY 건수는 shard 합계, 가장 오래된 나이는 전체 shard 중 가장 오래된 행 기준")
+    void refresh_SumsCountsAndTakesOldestAcrossShards() {
+        LocalDateTime now = LocalDateTime.now();
+        given(outboxRepository.countByStatus(OutboxStatus.READY)).willAnswer(invocation -> ShardContext.current() == 0 ? 3L : 4L);
+        given(outboxRepository.findOldestCreatedAt(OutboxStatus.READY)).willAnswer(invocation ->
+                ShardContext.current() == 0 ? now.minusSeconds(30) : now.minusSeconds(90));
+
+        monitor.refresh();
+
+        assertThat(readyCount()).isEqualTo(7.0);
+        assertThat(oldestAgeSeconds()).isCloseTo(90.0, within(5.0));
+    }
+
+    @Test
+    @DisplayName("백로그가 비면 건수와 나이 모두 0 으로 돌아온다")
+    void refresh_EmptyTable() {
+        given(outboxRepository.countByStatus(OutboxStatus.READY)).willReturn(5L);
+        given(outboxRepository.findOldestCreatedAt(OutboxStatus.READY)).willReturn(LocalDateTime.now().minusMinutes(1));
+        monitor.refresh();
+        assertThat(readyCount()).isEqualTo(10.0);
+
+        given(outboxRepository.countByStatus(OutboxStatus.READY)).willReturn(0L);
+        given(outboxRepository.findOldestCreatedAt(OutboxStatus.READY)).willReturn(null);
+
+        monitor.refresh();
+
+        assertThat(readyCount()).isZero();
+        assertThat(oldestAgeSeconds()).isZero();
+    }
+
+    private double readyCount() {
+        return meterRegistry.get("payment.outbox.ready.count").gauge().value();
+    }
+
+    private double oldestAgeSeconds() {
+        return meterRegistry.get("payment.outbox.ready.oldest.age").gauge().value();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.entity.PaymentOutbox;
+import com.example.payment_service.latency.PaymentLatencyTracker;
+import com.example.payment_service.repository.PaymentOutboxRepository;
+import com.example.payment_service.service.PaymentBulkheads;
+import com.example.payment_service.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class PaymentKafkaProducerTest {
+
+    private static final Duration RELAY_GRACE = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> sendTasks = new ArrayList<>();
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private PaymentOutboxRepository outboxRepository;
+    private TransactionTemplate transactionTemplate;
+    private PaymentBulkheads bulkheads;
+    private PaymentKafkaProducer producer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        outboxRepository = mock(PaymentOutboxRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        bulkheads = new PaymentBulkheads(meterRegistry, 2, 16, 2, 16, 1, 16);
+
+        // 발행 스레드 대신 작업을 모아 두고 테스트에서 직접 실행
+        producer = new PaymentKafkaProducer(kafkaTemplate, outboxRepository, transactionTemplate, ShardRouter.single(),
+                bulkheads, PaymentLatencyTracker.withDefaults(meterRegistry), meterRegistry, true, RELAY_GRACE, sendTasks::add);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        bulkheads.destroy();
+    }
+
+    @Test
+    @DisplayName("📤 커밋 후 발행 스레드에서 전송하고, ack 를 받으면 READY 행을 DONE 으로 바꾼다")
+    void publishAfterCommit_AckMarksDone() {
+        given(kafkaTemplate.send("payment_events", "trip-1", "{}"))
+                .willReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        given(outboxRepository.markDirectPublished(1L)).willReturn(1);
+
+        producer.publishAfterCommit(outbox(1L, "trip-1"));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        // 커밋한 스레드에서는 전송하지 않음
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+
+        runSendTasks();
+
+        verify(outboxRepository, timeout(1000)).markDirectPublished(1L);
+        assertThat(meterRegistry.get("payment.outbox.direct").tag("result", "acked").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("전송이 실패하면 행은 READY 로 남고, relay 는 relay-grace 가 지난 행부터 가져간다")
+    void publishAfterCommit_FailureLeavesRowForRelay() {
+        given(kafkaTemplate.send("payment_events", "trip-2", "{}"))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        producer.publishAfterCommit(outbox(2L, "trip-2"));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        runSendTasks();
+
+        verify(outboxRepository, never()).markDirectPublished(anyLong());
+        assertThat(meterRegistry.get("payment.outbox.direct").tag("result", "failed").counter().count()).isEqualTo(1.0);
+
+        // relay 가 같은 cutoff 로 READY 행을 조회하는지 확인
+        PaymentOutboxRelay relay = new PaymentOutboxRelay(outboxRepository, kafkaTemplate, transactionTemplate,
+                ShardRouter.single(), PaymentLatencyTracker.withDefaults(meterRegistry), producer);
+        given(outboxRepository.findEventsForPublishing(anyInt(), any())).willReturn(List.of());
+        LocalDateTime before = LocalDateTime.now();
+
+        relay.publishEvents();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).findEventsForPublishing(anyInt(), cutoff.capture());
+        assertThat(cutoff.getValue()).isBeforeOrEqualTo(LocalDateTime.now().minus(RELAY_GRACE))
+                                     .isAfterOrEqualTo(before.minus(RELAY_GRACE));
+    }
+
+    @Test
+    @DisplayName("트랜잭션이 롤백되면 아무것도 발행하지 않는다")
+    void publishAfterCommit_RollbackSendsNothing() {
+        producer.publishAfterCommit(outbox(3L, "trip-3"));
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(sendTasks).isEmpty();
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    private void runSendTasks() {
+        List<Runnable> tasks = new ArrayList<>(sendTasks);
+        sendTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private PaymentOutbox outbox(Long id, String aggregateId) {
+        PaymentOutbox outbox = PaymentOutbox.builder()
+                                            .aggregateId(aggregateId)
+                                            .topic("payment_events")
+                                            .payload("{}")
+                                            .build();
+        ReflectionTestUtils.setField(outbox, "id", id);
+        ReflectionTestUtils.setField(outbox, "createdAt", LocalDateTime.now());
+        return outbox;
+    }
+}
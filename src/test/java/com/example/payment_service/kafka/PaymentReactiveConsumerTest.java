@@ -0,0 +1,211 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.exception.PricingServiceUnavailableException;
+import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.kafka.lane.TripEventLanes;
+import com.example.payment_service.latency.PaymentLatencyTracker;
+import com.example.payment_service.service.PaymentService;
+import com.example.payment_service.service.StartupWarmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PaymentReactiveConsumerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("trip_events", 0);
+
+    private final Sinks.Many<ReceiverRecord<String, String>> records = Sinks.many().unicast().onBackpressureBuffer();
+    private KafkaReceiver<String, String> kafkaReceiver;
+    private PaymentService paymentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaReceiver = mock(KafkaReceiver.class);
+        paymentService = mock(PaymentService.class);
+        given(kafkaReceiver.receive()).willReturn(records.asFlux());
+    }
+
+    @Test
+    @DisplayName("🛑 drain 은 fetch 를 멈추고 처리 중인 결제를 끝까지 기다린 뒤 완료 오프셋을 커밋하고 닫는다")
+    void drain_WaitsForInFlightAndCommitsCompletedOffsets() {
+        ReceiverOffset inFlightOffset = offset(10);
+        ReceiverOffset lateOffset = offset(11);
+        ReceiverRecord<String, String> late = record("trip-late", lateOffset);
+        // pause 시점에 이미 버퍼에 들어와 있던 레코드 흉내
+        given(kafkaReceiver.doOnConsumer(any())).willAnswer(invocation -> {
+            records.tryEmitNext(late);
+            return Mono.just(1);
+        });
+        given(paymentService.processPayment(any())).willReturn(Mono.delay(Duration.ofMillis(200)).then());
+
+        PaymentReactiveConsumer consumer = newConsumer(Duration.ofSeconds(5));
+        consumer.run();
+        records.tryEmitNext(record("trip-1", inFlightOffset));
+
+        PaymentReactiveConsumer.DrainReport report = consumer.drain();
+
+        assertThat(report).isEqualTo(new PaymentReactiveConsumer.DrainReport(1, 0, 1));
+        assertThat(consumer.isRunning()).isFalse();
+        verify(inFlightOffset).acknowledge();
+        verify(inFlightOffset).commit();
+        verify(lateOffset, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 못 끝낸 결제는 ack 하지 않고 abandoned 로 보고한다")
+    void drain_ReportsAbandonedWhenTimeoutExceeded() {
+        ReceiverOffset stuckOffset = offset(20);
+        given(kafkaReceiver.doOnConsumer(any())).willReturn(Mono.just(1));
+        given(paymentService.processPayment(any())).willReturn(Mono.never());
+
+        PaymentReactiveConsumer consumer = newConsumer(Duration.ofMillis(300));
+        consumer.run();
+        records.tryEmitNext(record("trip-stuck", stuckOffset));
+
+        PaymentReactiveConsumer.DrainReport report = consumer.drain();
+
+        assertThat(report).isEqualTo(new PaymentReactiveConsumer.DrainReport(0, 1, 0));
+        assertThat(consumer.isRunning()).isFalse();
+        verify(stuckOffset, never()).acknowledge();
+        verify(stuckOffset, never()).commit();
+    }
+
+    @Test
+    @DisplayName("ack 순서가 뒤바뀐 채 drain 이 시간 초과되면 중단된 오프셋 앞쪽까지만 커밋한다")
+    void drain_CommitsOnlyContiguousPrefixWhenAckedOutOfOrder() {
+        ReceiverOffset doneOffset = offset(30);
+        ReceiverOffset stuckOffset = offset(31);
+        ReceiverOffset laterDoneOffset = offset(32);
+        given(kafkaReceiver.doOnConsumer(any())).willReturn(Mono.just(1));
+        given(paymentService.processPayment(any())).willAnswer(invocation ->
+                invocation.<TripCompletedEvent>getArgument(0).tripId().equals("trip-stuck") ? Mono.never() : Mono.empty());
+
+        PaymentReactiveConsumer consumer = newConsumer(Duration.ofMillis(300));
+        consumer.run();
+        records.tryEmitNext(record("trip-done", doneOffset));
+        records.tryEmitNext(record("trip-stuck", stuckOffset));
+        records.tryEmitNext(record("trip-later", laterDoneOffset));
+
+        PaymentReactiveConsumer.DrainReport report = consumer.drain();
+
+        assertThat(report.abandoned()).isEqualTo(1);
+        verify(laterDoneOffset).acknowledge();
+        // 31 이 끝나지 않았으므로 32 는 ack 했어도 커밋하지 않음 (재시작 후 31, 32 재전달)
+        verify(doneOffset).commit();
+        verify(stuckOffset, never()).commit();
+        verify(laterDoneOffset, never()).commit();
+    }
+
+    @Test
+    @DisplayName("⏳ 지연 토픽 모드: 재시도 가능한 실패는 슬롯에서 기다리지 않고 1단계 지연 토픽으로 넘긴 뒤 ack 한다")
+    void topicMode_RetryableFailureGoesToFirstTier() {
+        TripEventRetryRouter retryRouter = topicModeRouter();
+        TripEventDeadLetterPublisher deadLetterPublisher = mock(TripEventDeadLetterPublisher.class);
+        given(paymentService.processPayment(any())).willReturn(Mono.error(new PricingServiceUnavailableException("요금 서버 장애")));
+        given(paymentService.isRetryable(any())).willReturn(true);
+        given(retryRouter.scheduleRetry(any(), any(), anyInt())).willReturn(Mono.empty());
+        ReceiverOffset offset = offset(40);
+
+        newConsumer(Duration.ofSeconds(5), retryRouter, deadLetterPublisher).run();
+        ReceiverRecord<String, String> record = record("trip-1", offset);
+        records.tryEmitNext(record);
+
+        verify(offset, timeout(2_000)).acknowledge();
+        verify(retryRouter).scheduleRetry("trip-1", record.value(), 1);
+        verify(paymentService, times(1)).processPayment(any());
+        verify(deadLetterPublisher, never()).publish(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("지연 토픽 모드: 재시도해도 소용없는 실패는 in-slot 재시도 없이 바로 DLT 로 보낸다")
+    void topicMode_NonRetryableFailureGoesStraightToDeadLetter() {
+        TripEventRetryRouter retryRouter = topicModeRouter();
+        TripEventDeadLetterPublisher deadLetterPublisher = mock(TripEventDeadLetterPublisher.class);
+        IllegalArgumentException failure = new IllegalArgumentException("잘못된 요금");
+        given(paymentService.processPayment(any())).willReturn(Mono.error(failure));
+        given(paymentService.isRetryable(any())).willReturn(false);
+        given(deadLetterPublisher.publish(any(), any(), any(), any())).willReturn(Mono.empty());
+        ReceiverOffset offset = offset(41);
+
+        newConsumer(Duration.ofSeconds(5), retryRouter, deadLetterPublisher).run();
+        records.tryEmitNext(record("trip-2", offset));
+
+        verify(offset, timeout(2_000)).acknowledge();
+        verify(deadLetterPublisher).publish(eq("trip_events"), eq("trip-2"), any(), eq(failure));
+        verify(paymentService, times(1)).processPayment(any());
+        verify(retryRouter, never()).scheduleRetry(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("지연 토픽 모드: 재시도 토픽 발행이 실패하면 원래 실패 원인으로 DLT 에 보존한다")
+    void topicMode_RetrySendFailureFallsBackToDeadLetter() {
+        TripEventRetryRouter retryRouter = topicModeRouter();
+        TripEventDeadLetterPublisher deadLetterPublisher = mock(TripEventDeadLetterPublisher.class);
+        PricingServiceUnavailableException failure = new PricingServiceUnavailableException("요금 서버 장애");
+        given(paymentService.processPayment(any())).willReturn(Mono.error(failure));
+        given(paymentService.isRetryable(any())).willReturn(true);
+        given(retryRouter.scheduleRetry(any(), any(), anyInt())).willReturn(Mono.error(new IllegalStateException("broker down")));
+        given(deadLetterPublisher.publish(any(), any(), any(), any())).willReturn(Mono.empty());
+        ReceiverOffset offset = offset(42);
+
+        newConsumer(Duration.ofSeconds(5), retryRouter, deadLetterPublisher).run();
+        records.tryEmitNext(record("trip-3", offset));
+
+        verify(offset, timeout(2_000)).acknowledge();
+        verify(deadLetterPublisher).publish(eq("trip_events"), eq("trip-3"), any(), eq(failure));
+    }
+
+    private TripEventRetryRouter topicModeRouter() {
+        TripEventRetryRouter retryRouter = mock(TripEventRetryRouter.class);
+        given(retryRouter.isTopicMode()).willReturn(true);
+        return retryRouter;
+    }
+
+    private PaymentReactiveConsumer newConsumer(Duration shutdownPhaseTimeout) {
+        return newConsumer(shutdownPhaseTimeout, mock(TripEventRetryRouter.class), mock(TripEventDeadLetterPublisher.class));
+    }
+
+    private PaymentReactiveConsumer newConsumer(Duration shutdownPhaseTimeout, TripEventRetryRouter retryRouter,
+                                                TripEventDeadLetterPublisher deadLetterPublisher) {
+        return new PaymentReactiveConsumer(kafkaReceiver, paymentService, retryRouter,
+                deadLetterPublisher, new ObjectMapper(), mock(StartupWarmup.class),
+                PaymentLatencyTracker.withDefaults(new SimpleMeterRegistry()), TripEventLanes.disabled(new SimpleMeterRegistry()),
+                shutdownPhaseTimeout, Duration.ofMillis(100));
+    }
+
+    private ReceiverOffset offset(long offset) {
+        ReceiverOffset receiverOffset = mock(ReceiverOffset.class);
+        given(receiverOffset.topicPartition()).willReturn(PARTITION);
+        given(receiverOffset.offset()).willReturn(offset);
+        given(receiverOffset.commit()).willReturn(Mono.empty());
+        return receiverOffset;
+    }
+
+    private ReceiverRecord<String, String> record(String tripId, ReceiverOffset offset) {
+        String payload = "{\"tripId\":\"" + tripId + "\",\"userId\":\"user-1\",\"distanceMeters\":1000,\"durationSeconds\":60}";
+        return new ReceiverRecord<>(new ConsumerRecord<>("trip_events", 0, offset.offset(), tripId, payload), offset);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.payment_service.kafka;
+
+import com.example.payment_service.exception.PricingServiceUnavailableException;
+import com.example.payment_service.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class PaymentRetryConsumerTest {
+
+    private final Sinks.Many<ReceiverRecord<String, String>> records = Sinks.many().unicast().onBackpressureBuffer();
+    private final List<ProducerRecord<String, String>> retried = new CopyOnWriteArrayList<>();
+    private KafkaSender<String, String> kafkaSender;
+    private PaymentService paymentService;
+    private TripEventDeadLetterPublisher deadLetterPublisher;
+    private PaymentRetryConsumer consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        KafkaReceiver<String, String> kafkaReceiver = mock(KafkaReceiver.class);
+        given(kafkaReceiver.receive()).willReturn(records.asFlux());
+
+        kafkaSender = mock(KafkaSender.class);
+        given(kafkaSender.send(any())).willAnswer(invocation ->
+                Flux.from(invocation.<Publisher<SenderRecord<String, String, ?>>>getArgument(0))
+                    .doOnNext(retried::add)
+                    .map(record -> mock(SenderResult.class)));
+
+        paymentService = mock(PaymentService.class);
+        given(paymentService.isRetryable(any())).willAnswer(invocation ->
+                invocation.getArgument(0) instanceof PricingServiceUnavailableException);
+
+        deadLetterPublisher = mock(TripEventDeadLetterPublisher.class);
+        given(deadLetterPublisher.publish(anyString(), anyString(), anyString(), any())).willReturn(Mono.empty());
+
+        TripEventRetryRouter retryRouter = new TripEventRetryRouter(kafkaSender, "topic", List.of("5s", "30s", "5m"));
+        consumer = new PaymentRetryConsumer(kafkaReceiver, paymentService, retryRouter, deadLetterPublisher, new ObjectMapper());
+        consumer.run();
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.destroy();
+    }
+
+    @Test
+    @DisplayName("🔁 재시도 가능한 실패는 다음 단계 지연 토픽으로 넘기고 offset 을 ack 한다")
+    void retryableFailure_RoutesToNextTier() {
+        given(paymentService.processPayment(any())).willReturn(Mono.error(new PricingServiceUnavailableException("요금 서버 장애")));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+
+        records.tryEmitNext(record("trip_events.retry.5s", "trip-1", 1, 0L, offset));
+
+        verify(offset, timeout(2_000)).acknowledge();
+        assertThat(retried).hasSize(1);
+        assertThat(retried.get(0).topic()).isEqualTo("trip_events.retry.30s");
+        assertThat(new String(retried.get(0).headers().lastHeader(TripEventRetryRouter.ATTEMPT_HEADER).value(), StandardCharsets.UTF_8))
+                .isEqualTo("2");
+        verify(deadLetterPublisher, never()).publish(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("☠️ 마지막 단계에서 또 실패하면 더 돌리지 않고 원본 토픽 기준으로 DLT 에 보낸다")
+    void lastTierFailure_EscalatesToDeadLetter() {
+        given(paymentService.processPayment(any())).willReturn(Mono.error(new PricingServiceUnavailableException("요금 서버 장애")));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+
+        records.tryEmitNext(record("trip_events.retry.5m", "trip-1", 3, 0L, offset));
+
+        verify(offset, timeout(2_000)).acknowledge();
+        verify(deadLetterPublisher).publish(eq(TripEventRetryRouter.SOURCE_TOPIC), eq("trip-1"), anyString(), any(PricingServiceUnavailableException.class));
+        assertThat(retried).isEmpty();
+    }
+
+    @Test
+    @DisplayName("재시도해도 소용없는 실패는 남은 단계가 있어도 바로 DLT 로 보낸다")
+    void nonRetryableFailure_EscalatesToDeadLetter() {
+        given(paymentService.processPayment(any())).willReturn(Mono.error(new IllegalArgumentException("잘못된 요금")));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+
+        records.tryEmitNext(record("trip_events.retry.5s", "trip-1", 1, 0L, offset));
+
+        verify(offset, timeout(2_000)).acknowledge();
+        verify(deadLetterPublisher).publish(eq(TripEventRetryRouter.SOURCE_TOPIC), eq("trip-1"), anyString(), any(IllegalArgumentException.class));
+        assertThat(retried).isEmpty();
+    }
+
+    @Test
+    @DisplayName("다음 단계 토픽 발행이 실패하면 메시지를 잃지 않도록 DLT 로 보낸다")
+    void retrySendFailure_FallsBackToDeadLetter() {
+        given(paymentService.processPayment(any())).willReturn(Mono.error(new PricingServiceUnavailableException("요금 서버 장애")));
+        given(kafkaSender.send(any())).willAnswer(invocation -> Flux.error(new IllegalStateException("broker down")));
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+
+        records.tryEmitNext(record("trip_events.retry.5s", "trip-1", 1, 0L, offset));
+
+        verify(offset, timeout(2_000)).acknowledge();
+        verify(deadLetterPublisher).publish(eq(TripEventRetryRouter.SOURCE_TOPIC), eq("trip-1"), anyString(), any(PricingServiceUnavailableException.class));
+    }
+
+    @Test
+    @DisplayName("⏰ due-at 이 지나기 전에는 결제를 다시 시도하지 않는다")
+    void awaitsDueAtBeforeProcessing() {
+        given(paymentService.processPayment(any())).willReturn(Mono.empty());
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        long dueAt = System.currentTimeMillis() + 800;
+
+        records.tryEmitNext(record("trip_events.retry.5s", "trip-1", 1, dueAt, offset));
+
+        verify(paymentService, after(300).never()).processPayment(any());
+        verify(offset, timeout(2_000)).acknowledge();
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(dueAt);
+        verify(paymentService).processPayment(any());
+    }
+
+    private ReceiverRecord<String, String> record(String topic, String tripId, int attempt, long dueAt, ReceiverOffset offset) {
+        String payload = "{\"tripId\":\"" + tripId + "\",\"userId\":\"user-1\",\"distanceMeters\":1000,\"durationSeconds\":60}";
+        ConsumerRecord<String, String> consumerRecord = new ConsumerRecord<>(topic, 0, 0L, tripId, payload);
+        consumerRecord.headers()
+                      .add(TripEventRetryRouter.ATTEMPT_HEADER, Integer.toString(attempt).getBytes(StandardCharsets.UTF_8))
+                      .add(TripEventRetryRouter.DUE_AT_HEADER, Long.toString(dueAt).getBytes(StandardCharsets.UTF_8));
+        return new ReceiverRecord<>(consumerRecord, offset);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.payment_service.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class TripEventRetryRouterTest {
+
+    private static final List<String> TIERS = List.of("5s", "30s", "5m");
+
+    private final List<SenderRecord<String, String, ?>> sent = new ArrayList<>();
+    private KafkaSender<String, String> kafkaSender;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaSender = mock(KafkaSender.class);
+        given(kafkaSender.send(any())).willAnswer(invocation ->
+                Flux.from(invocation.<Publisher<SenderRecord<String, String, ?>>>getArgument(0))
+                    .doOnNext(sent::add)
+                    .map(record -> mock(SenderResult.class)));
+    }
+
+    @Test
+    @DisplayName("⏳ n회차 재시도는 n번째 지연 토픽으로 가고, 회차와 due-at 헤더를 싣는다")
+    void scheduleRetry_RoutesToTierTopicWithHeaders() {
+        TripEventRetryRouter router = new TripEventRetryRouter(kafkaSender, "topic", TIERS);
+        long before = System.currentTimeMillis();
+
+        router.scheduleRetry("trip-1", "{}", 2).block();
+
+        assertThat(router.topics()).containsExactly("trip_events.retry.5s", "trip_events.retry.30s", "trip_events.retry.5m");
+        assertThat(sent).hasSize(1);
+        ConsumerRecord<String, String> received = asConsumed(sent.get(0));
+        assertThat(received.topic()).isEqualTo("trip_events.retry.30s");
+        assertThat(received.key()).isEqualTo("trip-1");
+        assertThat(TripEventRetryRouter.attemptOf(received)).isEqualTo(2);
+        assertThat(TripEventRetryRouter.dueAtOf(received)).isCloseTo(before + 30_000, within(1_000L));
+    }
+
+    @Test
+    @DisplayName("단계 수를 넘는 회차는 다음 단계가 없다고 본다")
+    void hasTier_Bounds() {
+        TripEventRetryRouter router = new TripEventRetryRouter(kafkaSender, "topic", TIERS);
+
+        assertThat(router.hasTier(0)).isFalse();
+        assertThat(router.hasTier(1)).isTrue();
+        assertThat(router.hasTier(3)).isTrue();
+        assertThat(router.hasTier(4)).isFalse();
+    }
+
+    @Test
+    @DisplayName("헤더가 없거나 깨진 레코드는 회차 0, due-at 0(즉시 처리)으로 읽는다")
+    void headers_DefaultWhenMissingOrMalformed() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("trip_events.retry.5s", 0, 0L, "trip-1", "{}");
+        assertThat(TripEventRetryRouter.attemptOf(record)).isZero();
+        assertThat(TripEventRetryRouter.dueAtOf(record)).isZero();
+
+        record.headers().add(TripEventRetryRouter.ATTEMPT_HEADER, "abc".getBytes(StandardCharsets.UTF_8));
+        assertThat(TripEventRetryRouter.attemptOf(record)).isZero();
+    }
+
+    @Test
+    @DisplayName("in-slot 모드는 Sender 빈 없이 뜨고, 지연 토픽 발행은 거부한다")
+    void inSlotMode_WorksWithoutSender() {
+        TripEventRetryRouter router = new TripEventRetryRouter(null, "in-slot", TIERS);
+
+        assertThat(router.isTopicMode()).isFalse();
+        assertThatThrownBy(() -> router.scheduleRetry("trip-1", "{}", 1).block()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new TripEventRetryRouter(null, "topic", TIERS)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ConsumerRecord<String, String> asConsumed(SenderRecord<String, String, ?> record) {
+        ConsumerRecord<String, String> consumed = new ConsumerRecord<>(record.topic(), 0, 0L, record.key(), record.value());
+        record.headers().forEach(header -> consumed.headers().add(header));
+        return consumed;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.payment_service.kafka.lane;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedLaneGateTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("🛣️ 두 lane 이 모두 밀려 있으면 슬롯이 가중치 비율로 배분된다")
+    void run_SplitsPermitsByWeightUnderContention() {
+        WeightedLaneGate gate = new WeightedLaneGate(8, 3, 1, 0, meterRegistry);
+        List<Sinks.Empty<Void>> bulk = submit(gate, ConsumerLane.BULK, 20);
+        submit(gate, ConsumerLane.FRESH, 20);
+
+        // BULK 가 먼저 8 슬롯을 모두 빌려 감
+        assertThat(gate.active(ConsumerLane.BULK)).isEqualTo(8);
+
+        // BULK 작업이 끝날 때마다 비는 슬롯은 사용량/가중치가 낮은 FRESH 쪽으로
+        bulk.subList(0, 6).forEach(Sinks.Empty::tryEmitEmpty);
+
+        assertThat(gate.active(ConsumerLane.FRESH)).isEqualTo(6);
+        assertThat(gate.active(ConsumerLane.BULK)).isEqualTo(2);
+        assertThat(gate.waiting(ConsumerLane.BULK)).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("FRESH 예약 슬롯은 BULK 가 빌려 가지 못해 backlog 중에도 새 결제가 바로 시작된다")
+    void run_KeepsReservedPermitsForFresh() {
+        WeightedLaneGate gate = new WeightedLaneGate(8, 3, 1, 2, meterRegistry);
+        submit(gate, ConsumerLane.BULK, 20);
+
+        assertThat(gate.active(ConsumerLane.BULK)).isEqualTo(6);
+
+        AtomicInteger started = new AtomicInteger();
+        gate.run(ConsumerLane.FRESH, () -> Mono.fromRunnable(started::incrementAndGet)).subscribe();
+
+        assertThat(started.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("슬롯을 기다리다 취소된 작업은 대기열에서 빠지고 시작되지 않는다")
+    void run_RemovesCancelledWaiter() {
+        WeightedLaneGate gate = new WeightedLaneGate(1, 1, 1, 0, meterRegistry);
+        List<Sinks.Empty<Void>> holders = submit(gate, ConsumerLane.BULK, 1);
+
+        AtomicInteger started = new AtomicInteger();
+        Disposable waiting = gate.run(ConsumerLane.BULK, () -> Mono.fromRunnable(started::incrementAndGet)).subscribe();
+        assertThat(gate.waiting(ConsumerLane.BULK)).isEqualTo(1);
+
+        waiting.dispose();
+        holders.get(0).tryEmitEmpty();
+
+        assertThat(gate.waiting(ConsumerLane.BULK)).isZero();
+        assertThat(gate.active(ConsumerLane.BULK)).isZero();
+        assertThat(started.get()).isZero();
+    }
+
+    private List<Sinks.Empty<Void>> submit(WeightedLaneGate gate, ConsumerLane lane, int count) {
+        List<Sinks.Empty<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Sinks.Empty<Void> task = Sinks.empty();
+            tasks.add(task);
+            gate.run(lane, task::asMono).subscribe();
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.payment_service.kafka.spill;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadLetterSpillJournalTest {
+
+    @TempDir Path tempDir;
+
+    @Test
+    @DisplayName("📼 append 한 레코드를 순서대로 읽고, acknowledge 하면 depth 가 줄어든다")
+    void appendAndDrain_InOrder() {
+        DeadLetterSpillJournal journal = open(DataSize.ofKilobytes(64));
+
+        assertThat(journal.append("trip_events.DLT", "trip-1", "{\"tripId\":\"trip-1\"}")).isTrue();
+        assertThat(journal.append("trip_events.DLT", null, "payload-2")).isTrue();
+        assertThat(journal.depth()).isEqualTo(2);
+
+        DeadLetterSpillJournal.Batch batch = journal.readBatch(10);
+        assertThat(batch.entries()).containsExactly(
+                new SpillEntry("trip_events.DLT", "trip-1", "{\"tripId\":\"trip-1\"}"),
+                new SpillEntry("trip_events.DLT", null, "payload-2"));
+
+        journal.acknowledge(batch);
+        assertThat(journal.depth()).isZero();
+        assertThat(journal.readBatch(10).entries()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("세그먼트가 차면 다음 세그먼트로 넘어가고, 다 비운 세그먼트는 삭제한다")
+    void rotatesAndDeletesDrainedSegments() throws Exception {
+        DeadLetterSpillJournal journal = open(DataSize.ofBytes(256));
+        for (int i = 0; i < 10; i++) {
+            journal.append("trip_events.DLT", "trip-" + i, "payload-" + "x".repeat(40) + i);
+        }
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        List<SpillEntry> drained = drainAll(journal);
+
+        assertThat(drained).hasSize(10);
+        assertThat(drained.get(9).key()).isEqualTo("trip-9");
+        assertThat(journal.depth()).isZero();
+        assertThat(segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("재시작하면 재전송하지 않은 레코드부터 다시 읽는다")
+    void recoversPendingEntriesAfterRestart() {
+        DeadLetterSpillJournal journal = open(DataSize.ofKilobytes(64));
+        journal.append("trip_events.DLT", "trip-1", "payload-1");
+        journal.append("trip_events.DLT", "trip-2", "payload-2");
+        journal.append("trip_events.DLT", "trip-3", "payload-3");
+        journal.acknowledge(journal.readBatch(1));
+        journal.destroy();
+
+        DeadLetterSpillJournal reopened = open(DataSize.ofKilobytes(64));
+
+        assertThat(reopened.depth()).isEqualTo(2);
+        assertThat(reopened.readBatch(10).entries()).extracting(SpillEntry::key).containsExactly("trip-2", "trip-3");
+
+        // 복구 후 이어 쓴 레코드도 같은 순서로 이어짐
+        reopened.append("trip_events.DLT", "trip-4", "payload-4");
+        assertThat(reopened.readBatch(10).entries()).extracting(SpillEntry::key).containsExactly("trip-2", "trip-3", "trip-4");
+    }
+
+    @Test
+    @DisplayName("기동만 하고 append 가 없으면 스필 디렉터리/세그먼트를 만들지 않는다")
+    void createsSegmentLazilyOnFirstAppend() {
+        Path dir = tempDir.resolve("spill");
+        DeadLetterSpillJournal journal = new DeadLetterSpillJournal(new SimpleMeterRegistry(), true, dir, DataSize.ofKilobytes(64));
+
+        assertThat(journal.readBatch(10).entries()).isEmpty();
+        journal.flush();
+        assertThat(dir).doesNotExist();
+
+        assertThat(journal.append("trip_events.DLT", "trip-1", "payload-1")).isTrue();
+        assertThat(dir.resolve("segment-00000000000000000000.log")).exists();
+        assertThat(journal.readBatch(10).entries()).extracting(SpillEntry::key).containsExactly("trip-1");
+    }
+
+    private DeadLetterSpillJournal open(DataSize segmentSize) {
+        return new DeadLetterSpillJournal(new SimpleMeterRegistry(), true, tempDir, segmentSize);
+    }
+
+    private List<SpillEntry> drainAll(DeadLetterSpillJournal journal) {
+        List<SpillEntry> drained = new ArrayList<>();
+        while (true) {
+            DeadLetterSpillJournal.Batch batch = journal.readBatch(3);
+            if (batch.entries().isEmpty() && !batch.segmentExhausted()) return drained;
+            drained.addAll(batch.entries());
+            journal.acknowledge(batch);
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+}
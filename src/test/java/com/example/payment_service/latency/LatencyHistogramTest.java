@@ -0,0 +1,66 @@
+package com.example.payment_service.latency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    @DisplayName("📊 percentile 은 실제 값 대비 상대 오차 약 3% 이내로 계산된다")
+    void percentile_WithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofSeconds(10), 6, clock::get);
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(100_000);
+        assertThat(snapshot.maxMicros()).isEqualTo(100_000);
+        assertThat((double) snapshot.percentileMicros(50)).isCloseTo(50_000, within(50_000 * 0.035));
+        assertThat((double) snapshot.percentileMicros(99)).isCloseTo(99_000, within(99_000 * 0.035));
+        assertThat(snapshot.percentileMicros(100)).isEqualTo(100_000);
+    }
+
+    @Test
+    @DisplayName("최근 window x windows 구간을 벗어난 슬롯은 집계에서 빠지고 재사용 시 초기화된다")
+    void snapshot_DropsExpiredWindows() {
+        LatencyHistogram histogram = new LatencyHistogram(Duration.ofSeconds(10), 3, clock::get);
+        histogram.recordMicros(5_000_000);
+
+        clock.addAndGet(20_000);
+        histogram.recordMicros(1_000);
+        assertThat(histogram.snapshot().count()).isEqualTo(2);
+
+        // 첫 기록 슬롯이 창 밖으로 밀려남
+        clock.addAndGet(10_000);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1);
+        assertThat(snapshot.maxMicros()).isEqualTo(1_000);
+
+        // 같은 슬롯에 새 구간 기록 → 이전 값은 지워짐
+        histogram.recordMicros(2_000);
+        assertThat(histogram.snapshot().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("버킷 인덱스는 값 순서대로 연속이고 상한값은 해당 버킷 안에 있다")
+    void bucketIndex_IsContiguous() {
+        int previous = 0;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(index - previous).isBetween(0, 1);
+            assertThat(LatencyHistogram.upperBoundOf(index)).isGreaterThanOrEqualTo(value);
+            previous = index;
+        }
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE >>> 22)).isLessThan(LatencyHistogram.BUCKETS);
+    }
+}
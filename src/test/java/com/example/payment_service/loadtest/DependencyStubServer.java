@@ -0,0 +1,119 @@
+package com.example.payment_service.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * pricing-service / user-service 를 흉내 내는 in-process HTTP 스텁.
+ * 실제 서비스와 같은 경로를 노출하고 StubProfile 에 따라 지연과 503 에러를 섞어 응답합니다.
+ * user-service 일괄 조회에서 "missing-" 으로 시작하는 userId 는 응답에서 빠집니다. (항목별 실패 격리 확인용)
+ */
+public class DependencyStubServer implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String PRICING_RULES_JSON = """
+            {"version":"stub-1","baseFare":15000,"perMeter":0,"perSecond":0,"minimumFare":0,"roundingUnit":100,"timeBands":[]}""";
+
+    private final StubProfile profile;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private DisposableServer server;
+
+    private DependencyStubServer(StubProfile profile) {
+        this.profile = profile;
+    }
+
+    public static DependencyStubServer pricingService(StubProfile profile) {
+        DependencyStubServer stub = new DependencyStubServer(profile);
+        stub.server = HttpServer.create()
+                                .host("localhost")
+                                .port(0)
+                                .route(routes -> routes
+                                        .get("/internal/api/pricing/calculate",
+                                                (req, res) -> stub.respond(res, "{\"fare\":15000}"))
+                                        // 고정 요금 15000 과 같은 결과를 내는 규칙 (shadow 모드에서 불일치 0 이어야 함)
+                                        .get("/internal/api/pricing/rules/snapshot",
+                                                (req, res) -> stub.respond(res, PRICING_RULES_JSON)))
+                                .bindNow();
+        return stub;
+    }
+
+    public static DependencyStubServer userService(StubProfile profile) {
+        DependencyStubServer stub = new DependencyStubServer(profile);
+        stub.server = HttpServer.create()
+                                .host("localhost")
+                                .port(0)
+                                .route(routes -> routes
+                                        .get("/internal/api/users/{userId}/payment-methods/default",
+                                                (req, res) -> stub.respond(res, userInfoJson(req.param("userId"))))
+                                        .post("/internal/api/users/payment-methods/default/bulk",
+                                                (req, res) -> req.receive().aggregate().asString()
+                                                                 .flatMap(body -> stub.respond(res, bulkUserInfoJson(body)))))
+                                .bindNow();
+        return stub;
+    }
+
+    static String userInfoJson(String userId) {
+        return """
+                {"userId":"%s","userName":"load","userEmail":"load@test.com","paymentMethodId":"card-%s","billingKey":"bk-%s"}"""
+                .formatted(userId, userId, userId);
+    }
+
+    static String bulkUserInfoJson(String requestBody) {
+        JsonNode userIds;
+        try {
+            userIds = OBJECT_MAPPER.readTree(requestBody).path("userIds");
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> found = new ArrayList<>();
+        for (JsonNode userId : userIds) {
+            if (!userId.asText().startsWith("missing-")) {
+                found.add(userInfoJson(userId.asText()));
+            }
+        }
+        return "[" + String.join(",", found) + "]";
+    }
+
+    private Mono<Void> respond(HttpServerResponse res, String body) {
+        requests.incrementAndGet();
+        return Mono.delay(profile.nextLatency())
+                   .then(Mono.defer(() -> {
+                       if (profile.nextIsError()) {
+                           errors.incrementAndGet();
+                           return res.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+                       }
+                       return res.header("Content-Type", "application/json")
+                                 .sendString(Mono.just(body))
+                                 .then();
+                   }));
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
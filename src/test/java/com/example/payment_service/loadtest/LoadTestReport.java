@@ -0,0 +1,58 @@
+package com.example.payment_service.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 부하 테스트 결과 요약. 콘솔 출력과 함께 build/reports/loadtest/report.txt 로 남깁니다.
+ */
+public record LoadTestReport(
+        int targetRate,
+        long sent,
+        long received,
+        double elapsedSeconds,
+        long[] latenciesMillis,
+        long preparedStatements,
+        long maxOutboxBacklog,
+        long maxOutboxAgeMillis,
+        long pricingRequests,
+        long userRequests
+) {
+
+    public double throughput() {
+        return elapsedSeconds > 0 ? received / elapsedSeconds : 0;
+    }
+
+    public long percentile(double p) {
+        if (latenciesMillis.length == 0) return 0;
+        long[] sorted = latenciesMillis.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public String render() {
+        return String.join(System.lineSeparator(),
+                "==================== Payment Load Test ====================",
+                String.format("target rate          : %d events/s", targetRate),
+                String.format("sent / received      : %d / %d", sent, received),
+                String.format("elapsed              : %.1f s", elapsedSeconds),
+                String.format("throughput           : %.1f payments/s", throughput()),
+                String.format("e2e latency p50      : %d ms", percentile(50)),
+                String.format("e2e latency p99      : %d ms", percentile(99)),
+                String.format("e2e latency p99.9    : %d ms", percentile(99.9)),
+                String.format("e2e latency max      : %d ms", percentile(100)),
+                String.format("DB statements        : %d (%.1f / payment)", preparedStatements,
+                        received > 0 ? (double) preparedStatements / received : 0),
+                String.format("outbox READY backlog : max %d rows, oldest %d ms", maxOutboxBacklog, maxOutboxAgeMillis),
+                String.format("stub requests        : pricing=%d, user=%d", pricingRequests, userRequests),
+                "===========================================================");
+    }
+
+    public void writeTo(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, render() + System.lineSeparator());
+    }
+}
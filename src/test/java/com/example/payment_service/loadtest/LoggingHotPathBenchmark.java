@@ -0,0 +1,173 @@
+package com.example.payment_service.loadtest;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.payment_service.logging.MeteredAsyncAppender;
+import com.example.payment_service.logging.SuccessLogSamplingFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 결제 1건이 남기는 INFO 로그 묶음의 hot path 비용 비교 (./gradlew loadTest --tests '*LoggingHotPathBenchmark').
+ *
+ * logback.xml 과 같은 패턴으로 동기 appender 2개(CONSOLE/FILE 대용, 둘 다 파일) 구성과
+ * MeteredAsyncAppender + SuccessLogSamplingFilter 구성을 각각 별도 LoggerContext 로 띄우고,
+ * 여러 스레드에서 결제 N 건 분량의 로그를 찍는 동안 호출 스레드가 쓴 시간(ns/결제)을 잽니다.
+ */
+@Tag("load")
+class LoggingHotPathBenchmark {
+
+    private static final int PAYMENTS = Integer.getInteger("loadtest.logging.payments", 200_000);
+    private static final int THREADS = Integer.getInteger("loadtest.logging.threads", 8);
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSS'Z', UTC} %-5level [payment-service,%X{traceId:-},%X{spanId:-}] [%thread] %logger{36} - %msg%n";
+    private static final Path REPORT_PATH = Path.of("build", "reports", "loadtest", "logging-benchmark.txt");
+
+    @TempDir Path tempDir;
+
+    private record Result(String name, double nanosPerPayment, long dropped, long sampledOut) {
+        String render() {
+            return String.format("%-16s %10.0f ns/payment   dropped=%d   sampledOut=%d", name, nanosPerPayment, dropped, sampledOut);
+        }
+    }
+
+    @Test
+    @DisplayName("📝 동기 appender 대비 비동기 + 샘플링 구성의 결제당 로깅 비용")
+    void compareSyncAndAsyncLogging() throws Exception {
+        // JIT 예열용으로 한 번씩 돌리고 버림
+        run("warmup-sync", false, PAYMENTS / 10);
+        run("warmup-async", true, PAYMENTS / 10);
+
+        Result sync = run("sync", false, PAYMENTS);
+        Result async = run("async+sampling", true, PAYMENTS);
+
+        String report = String.join("\n",
+                "=== Logging hot-path benchmark (" + PAYMENTS + " payments, " + THREADS + " threads) ===",
+                sync.render(),
+                async.render(),
+                String.format("speedup          %10.1fx", sync.nanosPerPayment() / async.nanosPerPayment()));
+        System.out.println(report);
+        Files.createDirectories(REPORT_PATH.getParent());
+        Files.writeString(REPORT_PATH, report + "\n");
+
+        assertThat(sync.nanosPerPayment()).isPositive();
+        assertThat(async.nanosPerPayment()).isPositive();
+    }
+
+    private Result run(String name, boolean async, int payments) throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.start();
+
+        MeteredAsyncAppender asyncConsole = null;
+        MeteredAsyncAppender asyncFile = null;
+        SuccessLogSamplingFilter sampling = null;
+        Appender<ILoggingEvent> console = fileAppender(context, name + "-console.log");
+        Appender<ILoggingEvent> file = fileAppender(context, name + "-file.log");
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (async) {
+            sampling = new SuccessLogSamplingFilter();
+            sampling.setContext(context);
+            sampling.setLoggers("com.example.payment_service.service.PaymentTransactionService,"
+                    + "com.example.payment_service.client.VirtualPGClient,"
+                    + "com.example.payment_service.kafka.PaymentOutboxRelay");
+            sampling.start();
+            context.addTurboFilter(sampling);
+
+            asyncConsole = asyncAppender(context, console);
+            asyncFile = asyncAppender(context, file);
+            root.addAppender(asyncConsole);
+            root.addAppender(asyncFile);
+        } else {
+            root.addAppender(console);
+            root.addAppender(file);
+        }
+
+        Logger transaction = context.getLogger("com.example.payment_service.service.PaymentTransactionService");
+        Logger pg = context.getLogger("com.example.payment_service.client.VirtualPGClient");
+        Logger relay = context.getLogger("com.example.payment_service.kafka.PaymentOutboxRelay");
+
+        AtomicLong busyNanos = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        int perThread = payments / THREADS;
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * perThread;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long begin = System.nanoTime();
+                for (int i = offset; i < offset + perThread; i++) {
+                    // 결제 1건의 성공 경로가 남기는 INFO 로그 (운영 코드와 같은 템플릿)
+                    transaction.info("결제 요청 기록 저장(PENDING). Payment ID: {}", i);
+                    transaction.info("결제 처리 권한 획득 (PROCESSING 상태로 변경). Payment ID: {}", i);
+                    pg.info("✅ [Virtual-PG] 결제 승인 성공. TxID: {}", "tx_" + i);
+                    transaction.info("결제 완료 및 Outbox 저장 성공. Payment ID: {}", i);
+                    relay.info("✅ [Payment-Outbox] 발행 성공 | ID: {} | Topic: {} | Key: {}", i, "payment_events", "trip-" + i);
+                }
+                busyNanos.addAndGet(System.nanoTime() - begin);
+            }, "bench-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long dropped = async ? asyncConsole.getDroppedCount() + asyncFile.getDroppedCount() : 0;
+        long sampledOut = async ? sampling.getSampledOutCount() : 0;
+        // 비동기 큐에 남은 로그는 stop 에서 flush (측정 구간 밖)
+        context.stop();
+
+        return new Result(name, (double) busyNanos.get() / (perThread * THREADS), dropped, sampledOut);
+    }
+
+    private Appender<ILoggingEvent> fileAppender(LoggerContext context, String fileName) throws IOException {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(fileName);
+        appender.setFile(tempDir.resolve(fileName).toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private MeteredAsyncAppender asyncAppender(LoggerContext context, Appender<ILoggingEvent> delegate) {
+        MeteredAsyncAppender appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC_" + delegate.getName());
+        appender.setQueueSize(8192);
+        appender.setDiscardingThreshold(1638);
+        appender.setNeverBlock(false);
+        appender.setMaxFlushTime(10_000);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.payment_service.loadtest;
+
+import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 용량 측정용 부하 테스트 (기본 test 태스크에서는 제외, ./gradlew loadTest 로 실행).
+ *
+ * 임베디드 Kafka + H2(MySQL 모드) + pricing/user 스텁 위에서 앱 전체를 띄우고,
+ * trip_events 를 목표 속도로 발행한 뒤 payment_events 가 나올 때까지의 end-to-end 시간을 잽니다.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("loadtest")
+@EmbeddedKafka(partitions = 3,
+        topics = {"trip_events", "trip_events.DLT", "payment_events"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class PaymentLoadTest {
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 50);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final int DRAIN_SECONDS = Integer.getInteger("loadtest.drain-seconds", 60);
+    private static final Path REPORT_PATH = Path.of("build", "reports", "loadtest", "report.txt");
+
+    private static DependencyStubServer pricingStub;
+    private static DependencyStubServer userStub;
+    private static PgSimulatorServer pgSimulator;
+
+    @Autowired private EmbeddedKafkaBroker embeddedKafka;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        pricingStub = DependencyStubServer.pricingService(StubProfile.fromSystemProperties("pricing", 30));
+        userStub = DependencyStubServer.userService(StubProfile.fromSystemProperties("user", 20));
+
+        // @LoadBalanced WebClient 가 서비스 이름으로 스텁을 찾도록 simple discovery 에 등록
+        registry.add("spring.cloud.discovery.client.simple.instances.pricing-service[0].uri", pricingStub::baseUrl);
+        registry.add("spring.cloud.discovery.client.simple.instances.user-service[0].uri", userStub::baseUrl);
+
+        // -Ploadtest.pg=http: 가상 PG 대신 HttpPgClient + PG 시뮬레이터로 실제 HTTP I/O 비용까지 측정
+        if ("http".equals(System.getProperty("loadtest.pg"))) {
+            pgSimulator = PgSimulatorServer.start(PgSimulatorServer.Settings.fromSystemProperties().withPort(0));
+            registry.add("payment.pg.client", () -> "http");
+            registry.add("payment.pg.http.base-url", pgSimulator::baseUrl);
+        }
+
+        // -Ploadtest.pg-seed=42: 가상 PG 결과 순서를 고정해 실행 간 비교를 재현 가능하게
+        if (System.getProperty("loadtest.pg-seed") != null) {
+            registry.add("payment.pg.virtual.seed", () -> System.getProperty("loadtest.pg-seed"));
+        }
+
+        // -Ploadtest.pg-batch=true: PG 배치 승인 on/off 처리량·지연 비교 (max-size, linger-ms 로 조정)
+        if (Boolean.getBoolean("loadtest.pg-batch")) {
+            registry.add("payment.pg.batch.enabled", () -> "true");
+            registry.add("payment.pg.batch.max-size", () -> Integer.getInteger("loadtest.pg-batch.max-size", 20));
+            registry.add("payment.pg.batch.linger", () -> Long.getLong("loadtest.pg-batch.linger-ms", 20) + "ms");
+        }
+
+        // -Ploadtest.fare-mode=shadow|local: 로컬 요금 규칙 스냅샷 경로 측정 (local 이면 pricing 스텁 호출이 스냅샷 조회만 남음)
+        String fareMode = System.getProperty("loadtest.fare-mode");
+        if (fareMode != null) {
+            registry.add("payment.fare.mode", () -> fareMode);
+        }
+
+        // -Ploadtest.user-batch=true: user-service 결제수단 조회를 bulk 호출로 묶었을 때 호출 수·지연 비교
+        if (Boolean.getBoolean("loadtest.user-batch")) {
+            registry.add("services.user-service.batch.enabled", () -> "true");
+            registry.add("services.user-service.batch.max-size", () -> Integer.getInteger("loadtest.user-batch.max-size", 50));
+            registry.add("services.user-service.batch.linger", () -> Long.getLong("loadtest.user-batch.linger-ms", 10) + "ms");
+        }
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        if (pricingStub != null) pricingStub.close();
+        if (userStub != null) userStub.close();
+        if (pgSimulator != null) pgSimulator.close();
+    }
+
+    @Test
+    @DisplayName("📈 trip_events 를 목표 속도로 발행하고 payment_events 까지의 처리량/지연을 측정한다")
+    void driveTripEventsAndMeasureEndToEnd() throws Exception {
+        long total = (long) RATE * DURATION_SECONDS;
+        Map<String, Long> sentAtNanos = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicBoolean collecting = new AtomicBoolean(true);
+        AtomicLong lastReceivedNanos = new AtomicLong();
+        AtomicLong maxOutboxBacklog = new AtomicLong();
+        AtomicLong maxOutboxAgeMillis = new AtomicLong();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> sampleOutbox(maxOutboxBacklog, maxOutboxAgeMillis), 0, 1, TimeUnit.SECONDS);
+
+        Thread collector = new Thread(() -> collect(sentAtNanos, latencies, collecting, lastReceivedNanos), "loadtest-collector");
+        collector.start();
+
+        long startNanos = System.nanoTime();
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps())) {
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+            for (long i = 0; i < total; i++) {
+                long waitNanos = startNanos + i * intervalNanos - System.nanoTime();
+                if (waitNanos > 0) LockSupport.parkNanos(waitNanos);
+
+                String tripId = "load-" + UUID.randomUUID();
+                TripCompletedEvent event = new TripCompletedEvent(tripId, "user-" + (i % 1000), 3200, 840, LocalDateTime.now());
+                sentAtNanos.put(tripId, System.nanoTime());
+                producer.send(new ProducerRecord<>("trip_events", tripId, objectMapper.writeValueAsString(event)));
+            }
+            producer.flush();
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_SECONDS);
+        while (latencies.size() < total && System.nanoTime() < drainDeadline) {
+            Thread.sleep(200);
+        }
+        collecting.set(false);
+        collector.join();
+        sampler.shutdownNow();
+
+        long endNanos = lastReceivedNanos.get() > 0 ? lastReceivedNanos.get() : System.nanoTime();
+        LoadTestReport report = new LoadTestReport(
+                RATE,
+                total,
+                latencies.size(),
+                (endNanos - startNanos) / 1_000_000_000.0,
+                latencies.stream().mapToLong(Long::longValue).toArray(),
+                statistics.getPrepareStatementCount(),
+                maxOutboxBacklog.get(),
+                maxOutboxAgeMillis.get(),
+                pricingStub.requestCount(),
+                userStub.requestCount()
+        );
+
+        System.out.println(report.render());
+        report.writeTo(REPORT_PATH);
+
+        assertThat(report.received()).isPositive();
+    }
+
+    private void collect(Map<String, Long> sentAtNanos, ConcurrentLinkedQueue<Long> latencies,
+                         AtomicBoolean collecting, AtomicLong lastReceivedNanos) {
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerProps())) {
+            consumer.subscribe(List.of("payment_events"));
+            while (collecting.get()) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                    // 실패 경로는 이벤트가 두 번 나올 수 있으므로 첫 도착만 집계
+                    Long sentAt = sentAtNanos.remove(record.key());
+                    if (sentAt == null) continue;
+                    long now = System.nanoTime();
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(now - sentAt));
+                    lastReceivedNanos.set(now);
+                }
+            }
+        }
+    }
+
+    private void sampleOutbox(AtomicLong maxBacklog, AtomicLong maxAgeMillis) {
+        try {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT COUNT(*) AS cnt, MIN(created_at) AS oldest FROM payment_outbox WHERE status = 'READY'");
+            long backlog = ((Number) row.get("cnt")).longValue();
+            maxBacklog.accumulateAndGet(backlog, Math::max);
+
+            if (row.get("oldest") instanceof Timestamp oldest) {
+                long ageMillis = Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis();
+                maxAgeMillis.accumulateAndGet(ageMillis, Math::max);
+            }
+        } catch (Exception ignored) {
+            // 스키마 생성 전 등 일시적인 조회 실패는 다음 샘플에서 다시 시도
+        }
+    }
+
+    private Map<String, Object> producerProps() {
+        return Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 5
+        );
+    }
+
+    private Map<String, Object> consumerProps() {
+        return Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "loadtest-collector",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class
+        );
+    }
+}
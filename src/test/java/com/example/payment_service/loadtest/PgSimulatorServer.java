@@ -0,0 +1,210 @@
+package com.example.payment_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * HttpPgClient 용 로컬 PG 시뮬레이터.
+ *
+ * 지연은 로그정규 분포(중앙값 + p99)로 뽑고, 거절(402)과 장애(503) 비율을 섞어 응답합니다.
+ * 부하 테스트에서는 -Ploadtest.pg=http 로 in-process 로 뜨고, 단독 실행은 ./gradlew runPgSimulator 입니다.
+ * (-Ppgsim.port / latency-median-ms / latency-p99-ms / decline-rate / error-rate)
+ */
+public class PgSimulatorServer implements AutoCloseable {
+
+    // 표준정규분포 99 퍼센타일의 z 값
+    private static final double Z_99 = 2.326;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public record Settings(int port, long latencyMedianMillis, long latencyP99Millis, double declineRate, double errorRate) {
+
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("pgsim.port", 9090),
+                    Long.getLong("pgsim.latency-median-ms", 120),
+                    Long.getLong("pgsim.latency-p99-ms", 800),
+                    Double.parseDouble(System.getProperty("pgsim.decline-rate", "0.05")),
+                    Double.parseDouble(System.getProperty("pgsim.error-rate", "0.0"))
+            );
+        }
+
+        Settings withPort(int port) {
+            return new Settings(port, latencyMedianMillis, latencyP99Millis, declineRate, errorRate);
+        }
+    }
+
+    private final Settings settings;
+    private final double mu;
+    private final double sigma;
+    private final Map<String, String> statusByTransaction = new ConcurrentHashMap<>();
+    private final Map<String, String> transactionByOrder = new ConcurrentHashMap<>();
+    private final AtomicLong approvals = new AtomicLong();
+    private final AtomicLong declines = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private DisposableServer server;
+
+    private PgSimulatorServer(Settings settings) {
+        this.settings = settings;
+        this.mu = Math.log(Math.max(1, settings.latencyMedianMillis()));
+        this.sigma = Math.max(0, Math.log(Math.max(settings.latencyP99Millis(), settings.latencyMedianMillis()) / (double) Math.max(1, settings.latencyMedianMillis())) / Z_99);
+    }
+
+    public static PgSimulatorServer start(Settings settings) {
+        PgSimulatorServer simulator = new PgSimulatorServer(settings);
+        simulator.server = HttpServer.create()
+                                     .host("localhost")
+                                     .port(settings.port())
+                                     .route(routes -> routes
+                                             .post("/v1/payments", simulator::approve)
+                                             .post("/v1/payments/batch", simulator::approveBatch)
+                                             .post("/v1/payments/{transactionId}/cancel", simulator::cancel)
+                                             .get("/v1/payments/{transactionId}", simulator::status))
+                                     .bindNow();
+        return simulator;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Settings settings = Settings.fromSystemProperties();
+        PgSimulatorServer simulator = start(settings);
+        System.out.printf("PG simulator listening on %s (median=%dms, p99=%dms, decline=%.2f, error=%.2f)%n",
+                simulator.baseUrl(), settings.latencyMedianMillis(), settings.latencyP99Millis(),
+                settings.declineRate(), settings.errorRate());
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close));
+        simulator.server.onDispose().block();
+    }
+
+    private Mono<Void> approve(HttpServerRequest req, HttpServerResponse res) {
+        String orderId = req.requestHeaders().get("Idempotency-Key", UUID.randomUUID().toString());
+        return req.receive().aggregate().then(respondAfterLatency(res, () -> {
+            // 같은 멱등 키로 다시 오면 기존 거래를 그대로 돌려줌
+            String existing = transactionByOrder.get(orderId);
+            if (existing != null) {
+                return json(res, transactionJson(existing, statusByTransaction.get(existing)));
+            }
+            if (ThreadLocalRandom.current().nextDouble() < settings.declineRate()) {
+                declines.incrementAndGet();
+                return res.status(HttpResponseStatus.PAYMENT_REQUIRED)
+                          .sendString(Mono.just("{\"code\":\"DECLINED\",\"message\":\"insufficient balance\"}"))
+                          .then();
+            }
+            String transactionId = "tx_" + UUID.randomUUID().toString().substring(0, 8);
+            statusByTransaction.put(transactionId, "PAID");
+            transactionByOrder.put(orderId, transactionId);
+            approvals.incrementAndGet();
+            return json(res, transactionJson(transactionId, "PAID"));
+        }));
+    }
+
+    // 배치 승인: 왕복 지연은 배치당 한 번, 거절은 항목별로 판단
+    private Mono<Void> approveBatch(HttpServerRequest req, HttpServerResponse res) {
+        return req.receive().aggregate().asString().flatMap(body -> respondAfterLatency(res, () -> {
+            List<String> results = new ArrayList<>();
+            for (JsonNode item : readTree(body).path("items")) {
+                String orderId = item.path("idempotencyKey").asText(item.path("orderId").asText());
+                String transactionId = transactionByOrder.get(orderId);
+                if (transactionId == null && ThreadLocalRandom.current().nextDouble() < settings.declineRate()) {
+                    declines.incrementAndGet();
+                    results.add("{\"orderId\":\"%s\",\"status\":\"DECLINED\",\"reason\":\"insufficient balance\"}".formatted(orderId));
+                    continue;
+                }
+                if (transactionId == null) {
+                    transactionId = "tx_" + UUID.randomUUID().toString().substring(0, 8);
+                    statusByTransaction.put(transactionId, "PAID");
+                    transactionByOrder.put(orderId, transactionId);
+                    approvals.incrementAndGet();
+                }
+                results.add("{\"orderId\":\"%s\",\"transactionId\":\"%s\",\"status\":\"%s\"}"
+                        .formatted(orderId, transactionId, statusByTransaction.get(transactionId)));
+            }
+            return json(res, "{\"results\":[" + String.join(",", results) + "]}");
+        }));
+    }
+
+    private static JsonNode readTree(String body) {
+        try {
+            return OBJECT_MAPPER.readTree(body);
+        } catch (Exception e) {
+            return OBJECT_MAPPER.createObjectNode();
+        }
+    }
+
+    private Mono<Void> cancel(HttpServerRequest req, HttpServerResponse res) {
+        String transactionId = req.param("transactionId");
+        return respondAfterLatency(res, () -> {
+            if (statusByTransaction.replace(transactionId, "CANCELED") == null) {
+                return res.status(HttpResponseStatus.NOT_FOUND).send().then();
+            }
+            return json(res, transactionJson(transactionId, "CANCELED"));
+        });
+    }
+
+    private Mono<Void> status(HttpServerRequest req, HttpServerResponse res) {
+        String transactionId = req.param("transactionId");
+        return respondAfterLatency(res, () ->
+                json(res, transactionJson(transactionId, statusByTransaction.getOrDefault(transactionId, "CANCELED"))));
+    }
+
+    private Mono<Void> respondAfterLatency(HttpServerResponse res, Supplier<Mono<Void>> body) {
+        return Mono.delay(nextLatency())
+                   .then(Mono.defer(() -> {
+                       if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                           errors.incrementAndGet();
+                           return res.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+                       }
+                       return body.get();
+                   }));
+    }
+
+    private Duration nextLatency() {
+        double millis = Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofMillis(Math.round(millis));
+    }
+
+    private Mono<Void> json(HttpServerResponse res, String body) {
+        return res.header("Content-Type", "application/json")
+                  .sendString(Mono.just(body))
+                  .then();
+    }
+
+    private static String transactionJson(String transactionId, String status) {
+        return """
+                {"transactionId":"%s","status":"%s"}""".formatted(transactionId, status);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    public long approvalCount() {
+        return approvals.get();
+    }
+
+    public long declineCount() {
+        return declines.get();
+    }
+
+    public long errorCount() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.payment_service.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트용 HTTP 스텁의 지연/에러 프로파일.
+ * -Ploadtest.{name}.latency-ms / jitter-ms / error-rate 로 조정합니다.
+ */
+public record StubProfile(long latencyMillis, long jitterMillis, double errorRate) {
+
+    public static StubProfile fromSystemProperties(String name, long defaultLatencyMillis) {
+        String prefix = "loadtest." + name + ".";
+        return new StubProfile(
+                Long.getLong(prefix + "latency-ms", defaultLatencyMillis),
+                Long.getLong(prefix + "jitter-ms", defaultLatencyMillis / 2),
+                Double.parseDouble(System.getProperty(prefix + "error-rate", "0.0"))
+        );
+    }
+
+    public Duration nextLatency() {
+        long jitter = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1) : 0;
+        return Duration.ofMillis(Math.max(0, latencyMillis + jitter));
+    }
+
+    public boolean nextIsError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+}
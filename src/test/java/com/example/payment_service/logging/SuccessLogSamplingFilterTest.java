@@ -0,0 +1,58 @@
+package com.example.payment_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuccessLogSamplingFilterTest {
+
+    private static final String TARGET = "com.example.payment_service.service.PaymentTransactionService";
+
+    private final LoggerContext context = new LoggerContext();
+    private final SuccessLogSamplingFilter filter = new SuccessLogSamplingFilter();
+
+    @Test
+    @DisplayName("같은 템플릿의 INFO 는 burst 이후 sampleRate 건 중 1건만 남긴다")
+    void decide_SamplesRepetitiveInfoAfterBurst() {
+        configure(5, 10);
+        Logger logger = context.getLogger(TARGET);
+
+        int kept = 0;
+        for (int i = 0; i < 105; i++) {
+            if (filter.decide(null, logger, Level.INFO, "결제 완료. Payment ID: {}", new Object[]{i}, null) != FilterReply.DENY) {
+                kept++;
+            }
+        }
+
+        // burst 5건 + 나머지 100건 중 10건
+        assertThat(kept).isEqualTo(15);
+        assertThat(filter.getSampledOutCount()).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("WARN/ERROR, 예외가 붙은 로그, 대상이 아닌 logger 는 샘플링하지 않는다")
+    void decide_NeverSamplesErrorsOrOtherLoggers() {
+        configure(0, 1000);
+        Logger target = context.getLogger(TARGET);
+        Logger other = context.getLogger("com.example.payment_service.service.PaymentService");
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(filter.decide(null, target, Level.ERROR, "💀 DOUBLE FAULT", null, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, target, Level.INFO, "실패", null, new RuntimeException())).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(filter.decide(null, other, Level.INFO, "✅ 자동 취소(환불) 성공.", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    private void configure(int burst, int sampleRate) {
+        filter.setContext(context);
+        filter.setLoggers(TARGET);
+        filter.setBurst(burst);
+        filter.setSampleRate(sampleRate);
+        filter.start();
+    }
+}
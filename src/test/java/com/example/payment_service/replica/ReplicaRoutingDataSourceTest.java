@@ -0,0 +1,109 @@
+package com.example.payment_service.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary-" + run + ";DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica-" + run + ";DB_CLOSE_DELAY=-1", "sa", "");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        // 복제 상태 대신 H2 테이블에서 지연(초)을 읽음
+        replicaJdbc.execute("CREATE TABLE replica_status (seconds_behind_source BIGINT)");
+        replicaJdbc.update("INSERT INTO replica_status VALUES (0)");
+
+        lagMonitor = new ReplicaLagMonitor(List.of(replica), Duration.ofSeconds(2),
+                "SELECT seconds_behind_source FROM replica_status", "seconds_behind_source", meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(0, primary, replica, lagMonitor, meterRegistry));
+        jdbc = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("SHUTDOWN");
+        replicaJdbc.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("📖 readOnly 트랜잭션과 지정 스캔은 복제본, 힌트 없는 조회와 쓰기 트랜잭션은 primary 로 간다")
+    void routesReadOnlyWorkToReplica() {
+        lagMonitor.refresh();
+
+        assertThat(ReadRoute.onReplica(this::currentNode)).isEqualTo("replica");
+        assertThat(currentNode()).isEqualTo("primary");
+
+        transactionTemplate.setReadOnly(true);
+        assertThat(transactionTemplate.execute(status -> currentNode())).isEqualTo("replica");
+
+        // 쓰기 트랜잭션 안에서는 복제본 힌트를 무시
+        transactionTemplate.setReadOnly(false);
+        assertThat(transactionTemplate.execute(status -> ReadRoute.onReplica(this::currentNode))).isEqualTo("primary");
+
+        assertThat(meterRegistry.get("payment.db.route").tag("route", "replica").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("복제 지연이 기준을 넘거나 아직 확인 전이면 primary 로 대체한다")
+    void fallsBackToPrimaryWhenReplicaLags() {
+        // 첫 확인 전
+        assertThat(ReadRoute.onReplica(this::currentNode)).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_status SET seconds_behind_source = 10");
+        lagMonitor.refresh();
+        assertThat(ReadRoute.onReplica(this::currentNode)).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_status SET seconds_behind_source = 1");
+        lagMonitor.refresh();
+        assertThat(ReadRoute.onReplica(this::currentNode)).isEqualTo("replica");
+
+        assertThat(meterRegistry.get("payment.db.route").tag("route", "replica_lag_fallback").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("replicaFirst 는 복제본에 아직 없는 행을 primary 에서 다시 찾는다")
+    void replicaFirst_FallsBackToPrimaryOnMiss() {
+        lagMonitor.refresh();
+        primaryJdbc.update("INSERT INTO node VALUES ('fresh')");
+
+        Integer found = ReadRoute.replicaFirst(
+                () -> jdbc.queryForObject("SELECT COUNT(*) FROM node WHERE name = 'fresh'", Integer.class),
+                count -> count > 0);
+
+        assertThat(found).isEqualTo(1);
+    }
+
+    private String currentNode() {
+        return jdbc.queryForObject("SELECT name FROM node FETCH FIRST 1 ROWS ONLY", String.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.payment_service.repository;
+
+import com.example.payment_service.entity.FailedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FailedEventRepository.UPSERT(native) 를 H2 MySQL 호환 모드에서 그대로 실행해 보는 테스트.
+ */
+class FailedEventUpsertTest {
+
+    private static final String TOPIC = "trip_events.DLT";
+    private static final String PAYLOAD = "{\"tripId\":\"trip-1\"}";
+
+    private JdbcTemplate jdbc;
+    private NamedParameterJdbcTemplate named;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:failed-event-" + run + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        named = new NamedParameterJdbcTemplate(dataSource);
+
+        // FailedEvent 매핑과 같은 컬럼/유니크 제약
+        jdbc.execute("""
+                CREATE TABLE failed_event (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    topic VARCHAR(255) NOT NULL,
+                    kafka_key VARCHAR(255),
+                    payload VARCHAR(4000) NOT NULL,
+                    error_message VARCHAR(1000),
+                    status VARCHAR(20) NOT NULL,
+                    fingerprint VARCHAR(64),
+                    occurrence_count INT DEFAULT 1 NOT NULL,
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP,
+                    CONSTRAINT uk_failed_event_fingerprint UNIQUE (fingerprint)
+                )
+                """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("🔑 fingerprint 는 같은 (topic, key, payload) 면 항상 같고, 하나라도 다르면 달라진다")
+    void fingerprintOf_IsStable() {
+        String fingerprint = FailedEvent.fingerprintOf(TOPIC, "trip-1", PAYLOAD);
+
+        assertThat(fingerprint).hasSize(64)
+                               .isEqualTo(FailedEvent.fingerprintOf(TOPIC, "trip-1", PAYLOAD))
+                               .isEqualTo(FailedEvent.builder().topic(TOPIC).kafkaKey("trip-1").payload(PAYLOAD).build().getFingerprint());
+        assertThat(FailedEvent.fingerprintOf(TOPIC, "trip-2", PAYLOAD)).isNotEqualTo(fingerprint);
+        assertThat(FailedEvent.fingerprintOf(TOPIC, "trip-1", PAYLOAD + " ")).isNotEqualTo(fingerprint);
+        assertThat(FailedEvent.fingerprintOf("trip_events", "trip-1", PAYLOAD)).isNotEqualTo(fingerprint);
+        // 구분자가 있으므로 경계를 옮겨도 충돌하지 않음
+        assertThat(FailedEvent.fingerprintOf(TOPIC, "trip-1{", PAYLOAD.substring(1))).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    @DisplayName("같은 메시지가 다시 오면 새 행 없이 도착 횟수를 올리고 최신 에러로 갱신한다")
+    void upsert_IncrementsOccurrenceCount() {
+        upsert("timeout");
+        upsert("pg down");
+        upsert("pg down again");
+
+        Map<String, Object> row = jdbc.queryForMap("SELECT status, occurrence_count, error_message FROM failed_event");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM failed_event", Integer.class)).isEqualTo(1);
+        assertThat(row.get("OCCURRENCE_COUNT")).isEqualTo(3);
+        assertThat(row.get("ERROR_MESSAGE")).isEqualTo("pg down again");
+        assertThat(row.get("STATUS")).isEqualTo("PENDING");
+    }
+
+    @Test
+    @DisplayName("재발행(RESOLVED) 후 다시 실패해 돌아오면 PENDING 으로 되돌리고, IGNORED 는 그대로 둔다")
+    void upsert_ReopensResolvedOnly() {
+        upsert("first");
+        jdbc.update("UPDATE failed_event SET status = 'RESOLVED'");
+        upsert("second");
+        assertThat(jdbc.queryForObject("SELECT status FROM failed_event", String.class)).isEqualTo("PENDING");
+
+        jdbc.update("UPDATE failed_event SET status = 'IGNORED'");
+        upsert("third");
+        assertThat(jdbc.queryForObject("SELECT status FROM failed_event", String.class)).isEqualTo("IGNORED");
+        assertThat(jdbc.queryForObject("SELECT occurrence_count FROM failed_event", Integer.class)).isEqualTo(3);
+    }
+
+    private void upsert(String errorMessage) {
+        named.update(FailedEventRepository.UPSERT, new MapSqlParameterSource()
+                .addValue("topic", TOPIC)
+                .addValue("kafkaKey", "trip-1")
+                .addValue("payload", PAYLOAD)
+                .addValue("errorMessage", errorMessage)
+                .addValue("fingerprint", FailedEvent.fingerprintOf(TOPIC, "trip-1", PAYLOAD))
+                .addValue("now", LocalDateTime.now()));
+    }
+}
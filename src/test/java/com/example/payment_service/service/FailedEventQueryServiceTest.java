@@ -0,0 +1,84 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.dto.FailedEventFilter;
+import com.example.payment_service.dto.FailedEventPageResponse;
+import com.example.payment_service.repository.FailedEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class FailedEventQueryServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 1, 2, 0, 0);
+
+    private FailedEventRepository failedEventRepository;
+    private FailedEventQueryService queryService;
+
+    @BeforeEach
+    void setUp() {
+        failedEventRepository = mock(FailedEventRepository.class);
+        queryService = new FailedEventQueryService(failedEventRepository, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("🗓️ 기간 필터는 created_at 인덱스로 찾은 경계 id 구간만 읽는다 (경계는 1분 여유)")
+    void list_SeedsIdWindowFromCreatedAt() {
+        given(failedEventRepository.findIdsCreatedAtOrAfter(eq(FROM.minusMinutes(1)), any())).willReturn(List.of(5_000L));
+        given(failedEventRepository.findIdsCreatedAtOrAfter(eq(TO.plusMinutes(1)), any())).willReturn(List.of(7_000L));
+        FailedEventFilter filter = new FailedEventFilter(null, null, FROM, TO, null);
+
+        queryService.list(filter, 0L, 50);
+
+        verify(failedEventRepository).searchSummaries(isNull(), isNull(), eq(FROM), eq(TO), isNull(), eq(4_999L), eq(7_000L), any());
+    }
+
+    @Test
+    @DisplayName("다음 페이지 커서가 구간 시작보다 뒤면 커서를 그대로 쓴다")
+    void list_KeepsCallerCursorInsideWindow() {
+        given(failedEventRepository.findIdsCreatedAtOrAfter(eq(FROM.minusMinutes(1)), any())).willReturn(List.of(5_000L));
+        FailedEventFilter filter = new FailedEventFilter(null, null, FROM, null, null);
+
+        queryService.list(filter, 6_200L, 50);
+
+        verify(failedEventRepository).searchSummaries(isNull(), isNull(), eq(FROM), isNull(), isNull(), eq(6_200L), eq(Long.MAX_VALUE), any());
+    }
+
+    @Test
+    @DisplayName("from 이후 행이 하나도 없으면 목록 조회 없이 빈 페이지를 돌려준다")
+    void list_EmptyWhenNothingAfterFrom() {
+        given(failedEventRepository.findIdsCreatedAtOrAfter(any(), any())).willReturn(List.of());
+        FailedEventFilter filter = new FailedEventFilter(null, null, FROM, TO, null);
+
+        FailedEventPageResponse page = queryService.list(filter, 0L, 50);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextAfterId()).isNull();
+        verify(failedEventRepository, never()).searchSummaries(any(), any(), any(), any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("기간 필터가 없으면 경계 조회 없이 전체 id 구간을 읽는다")
+    void list_NoDateFilterReadsWholeRange() {
+        FailedEventFilter filter = new FailedEventFilter("trip_events", null, null, null, null);
+
+        queryService.list(filter, 0L, 50);
+
+        verify(failedEventRepository, never()).findIdsCreatedAtOrAfter(any(), any());
+        verify(failedEventRepository).searchSummaries(eq("trip_events"), isNull(), isNull(), isNull(), isNull(), eq(0L), eq(Long.MAX_VALUE), any());
+    }
+}
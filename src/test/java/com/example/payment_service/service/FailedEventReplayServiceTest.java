@@ -0,0 +1,96 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.entity.FailedEvent;
+import com.example.payment_service.entity.FailedEventStatus;
+import com.example.payment_service.repository.FailedEventRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class FailedEventReplayServiceTest {
+
+    private static final String DLT_TOPIC = "trip_events.DLT";
+
+    private FailedEventRepository failedEventRepository;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private FailedEventReplayService replayService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        failedEventRepository = mock(FailedEventRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(kafkaTemplate.send(any(ProducerRecord.class)))
+                .willReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        replayService = new FailedEventReplayService(failedEventRepository, kafkaTemplate, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("🔁 DLT 행은 원본 토픽으로 재발행하고, 내용이 같은 fingerprint 도입 전 행은 한 번만 보내고 나머지는 RESOLVED 처리한다")
+    @SuppressWarnings("unchecked")
+    void retryAllByTopic_ReplaysToSourceTopicAndDedupsLegacyRows() {
+        List<FailedEvent> events = List.of(
+                legacy(1L, "trip-1", "{\"tripId\":\"trip-1\"}"),
+                legacy(2L, "trip-1", "{\"tripId\":\"trip-1\"}"),
+                legacy(3L, "trip-2", "{\"tripId\":\"trip-2\"}"),
+                event(4L, "trip-3", "{\"tripId\":\"trip-3\"}"));
+        given(failedEventRepository.findByTopicAndStatusAndIdGreaterThan(eq(DLT_TOPIC), eq(FailedEventStatus.PENDING), anyLong(), any()))
+                .willReturn(new SliceImpl<>(events, PageRequest.of(0, 1000), false));
+
+        int replayed = replayService.retryAllByTopic(DLT_TOPIC);
+
+        assertThat(replayed).isEqualTo(3);
+        ArgumentCaptor<ProducerRecord<String, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(3)).send(sent.capture());
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::topic).containsOnly("trip_events");
+        assertThat(sent.getAllValues()).extracting(ProducerRecord::key).containsExactly("trip-1", "trip-2", "trip-3");
+        assertThat(sent.getAllValues()).allSatisfy(record ->
+                assertThat(record.headers().lastHeader(FailedEventReplayService.REPLAY_HEADER)).isNotNull());
+
+        // 중복 legacy 행(2)도 재발행 없이 함께 RESOLVED
+        verify(failedEventRepository).updateStatus(List.of(1L, 2L, 3L, 4L), FailedEventStatus.RESOLVED);
+    }
+
+    private FailedEvent event(Long id, String key, String payload) {
+        FailedEvent event = FailedEvent.builder()
+                                       .topic(DLT_TOPIC)
+                                       .kafkaKey(key)
+                                       .payload(payload)
+                                       .errorMessage("PG 장애")
+                                       .build();
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+
+    // fingerprint 컬럼 도입 전에 적재된 행
+    private FailedEvent legacy(Long id, String key, String payload) {
+        FailedEvent event = event(id, key, payload);
+        ReflectionTestUtils.setField(event, "fingerprint", null);
+        return event;
+    }
+}
@@ -2,26 +2,37 @@ package com.example.payment_service.service;
 
 import com.example.payment_service.client.PricingServiceClient;
 import com.example.payment_service.client.UserServiceClient;
-import com.example.payment_service.client.VirtualPGClient;
+import com.example.payment_service.client.PgClient;
 import com.example.payment_service.entity.Payment;
 import com.example.payment_service.entity.PaymentStatus;
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
 import com.example.payment_service.exception.PricingServiceUnavailableException;
+import com.example.payment_service.kafka.PaymentKafkaProducer;
 import com.example.payment_service.kafka.dto.TripCompletedEvent;
+import com.example.payment_service.latency.PaymentLatencyTracker;
 import com.example.payment_service.repository.PaymentOutboxRepository;
 import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.service.fare.FareQuoteService;
+import com.example.payment_service.service.fare.LocalFareEngine;
+import com.example.payment_service.shard.ShardRouter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
@@ -35,16 +46,26 @@ class PaymentServiceTest {
     @Mock private PaymentRepository paymentRepository;
     @Mock private PricingServiceClient pricingServiceClient;
     @Mock private UserServiceClient userServiceClient;
-    @Mock private VirtualPGClient virtualPGClient;
+    @Mock private PgClient pgClient;
     @Mock private PaymentOutboxRepository outboxRepository;
     @Mock private ObjectMapper objectMapper;
     @Mock private PaymentTransactionService paymentTransactionService;
+    @Mock private PaymentKafkaProducer directPublisher;
 
     @BeforeEach
     void setUp() {
+        PaymentBulkheads bulkheads = new PaymentBulkheads(new SimpleMeterRegistry(), 4, 16, 4, 16, 2, 16);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FareQuoteService fareQuoteService = new FareQuoteService(pricingServiceClient,
+                new LocalFareEngine(pricingServiceClient, meterRegistry, "off", Duration.ofMinutes(10)), meterRegistry, "off", 0);
         paymentService = new PaymentService(
-                paymentRepository, pricingServiceClient, userServiceClient,
-                virtualPGClient, outboxRepository, objectMapper, paymentTransactionService
+                paymentRepository, fareQuoteService, userServiceClient,
+                pgClient, outboxRepository, objectMapper, paymentTransactionService,
+                bulkheads,
+                new PgAuthorizationBatcher(pgClient, bulkheads, new SimpleMeterRegistry(), false, 20, Duration.ofMillis(20), 4),
+                ShardRouter.single(),
+                PaymentLatencyTracker.withDefaults(meterRegistry),
+                directPublisher
         );
     }
 
@@ -76,16 +97,16 @@ class PaymentServiceTest {
                 .willReturn(requestedPayment);
 
         // 🚨 핵심: 선점 성공 (tryStartProcessing -> true)
-        given(paymentTransactionService.tryStartProcessing(1L))
+        given(paymentTransactionService.tryStartProcessing(requestedPayment))
                 .willReturn(true);
 
         // PG 성공
         String pgTxId = "tx_12345";
-        given(virtualPGClient.processPayment()).willReturn(pgTxId);
+        given(pgClient.processPayment(anyString(), anyInt())).willReturn(pgTxId);
 
         // 최종 완료 (Outbox 저장 포함)
         Payment completedPayment = createMockPayment(1L, PaymentStatus.COMPLETED);
-        given(paymentTransactionService.completePaymentWithOutbox(eq(1L), eq(pgTxId), any()))
+        given(paymentTransactionService.completePaymentWithOutbox(eq(requestedPayment), eq(pgTxId), any()))
                 .willReturn(completedPayment);
 
         // When
@@ -95,8 +116,8 @@ class PaymentServiceTest {
         StepVerifier.create(result)
                     .verifyComplete();
 
-        then(virtualPGClient).should(times(1)).processPayment();
-        then(paymentTransactionService).should(times(1)).completePaymentWithOutbox(eq(1L), eq(pgTxId), any());
+        then(pgClient).should(times(1)).processPayment(anyString(), eq(5000));
+        then(paymentTransactionService).should(times(1)).completePaymentWithOutbox(eq(requestedPayment), eq(pgTxId), any());
     }
 
     @Test
@@ -115,7 +136,7 @@ class PaymentServiceTest {
                 .willReturn(requestedPayment);
 
         // 🚨 핵심: 선점 실패 (tryStartProcessing -> false)
-        given(paymentTransactionService.tryStartProcessing(1L))
+        given(paymentTransactionService.tryStartProcessing(requestedPayment))
                 .willReturn(false);
 
         // When
@@ -126,13 +147,13 @@ class PaymentServiceTest {
                     .verifyComplete();
 
         // PG 호출은 절대 일어나면 안 됨!
-        then(virtualPGClient).should(never()).processPayment();
+        then(pgClient).should(never()).processPayment(anyString(), anyInt());
         // 완료 처리도 일어나면 안 됨!
         then(paymentTransactionService).should(never()).completePaymentWithOutbox(any(), any(), any());
     }
 
     @Test
-    @DisplayName("❌ PG 실패 시: failPaymentWithOutbox가 호출되어야 한다")
+    @DisplayName("❌ PG 거절 시: failPaymentWithOutbox가 호출되어야 한다")
     void processPayment_PgFailure() {
         // Given
         TripCompletedEvent event = new TripCompletedEvent("trip-1", "user-1", 1000, 600, LocalDateTime.now());
@@ -145,10 +166,10 @@ class PaymentServiceTest {
         Payment requestedPayment = createMockPayment(1L, PaymentStatus.REQUESTED);
         given(paymentTransactionService.createPendingPayment(any(), anyString(), anyString(), anyInt()))
                 .willReturn(requestedPayment);
-        given(paymentTransactionService.tryStartProcessing(1L)).willReturn(true);
+        given(paymentTransactionService.tryStartProcessing(requestedPayment)).willReturn(true);
 
-        // 🚨 PG 에러 발생
-        given(virtualPGClient.processPayment()).willThrow(new RuntimeException("PG Error"));
+        // 🚨 PG 거절 발생
+        given(pgClient.processPayment(anyString(), anyInt())).willThrow(new PgPaymentDeclinedException("한도 초과"));
 
         // When
         Mono<Void> result = paymentService.processPayment(event);
@@ -158,7 +179,56 @@ class PaymentServiceTest {
                     .verifyComplete(); // onErrorResume에서 잡아서 처리하므로 Complete
 
         // fail 메서드 호출 확인
-        then(paymentTransactionService).should().failPaymentWithOutbox(eq(1L), eq("PG 승인 거절"), any());
+        then(paymentTransactionService).should().failPaymentWithOutbox(eq(requestedPayment), eq("PG 승인 거절"), any());
+    }
+
+    @Test
+    @DisplayName("⏱️ PG 타임아웃이 계속되면 FAILED 로 닫지 않고 같은 멱등 키로 재요청한 뒤 UNKNOWN 으로 넘긴다")
+    void processPayment_PgUnavailable_MarksUnknown() {
+        TripCompletedEvent event = new TripCompletedEvent("trip-1", "user-1", 1000, 600, LocalDateTime.now());
+        givenProcessingPayment();
+        given(pgClient.processPayment(anyString(), anyInt())).willThrow(new PgServiceUnavailableException("PG 결제 승인 호출 실패"));
+
+        StepVerifier.create(paymentService.processPayment(event))
+                    .verifyComplete();
+
+        // 최초 1회 + 재요청 2회, 모두 같은 paymentId(멱등 키)
+        ArgumentCaptor<String> paymentIds = ArgumentCaptor.forClass(String.class);
+        then(pgClient).should(times(3)).processPayment(paymentIds.capture(), eq(5000));
+        assertThat(paymentIds.getAllValues()).containsOnly(paymentIds.getValue());
+        then(paymentTransactionService).should().markAsUnknown(any(), isNull());
+        then(paymentTransactionService).should(never()).failPaymentWithOutbox(any(), any(), any());
+        then(outboxRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("🔁 PG 타임아웃 후 재요청이 성공하면 그대로 완료 처리한다")
+    void processPayment_PgUnavailableThenApproved() {
+        TripCompletedEvent event = new TripCompletedEvent("trip-1", "user-1", 1000, 600, LocalDateTime.now());
+        Payment processing = givenProcessingPayment();
+        given(pgClient.processPayment(anyString(), anyInt()))
+                .willThrow(new PgServiceUnavailableException("PG 결제 승인 호출 실패"))
+                .willReturn("tx_12345");
+        given(paymentTransactionService.completePaymentWithOutbox(eq(processing), eq("tx_12345"), any())).willReturn(processing);
+
+        StepVerifier.create(paymentService.processPayment(event))
+                    .verifyComplete();
+
+        then(paymentTransactionService).should().completePaymentWithOutbox(eq(processing), eq("tx_12345"), any());
+        then(paymentTransactionService).should(never()).markAsUnknown(any(), any());
+        then(paymentTransactionService).should(never()).failPaymentWithOutbox(any(), any(), any());
+    }
+
+    private Payment givenProcessingPayment() {
+        given(pricingServiceClient.calculateFare(any(), any(), any(), any()))
+                .willReturn(Mono.just(new PricingServiceClient.FareResponse(5000)));
+        given(userServiceClient.getUserInfoForPayment(any()))
+                .willReturn(Mono.just(new UserServiceClient.UserInfoForPaymentResponse("user-1", "name", "email", "phone", "card-123")));
+        Payment requestedPayment = createMockPayment(1L, PaymentStatus.REQUESTED);
+        given(paymentTransactionService.createPendingPayment(any(), anyString(), anyString(), anyInt()))
+                .willReturn(requestedPayment);
+        given(paymentTransactionService.tryStartProcessing(requestedPayment)).willReturn(true);
+        return requestedPayment;
     }
 
     @Test
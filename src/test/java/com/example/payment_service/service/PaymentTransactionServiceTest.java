@@ -3,6 +3,8 @@ package com.example.payment_service.service;
 import com.example.payment_service.entity.Payment;
 import com.example.payment_service.entity.PaymentOutbox;
 import com.example.payment_service.entity.PaymentStatus;
+import com.example.payment_service.exception.IllegalPaymentTransitionException;
+import com.example.payment_service.kafka.PaymentKafkaProducer;
 import com.example.payment_service.kafka.dto.TripCompletedEvent;
 import com.example.payment_service.repository.PaymentOutboxRepository;
 import com.example.payment_service.repository.PaymentRepository;
@@ -20,6 +22,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
@@ -35,6 +38,7 @@ class PaymentTransactionServiceTest {
     @Mock private PaymentRepository paymentRepository;
     @Mock private PaymentOutboxRepository outboxRepository;
     @Mock private ObjectMapper objectMapper;
+    @Mock private PaymentKafkaProducer directPublisher;
 
     private Payment createMockPayment(Long id, PaymentStatus status) {
         Payment payment = Payment.builder()
@@ -45,6 +49,7 @@ class PaymentTransactionServiceTest {
                                  .build();
         ReflectionTestUtils.setField(payment, "id", id);
         ReflectionTestUtils.setField(payment, "status", status);
+        ReflectionTestUtils.setField(payment, "version", 3L);
         return payment;
     }
 
@@ -92,45 +97,70 @@ class PaymentTransactionServiceTest {
     @DisplayName("선점 시도: DB 업데이트가 1건이면 true를 반환한다")
     void tryStartProcessing_Success() {
         // Given
-        given(paymentRepository.tryStartProcessing(1L)).willReturn(1);
+        Payment payment = createMockPayment(1L, PaymentStatus.REQUESTED);
+        given(paymentRepository.transition(eq(1L), eq(PaymentStatus.REQUESTED), eq(3L), eq(PaymentStatus.PROCESSING), any()))
+                .willReturn(1);
 
         // When
-        boolean result = transactionService.tryStartProcessing(1L);
+        boolean result = transactionService.tryStartProcessing(payment);
 
         // Then
         assertThat(result).isTrue();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+        assertThat(payment.getVersion()).isEqualTo(4L);
     }
 
     @Test
     @DisplayName("선점 시도: DB 업데이트가 0건이면 false를 반환한다")
     void tryStartProcessing_Fail() {
         // Given
-        given(paymentRepository.tryStartProcessing(1L)).willReturn(0);
+        Payment payment = createMockPayment(1L, PaymentStatus.REQUESTED);
+        given(paymentRepository.transition(eq(1L), eq(PaymentStatus.REQUESTED), eq(3L), eq(PaymentStatus.PROCESSING), any()))
+                .willReturn(0);
 
         // When
-        boolean result = transactionService.tryStartProcessing(1L);
+        boolean result = transactionService.tryStartProcessing(payment);
 
         // Then
         assertThat(result).isFalse();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.REQUESTED);
     }
 
     @Test
-    @DisplayName("결제 완료: 상태를 COMPLETED로 변경하고 Outbox에 이벤트를 저장해야 한다")
+    @DisplayName("결제 완료: 조건부 UPDATE 한 번으로 COMPLETED로 변경하고 Outbox에 이벤트를 저장해야 한다")
     void completePaymentWithOutbox_Success() throws JsonProcessingException {
         // Given
         Payment payment = createMockPayment(1L, PaymentStatus.PROCESSING);
-        given(paymentRepository.findById(1L)).willReturn(Optional.of(payment));
+        given(paymentRepository.transitionWithPgTransaction(eq(1L), eq(PaymentStatus.PROCESSING), eq(3L),
+                eq(PaymentStatus.COMPLETED), eq("pg_tx_123"), any(), any())).willReturn(1);
         given(objectMapper.writeValueAsString(any())).willReturn("{\"json\":\"payload\"}");
 
         // When
-        Payment result = transactionService.completePaymentWithOutbox(1L, "pg_tx_123", new Object());
+        Payment result = transactionService.completePaymentWithOutbox(payment, "pg_tx_123", new Object());
 
         // Then
         assertThat(result.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
         assertThat(result.getPgTransactionId()).isEqualTo("pg_tx_123");
+        assertThat(result.getCompletedAt()).isNotNull();
 
-        // Outbox 저장 검증
+        // SELECT 없이 UPDATE 만, Outbox 저장 검증
+        then(paymentRepository).should(never()).findById(any());
         then(outboxRepository).should(times(1)).save(any(PaymentOutbox.class));
+        then(directPublisher).should(times(1)).publishAfterCommit(any());
+    }
+
+    @Test
+    @DisplayName("결제 완료: 다른 경로가 먼저 종결해 UPDATE 가 0건이면 예외를 던지고 Outbox는 저장하지 않는다")
+    void completePaymentWithOutbox_LostRace() {
+        // Given
+        Payment payment = createMockPayment(1L, PaymentStatus.PROCESSING);
+        given(paymentRepository.transitionWithPgTransaction(any(), any(), any(), any(), any(), any(), any())).willReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> transactionService.completePaymentWithOutbox(payment, "pg_tx_123", new Object()))
+                .isInstanceOf(IllegalPaymentTransitionException.class);
+        then(outboxRepository).should(never()).save(any(PaymentOutbox.class));
+        then(directPublisher).shouldHaveNoInteractions();
     }
 
     @Test
@@ -138,31 +168,50 @@ class PaymentTransactionServiceTest {
     void failPaymentWithOutbox_Success() throws JsonProcessingException {
         // Given
         Payment payment = createMockPayment(1L, PaymentStatus.PROCESSING);
-        given(paymentRepository.findById(1L)).willReturn(Optional.of(payment));
+        given(paymentRepository.transition(eq(1L), eq(PaymentStatus.PROCESSING), eq(3L), eq(PaymentStatus.FAILED), any()))
+                .willReturn(1);
         given(objectMapper.writeValueAsString(any())).willReturn("{\"json\":\"payload\"}");
 
         // When
-        transactionService.failPaymentWithOutbox(1L, "잔액 부족", new Object());
+        boolean result = transactionService.failPaymentWithOutbox(payment, "잔액 부족", new Object());
 
         // Then
+        assertThat(result).isTrue();
         assertThat(payment.getStatus()).isEqualTo(PaymentStatus.FAILED);
 
         // Outbox 저장 검증
         then(outboxRepository).should(times(1)).save(any(PaymentOutbox.class));
     }
 
+    @Test
+    @DisplayName("허용되지 않는 전이(종결 상태 → FAILED)는 DB를 건드리지 않고 거절한다")
+    void failPaymentWithOutbox_IllegalTransitionRejectedWithoutQuery() {
+        // Given
+        Payment payment = createMockPayment(1L, PaymentStatus.COMPLETED);
+
+        // When
+        boolean result = transactionService.failPaymentWithOutbox(payment, "좀비 데이터 자동 복구", new Object());
+
+        // Then
+        assertThat(result).isFalse();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        then(paymentRepository).shouldHaveNoInteractions();
+        then(outboxRepository).shouldHaveNoInteractions();
+    }
+
     @Test
     @DisplayName("Unknown 마킹: 상태를 UNKNOWN으로 변경해야 한다")
     void markAsUnknown_Success() {
         // Given
         Payment payment = createMockPayment(1L, PaymentStatus.PROCESSING);
-        given(paymentRepository.findById(1L)).willReturn(Optional.of(payment));
+        given(paymentRepository.transitionWithPgTransaction(eq(1L), eq(PaymentStatus.PROCESSING), eq(3L),
+                eq(PaymentStatus.UNKNOWN), eq("pg_tx_123"), isNull(), any())).willReturn(1);
 
         // When
-        transactionService.markAsUnknown(1L, "pg_tx_123");
+        transactionService.markAsUnknown(payment, "pg_tx_123");
 
         // Then
         assertThat(payment.getStatus()).isEqualTo(PaymentStatus.UNKNOWN);
         assertThat(payment.getPgTransactionId()).isEqualTo("pg_tx_123");
     }
-}
\ No newline at end of file
+}
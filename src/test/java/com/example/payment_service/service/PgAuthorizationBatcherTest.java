@@ -0,0 +1,72 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.client.PgClient;
+import com.example.payment_service.entity.Payment;
+import com.example.payment_service.exception.PgPaymentDeclinedException;
+import com.example.payment_service.exception.PgServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PgAuthorizationBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentBulkheads bulkheads = new PaymentBulkheads(meterRegistry, 4, 16, 4, 16, 2, 16);
+    private PgAuthorizationBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) batcher.destroy();
+    }
+
+    @Test
+    @DisplayName("❓ 결과를 알 수 없는 항목은 거절이 아니라 PG 장애로 돌려주고, 거절만 PgPaymentDeclinedException 으로 돌려준다")
+    void authorize_UnknownItemIsNotADecline() {
+        PgClient pgClient = mock(PgClient.class);
+        given(pgClient.supportsBatchAuthorization()).willReturn(true);
+        Payment declined = payment("trip-2");
+        Payment unknown = payment("trip-3");
+        given(pgClient.processPayments(anyList())).willReturn(List.of(
+                PgClient.AuthorizationResult.declined(declined.getPaymentId(), "한도 초과"),
+                PgClient.AuthorizationResult.unknown(unknown.getPaymentId(), "PG 배치 응답 누락 후 재확인 실패")));
+        batcher = new PgAuthorizationBatcher(pgClient, bulkheads, meterRegistry, true, 2, Duration.ofSeconds(5), 1);
+
+        var declinedResult = batcher.authorize(declined).cache();
+        var unknownResult = batcher.authorize(unknown).cache();
+        declinedResult.subscribe(v -> {}, e -> {});
+        unknownResult.subscribe(v -> {}, e -> {});
+
+        StepVerifier.create(declinedResult).verifyError(PgPaymentDeclinedException.class);
+        StepVerifier.create(unknownResult).verifyError(PgServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("배치 승인 API 가 없는 PG 는 배치를 켜도 건별 승인으로 동작한다")
+    void authorize_FallsBackToSingleWhenClientHasNoBatchApi() {
+        PgClient pgClient = mock(PgClient.class);
+        given(pgClient.supportsBatchAuthorization()).willReturn(false);
+        given(pgClient.processPayment(anyString(), anyInt())).willReturn("tx-1");
+        batcher = new PgAuthorizationBatcher(pgClient, bulkheads, meterRegistry, true, 20, Duration.ofMillis(20), 4);
+
+        StepVerifier.create(batcher.authorize(payment("trip-1"))).expectNext("tx-1").verifyComplete();
+
+        verify(pgClient, never()).processPayments(anyList());
+    }
+
+    private Payment payment(String tripId) {
+        return Payment.builder().tripId(tripId).userId("user-1").paymentMethodId("card-1").amount(1000).build();
+    }
+}
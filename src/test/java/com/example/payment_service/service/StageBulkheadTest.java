@@ -0,0 +1,74 @@
+package com.example.payment_service.service;
+
+import com.example.payment_service.exception.StageBulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StageBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StageBulkhead bulkhead = new StageBulkhead("test", 1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.dispose();
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 admit 은 거절하고 rejected 카운터를 올린다")
+    void admit_RejectsWhenQueueFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        // 스레드 1개를 점유
+        Disposable busy = bulkhead.run(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).subscribe();
+        running.await(5, TimeUnit.SECONDS);
+
+        // 대기열 1칸 점유
+        Disposable queued = bulkhead.admit(() -> "queued").subscribe();
+
+        StepVerifier.create(bulkhead.admit(() -> "rejected"))
+                    .expectError(StageBulkheadFullException.class)
+                    .verify();
+
+        assertThat(meterRegistry.get("payment.bulkhead.rejected").tag("stage", "test").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        busy.dispose();
+        queued.dispose();
+    }
+
+    @Test
+    @DisplayName("run 은 대기열이 가득 차도 거절하지 않고 끝까지 처리한다")
+    void run_NeverRejects() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        Disposable busy = bulkhead.run(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).subscribe();
+        running.await(5, TimeUnit.SECONDS);
+        Disposable queued = bulkhead.run(() -> "queued").subscribe();
+
+        StepVerifier.create(bulkhead.run(() -> "in-flight"))
+                    .then(release::countDown)
+                    .expectNext("in-flight")
+                    .verifyComplete();
+
+        busy.dispose();
+        queued.dispose();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.payment_service.service.export;
+
+import com.example.payment_service.dto.PaymentExportRow;
+import com.example.payment_service.entity.PaymentStatus;
+import com.example.payment_service.exception.InvalidExportRequestException;
+import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Mock private PaymentRepository paymentRepository;
+    @TempDir Path tempDir;
+
+    private PaymentExportService exportService;
+
+    @AfterEach
+    void tearDown() {
+        if (exportService != null) exportService.destroy();
+    }
+
+    @Test
+    @DisplayName("📦 keyset 커서로 페이지를 이어 읽어 gzip CSV 로 쓰고 행 수를 집계한다")
+    void start_StreamsPagesIntoGzipCsv() throws Exception {
+        exportService = new PaymentExportService(paymentRepository, ShardRouter.single(), new SimpleMeterRegistry(), tempDir, 1, 2, 8, 2, 10);
+
+        PaymentExportRow first = row(1L, FROM.plusHours(1));
+        PaymentExportRow second = row(2L, FROM.plusHours(2));
+        PaymentExportRow third = row(3L, FROM.plusHours(3));
+
+        given(paymentRepository.findExportPage(eq(FROM), eq(0L), eq(TO), any())).willReturn(List.of(first, second));
+        // 다음 페이지는 마지막 행의 (requestedAt, id) 다음부터
+        given(paymentRepository.findExportPage(eq(second.requestedAt()), eq(2L), eq(TO), any())).willReturn(List.of(third));
+
+        PaymentExportJob job = exportService.start(FROM, TO, 1);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(PaymentExportJob.Status.COMPLETED);
+        assertThat(job.getRows().get()).isEqualTo(3);
+        assertThat(job.getFiles()).hasSize(1);
+
+        List<String> lines = readGzipLines(job.getFiles().get(0));
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo(PaymentExportService.CSV_HEADER);
+        assertThat(lines.get(3)).startsWith("pay-3,trip-3,user-3,5000,COMPLETED,tx_3,");
+    }
+
+    @Test
+    @DisplayName("쉼표/따옴표/줄바꿈이 들어간 필드는 RFC 4180 으로 감싸서 행이 깨지지 않는다")
+    void start_QuotesFieldsWithSeparators() throws Exception {
+        exportService = new PaymentExportService(paymentRepository, ShardRouter.single(), new SimpleMeterRegistry(), tempDir, 1, 2, 8, 2, 10);
+        LocalDateTime requestedAt = FROM.plusHours(1);
+        PaymentExportRow row = new PaymentExportRow(1L, "pay-1", "trip,1", "user \"kim\"", 5000,
+                PaymentStatus.COMPLETED, "tx\n1", requestedAt, null);
+        given(paymentRepository.findExportPage(eq(FROM), eq(0L), eq(TO), any())).willReturn(List.of(row));
+
+        PaymentExportJob job = exportService.start(FROM, TO, 1);
+        awaitFinished(job);
+
+        String content = String.join("\n", readGzipLines(job.getFiles().get(0)));
+        assertThat(content).isEqualTo(PaymentExportService.CSV_HEADER + "\n"
+                + "pay-1,\"trip,1\",\"user \"\"kim\"\"\",5000,COMPLETED,\"tx\n1\"," + requestedAt + ",");
+    }
+
+    @Test
+    @DisplayName("기간이 잘못됐거나 slice 수가 범위를 벗어나면 거절한다")
+    void start_RejectsInvalidRequest() {
+        exportService = new PaymentExportService(paymentRepository, ShardRouter.single(), new SimpleMeterRegistry(), tempDir, 1, 2, 8, 2, 10);
+
+        assertThatThrownBy(() -> exportService.start(TO, FROM, 1)).isInstanceOf(InvalidExportRequestException.class);
+        assertThatThrownBy(() -> exportService.start(FROM, TO, 9)).isInstanceOf(InvalidExportRequestException.class);
+    }
+
+    private void awaitFinished(PaymentExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStatus() == PaymentExportJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private List<String> readGzipLines(Path file) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private PaymentExportRow row(Long id, LocalDateTime requestedAt) {
+        return new PaymentExportRow(id, "pay-" + id, "trip-" + id, "user-" + id, 5000,
+                PaymentStatus.COMPLETED, "tx_" + id, requestedAt, requestedAt.plusSeconds(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.payment_service.service.fare;
+
+import com.example.payment_service.client.PricingServiceClient;
+import com.example.payment_service.dto.PricingRuleSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class FareQuoteServiceTest {
+
+    private static final PricingRuleSnapshot RULES = new PricingRuleSnapshot("v1", 3800, 1.0, 0.5, 4800, 100, List.of(
+            new PricingRuleSnapshot.TimeBand(LocalTime.of(22, 0), LocalTime.of(4, 0), 1.2)));
+
+    @Mock private PricingServiceClient pricingServiceClient;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("💰 기본요금 + 거리/시간 요금에 종료 시각의 시간대 할증을 곱하고 최소요금·반올림 단위를 적용한다")
+    void evaluate_AppliesTimeBandMinimumAndRounding() {
+        LocalDateTime day = LocalDateTime.of(2024, 1, 1, 14, 0);
+        LocalDateTime lateNight = LocalDateTime.of(2024, 1, 1, 1, 30);
+
+        // 3800 + 5000 + 300 = 9100
+        assertThat(LocalFareEngine.evaluate(RULES, 5000, 600, day)).isEqualTo(9100);
+        // 자정을 넘기는 심야 구간: 9100 * 1.2 = 10920 → 100원 단위 반올림
+        assertThat(LocalFareEngine.evaluate(RULES, 5000, 600, lateNight)).isEqualTo(10900);
+        // 짧은 거리는 최소요금
+        assertThat(LocalFareEngine.evaluate(RULES, 100, 10, day)).isEqualTo(4800);
+    }
+
+    @Test
+    @DisplayName("local 모드는 스냅샷으로 계산하고 원격 호출을 하지 않는다")
+    void calculateFare_LocalModeSkipsRemoteCall() {
+        given(pricingServiceClient.fetchRuleSnapshot()).willReturn(Mono.just(RULES));
+        FareQuoteService service = newService("local");
+
+        StepVerifier.create(service.calculateFare("trip-1", 5000, 600, LocalDateTime.of(2024, 1, 1, 14, 0)))
+                    .assertNext(response -> assertThat(response.fare()).isEqualTo(9100))
+                    .verifyComplete();
+
+        then(pricingServiceClient).should(never()).calculateFare(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("shadow 모드는 원격 요금으로 과금하고 로컬 계산과 다르면 불일치로 집계한다")
+    void calculateFare_ShadowModeCountsMismatch() {
+        given(pricingServiceClient.fetchRuleSnapshot()).willReturn(Mono.just(RULES));
+        given(pricingServiceClient.calculateFare(anyString(), anyInt(), anyInt(), any()))
+                .willReturn(Mono.just(new PricingServiceClient.FareResponse(9100)))
+                .willReturn(Mono.just(new PricingServiceClient.FareResponse(9500)));
+        FareQuoteService service = newService("shadow");
+        LocalDateTime endedAt = LocalDateTime.of(2024, 1, 1, 14, 0);
+
+        StepVerifier.create(service.calculateFare("trip-1", 5000, 600, endedAt)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(service.calculateFare("trip-2", 5000, 600, endedAt))
+                    .assertNext(response -> assertThat(response.fare()).isEqualTo(9500))
+                    .verifyComplete();
+
+        assertThat(meterRegistry.get("payment.fare.shadow.compare").tag("result", "match").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("payment.fare.shadow.compare").tag("result", "mismatch").counter().count()).isEqualTo(1.0);
+    }
+
+    private FareQuoteService newService(String mode) {
+        LocalFareEngine engine = new LocalFareEngine(pricingServiceClient, meterRegistry, mode, Duration.ofMinutes(10));
+        engine.refresh();
+        return new FareQuoteService(pricingServiceClient, engine, meterRegistry, mode, 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.payment_service.service.reconciliation;
+
+import com.example.payment_service.dto.PaymentReconciliationRow;
+import com.example.payment_service.entity.PaymentStatus;
+import com.example.payment_service.repository.PaymentRepository;
+import com.example.payment_service.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+    private static final LocalDateTime NOON = DAY.atTime(12, 0);
+
+    @Mock private PaymentRepository paymentRepository;
+    @TempDir Path tempDir;
+
+    @Test
+    @DisplayName("🧮 정산 파일과 payments 를 거래번호로 맞춰 보고 유형별 불일치를 CSV 로 남긴다")
+    void reconcile_WritesMismatchesByType() throws Exception {
+        Path settlementFile = tempDir.resolve("settlement.csv");
+        Files.writeString(settlementFile, String.join("\n",
+                "pg_transaction_id,status,amount",
+                "tx_ok,PAID,5000",
+                "tx_failed_local,PAID,7000",
+                "tx_amount,PAID,9999",
+                "tx_canceled,CANCELED,3000",
+                "tx_unknown,PAID,4000",
+                "tx_only_pg,PAID,1000"));
+
+        given(paymentRepository.findReconciliationPage(any(), eq(0L), any(), any())).willReturn(List.of(
+                row(1L, "tx_ok", PaymentStatus.COMPLETED, 5000, NOON),
+                row(2L, "tx_failed_local", PaymentStatus.FAILED, 7000, NOON),
+                row(3L, "tx_amount", PaymentStatus.COMPLETED, 5000, NOON),
+                row(4L, "tx_canceled", PaymentStatus.COMPLETED, 3000, NOON),
+                row(5L, "tx_unknown", PaymentStatus.UNKNOWN, 4000, NOON),
+                row(6L, "tx_only_local", PaymentStatus.COMPLETED, 2000, NOON),
+                // 전날 여유 구간의 건은 이 날짜 파일에 없어도 불일치가 아님
+                row(7L, "tx_prev_day", PaymentStatus.COMPLETED, 2000, DAY.atStartOfDay().minusMinutes(5))
+        ));
+
+        PaymentReconciliationService service = new PaymentReconciliationService(
+                paymentRepository, ShardRouter.single(), new SettlementFileReader("csv", "0-20,20-30,30-42"), new SimpleMeterRegistry(),
+                tempDir.resolve("work"), tempDir.resolve("out"), 4, 2, 5000, Duration.ofMinutes(10));
+
+        ReconciliationReport report = service.reconcile(DAY, settlementFile);
+
+        assertThat(report.pgRecords()).isEqualTo(6);
+        assertThat(report.localRows()).isEqualTo(7);
+        assertThat(report.matched()).isEqualTo(1);
+        assertThat(report.mismatches())
+                .containsEntry(ReconciliationMismatch.Type.PAID_BUT_NOT_COMPLETED, 1L)
+                .containsEntry(ReconciliationMismatch.Type.AMOUNT_MISMATCH, 1L)
+                .containsEntry(ReconciliationMismatch.Type.CANCELED_BUT_COMPLETED, 1L)
+                .containsEntry(ReconciliationMismatch.Type.LOCAL_UNKNOWN, 1L)
+                .containsEntry(ReconciliationMismatch.Type.MISSING_IN_PG, 1L)
+                .containsEntry(ReconciliationMismatch.Type.MISSING_LOCALLY, 1L);
+
+        List<String> lines = Files.readAllLines(report.mismatchFile());
+        assertThat(lines).hasSize(7); // 헤더 + 불일치 6건
+        assertThat(lines).anyMatch(line -> line.startsWith("MISSING_LOCALLY,tx_only_pg,"));
+        assertThat(Files.list(tempDir.resolve("work"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("📑 다음 페이지는 직전 페이지 마지막 행의 (requestedAt, id) 커서로 이어 읽는다")
+    void reconcile_PagesWithRequestedAtIdCursor() throws Exception {
+        Path settlementFile = tempDir.resolve("settlement.csv");
+        Files.writeString(settlementFile, String.join("\n",
+                "pg_transaction_id,status,amount",
+                "tx_1,PAID,1000",
+                "tx_2,PAID,1000",
+                "tx_3,PAID,1000"));
+
+        // id 와 requestedAt 순서가 다름 (id 9 가 먼저 요청됨)
+        PaymentReconciliationRow first = row(9L, "tx_1", PaymentStatus.COMPLETED, 1000, NOON);
+        PaymentReconciliationRow second = row(2L, "tx_2", PaymentStatus.COMPLETED, 1000, NOON.plusMinutes(1));
+        PaymentReconciliationRow third = row(5L, "tx_3", PaymentStatus.COMPLETED, 1000, NOON.plusMinutes(2));
+        given(paymentRepository.findReconciliationPage(any(), eq(0L), any(), any())).willReturn(List.of(first, second));
+        given(paymentRepository.findReconciliationPage(eq(second.requestedAt()), eq(2L), any(), any())).willReturn(List.of(third));
+
+        PaymentReconciliationService service = new PaymentReconciliationService(
+                paymentRepository, ShardRouter.single(), new SettlementFileReader("csv", "0-20,20-30,30-42"), new SimpleMeterRegistry(),
+                tempDir.resolve("work"), tempDir.resolve("out"), 4, 2, 2, Duration.ofMinutes(10));
+
+        ReconciliationReport report = service.reconcile(DAY, settlementFile);
+
+        assertThat(report.localRows()).isEqualTo(3);
+        assertThat(report.matched()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("📄 fixed-width 정산 파일도 컬럼 위치로 읽는다")
+    void settlementFileReader_ParsesFixedWidth() throws Exception {
+        Path file = tempDir.resolve("settlement.dat");
+        Files.writeString(file, "tx_fixed_00000000001PAID      000000005000\n");
+
+        SettlementFileReader reader = new SettlementFileReader("fixed-width", "0-20,20-30,30-42");
+        List<SettlementRecord> records = new ArrayList<>();
+        reader.read(file, records::add);
+
+        assertThat(records).containsExactly(new SettlementRecord("tx_fixed_00000000001", "PAID", 5000));
+    }
+
+    private PaymentReconciliationRow row(Long id, String pgTransactionId, PaymentStatus status, int amount, LocalDateTime requestedAt) {
+        return new PaymentReconciliationRow(id, "trip-" + id, pgTransactionId, status, amount, requestedAt);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.payment_service.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRouterTest {
+
+    private static final int SHARDS = 3;
+
+    private ShardRouter router;
+    private ShardRoutingDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private final List<JdbcTemplate> shardJdbc = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 로컬 H2 in-memory DB 3개를 shard 로 사용
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<DataSource> shards = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            String url = "jdbc:h2:mem:payments-" + run + "-" + i + ";DB_CLOSE_DELAY=-1";
+            urls.add(url);
+            DriverManagerDataSource shard = new DriverManagerDataSource(url, "sa", "");
+            shards.add(shard);
+            shardJdbc.add(new JdbcTemplate(shard));
+        }
+        router = new ShardRouter(true, urls);
+        dataSource = new ShardRoutingDataSource(shards);
+        jdbc = new JdbcTemplate(dataSource);
+
+        router.fanOut(shard -> {
+            jdbc.execute("CREATE TABLE payments (trip_id VARCHAR(64) PRIMARY KEY, amount INT)");
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.fanOut(shard -> {
+            jdbc.execute("SHUTDOWN");
+            return null;
+        });
+        router.destroy();
+    }
+
+    @Test
+    @DisplayName("🧩 tripId 해시로 고른 shard 에만 쓰고, 같은 키로 다시 읽으면 같은 shard 에서 찾는다")
+    void callFor_RoutesByTripIdHash() {
+        List<String> tripIds = IntStream.range(0, 300).mapToObj(i -> "trip-" + i).toList();
+
+        for (String tripId : tripIds) {
+            router.runFor(tripId, () -> jdbc.update("INSERT INTO payments (trip_id, amount) VALUES (?, ?)", tripId, 5000));
+        }
+
+        for (String tripId : tripIds) {
+            int owner = router.shardOf(tripId);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                Integer found = shardJdbc.get(shard).queryForObject(
+                        "SELECT COUNT(*) FROM payments WHERE trip_id = ?", Integer.class, tripId);
+                assertThat(found).isEqualTo(shard == owner ? 1 : 0);
+            }
+            Integer amount = router.callFor(tripId, () -> jdbc.queryForObject(
+                    "SELECT amount FROM payments WHERE trip_id = ?", Integer.class, tripId));
+            assertThat(amount).isEqualTo(5000);
+        }
+
+        // 모든 shard 에 고르게 퍼짐
+        List<Integer> counts = router.fanOut(shard -> jdbc.queryForObject("SELECT COUNT(*) FROM payments", Integer.class));
+        assertThat(counts).hasSize(SHARDS).allSatisfy(count -> assertThat(count).isBetween(60, 140));
+        assertThat(counts.stream().mapToInt(Integer::intValue).sum()).isEqualTo(tripIds.size());
+    }
+
+    @Test
+    @DisplayName("샤딩이 꺼져 있으면 모든 키가 shard 0 이고 fanOut 은 한 번만 실행한다")
+    void single_AlwaysShardZero() {
+        ShardRouter single = ShardRouter.single();
+
+        assertThat(single.shardOf("trip-1")).isZero();
+        assertThat(single.shardOf("trip-2")).isZero();
+        assertThat(single.fanOut(shard -> shard)).containsExactly(0);
+    }
+}
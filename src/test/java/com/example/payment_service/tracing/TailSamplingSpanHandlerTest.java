@@ -0,0 +1,100 @@
+package com.example.payment_service.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+class TailSamplingSpanHandlerTest {
+
+    private final AsyncZipkinSpanHandler zipkin = mock(AsyncZipkinSpanHandler.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TailSamplingSpanHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        if (handler != null) handler.destroy();
+    }
+
+    @Test
+    @DisplayName("🔍 에러 span 이 있는 trace 는 로컬 root 가 끝날 때 trace 전체를 보낸다")
+    void end_KeepsWholeTraceWithError() {
+        handler = newHandler(0.0);
+        TraceContext root = context(1L, 10L, null);
+        TraceContext child = context(1L, 11L, 10L);
+
+        MutableSpan childSpan = span(child, 10L, 0, 1_000);
+        childSpan.error(new IllegalStateException("PG 승인 실패"));
+
+        assertThat(handler.end(child, childSpan, SpanHandler.Cause.FINISHED)).isFalse();
+        then(zipkin).should(never()).end(any(), any(), any());
+
+        handler.end(root, span(root, 10L, 0, 5_000), SpanHandler.Cause.FINISHED);
+
+        then(zipkin).should(times(2)).end(any(), any(), any());
+        assertThat(meterRegistry.get("payment.trace.tail.decisions").tag("decision", "kept_error").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("정상 trace 는 healthy-ratio 에 따라 버리고, 느린 trace 는 남긴다")
+    void end_DropsHealthyButKeepsSlowTrace() {
+        handler = newHandler(0.0);
+
+        TraceContext healthy = context(2L, 20L, null);
+        handler.end(healthy, span(healthy, 20L, 0, 50_000), SpanHandler.Cause.FINISHED);
+        then(zipkin).should(never()).end(any(), any(), any());
+
+        TraceContext slow = context(3L, 30L, null);
+        handler.end(slow, span(slow, 30L, 0, 3_000_000), SpanHandler.Cause.FINISHED);
+        then(zipkin).should(times(1)).end(any(), any(), any());
+
+        assertThat(meterRegistry.get("payment.trace.tail.decisions").tag("decision", "dropped").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("payment.trace.tail.decisions").tag("decision", "kept_slow").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("재시도/보상 키워드가 붙은 span 이 있으면 trace 를 남긴다")
+    void end_KeepsTraceWithKeyword() {
+        handler = newHandler(0.0);
+        TraceContext root = context(4L, 40L, null);
+        MutableSpan span = span(root, 40L, 0, 1_000);
+        span.tag("messaging.destination.name", "trip_events.retry");
+
+        handler.end(root, span, SpanHandler.Cause.FINISHED);
+
+        then(zipkin).should(times(1)).end(any(), any(), any());
+    }
+
+    private TailSamplingSpanHandler newHandler(double healthyRatio) {
+        return new TailSamplingSpanHandler(zipkin, meterRegistry, Duration.ofSeconds(2), healthyRatio,
+                100, 16, Duration.ofSeconds(10), "retry,dlt,cancel,compensat");
+    }
+
+    private TraceContext context(long traceId, long spanId, Long parentId) {
+        TraceContext.Builder builder = TraceContext.newBuilder().traceId(traceId).spanId(spanId).sampled(true);
+        if (parentId != null) builder.parentId(parentId);
+        return builder.build();
+    }
+
+    private MutableSpan span(TraceContext context, long localRootId, long startMicros, long durationMicros) {
+        MutableSpan span = new MutableSpan(context, null);
+        span.localRootId(String.format("%016x", localRootId)); // brave 의 16자리 hex span id 형식
+        span.name("payment");
+        span.startTimestamp(1_700_000_000_000_000L + startMicros);
+        span.finishTimestamp(1_700_000_000_000_000L + startMicros + durationMicros);
+        return span;
+    }
+}